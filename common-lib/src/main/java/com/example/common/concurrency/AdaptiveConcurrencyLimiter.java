@@ -0,0 +1,133 @@
+package com.example.common.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient-based concurrency limit that tracks the latency-vs-concurrency curve at runtime.
+ * <p>
+ * A slow-moving baseline RTT (the latency with no queueing) is compared to the RTT of the most recent window.
+ * When recent latency rises above the baseline the limit shrinks proportionally
+ * ({@code gradient = tolerance * baseline / recent}, capped at 1); otherwise it grows by a queue allowance of
+ * {@code sqrt(limit)}. Changes are smoothed and clamped to {@code [minLimit, maxLimit]}. The limit only grows
+ * while traffic actually uses it, so an idle service does not drift towards {@code maxLimit}.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_DECAY = 0.95;
+    private static final int BASELINE_WARMUP = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInflight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile double limit;
+    private volatile long windowStart = System.nanoTime();
+    private double baselineRtt;
+    private int baselineWindows;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long windowNanos, int minWindowSamples) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Require 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+    }
+
+    /**
+     * Claims a slot if the request's priority still has room under the current limit.
+     *
+     * @return {@code true} if admitted; the caller must then call {@link #release(long, boolean)} exactly once
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = (int) Math.max(1, limit * priority.getLimitShare());
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= allowed) {
+                return false;
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+        windowMaxInflight.accumulateAndGet(current + 1, Math::max);
+        return true;
+    }
+
+    /**
+     * Frees a slot.
+     *
+     * @param rttNanos time the request held the slot
+     * @param sample whether the RTT reflects server work and should feed the gradient (false for async/streamed
+     *               requests and errors that bypassed the real work)
+     */
+    public void release(long rttNanos, boolean sample) {
+        inflight.decrementAndGet();
+        if (!sample) {
+            return;
+        }
+        windowRttSum.add(rttNanos);
+        windowSamples.increment();
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos && windowSamples.sum() >= minWindowSamples && updateLock.tryLock()) {
+            try {
+                closeWindow(now);
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    private void closeWindow(long now) {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        int maxInflight = windowMaxInflight.getAndSet(inflight.get());
+        windowStart = now;
+        if (samples == 0) {
+            return;
+        }
+        double recentRtt = (double) rttSum / samples;
+
+        if (baselineWindows < BASELINE_WARMUP) {
+            baselineRtt = baselineWindows == 0 ? recentRtt : Math.min(baselineRtt, recentRtt);
+            baselineWindows++;
+            return;
+        }
+        // Let the baseline follow genuine, lasting shifts (bigger payloads, slower dependency) instead of pinning
+        // the limit at its floor forever
+        if (recentRtt > baselineRtt * TOLERANCE * 2) {
+            baselineRtt = baselineRtt * BASELINE_DECAY + recentRtt * (1 - BASELINE_DECAY);
+        } else {
+            baselineRtt = Math.min(baselineRtt, recentRtt) * 0.1 + baselineRtt * 0.9;
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineRtt / recentRtt));
+        double candidate = current * gradient + Math.sqrt(current);
+        if (candidate > current && maxInflight < current / 2) {
+            // App-limited: the limit was not the bottleneck, so latency says nothing about raising it
+            candidate = current;
+        }
+        double smoothed = current * (1 - SMOOTHING) + candidate * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
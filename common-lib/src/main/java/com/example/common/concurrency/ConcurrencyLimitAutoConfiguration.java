@@ -0,0 +1,67 @@
+package com.example.common.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Registers the adaptive concurrency limiter right after {@link com.example.common.logging.CorrelationIdFilter},
+ * so shed requests still carry a correlation id. Disable with {@code app.concurrency-limit.enabled=false}; the flag
+ * disables the filter registration rather than removing the beans, so an AOT-processed build can still switch it at
+ * run time.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ConcurrencyLimitAutoConfiguration {
+
+    public static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 20;
+
+    private static final String ENABLED = "${app.concurrency-limit.enabled:true}";
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            @Value("${app.concurrency-limit.initial:200}") int initialLimit,
+            @Value("${app.concurrency-limit.min:20}") int minLimit,
+            @Value("${app.concurrency-limit.max:2000}") int maxLimit,
+            @Value("${app.concurrency-limit.window:250ms}") Duration window,
+            @Value("${app.concurrency-limit.min-window-samples:20}") int minWindowSamples,
+            @Value(ENABLED) boolean enabled,
+            MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                initialLimit, minLimit, maxLimit, window.toNanos(), minWindowSamples);
+        if (!enabled) {
+            return limiter;
+        }
+        Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .description("Requests currently holding a concurrency slot")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter limiter,
+            ObjectMapper objectMapper,
+            @Value("${app.concurrency-limit.critical-paths:/actuator/health}") List<String> criticalPaths,
+            @Value("${app.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds,
+            @Value(ENABLED) boolean enabled,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limiter, objectMapper, criticalPaths, retryAfterSeconds, meterRegistry));
+        registration.setOrder(FILTER_ORDER);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
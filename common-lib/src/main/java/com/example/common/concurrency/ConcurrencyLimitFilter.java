@@ -0,0 +1,95 @@
+package com.example.common.concurrency;
+
+import com.example.common.context.RequestContext;
+import com.example.common.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load shedding in front of the controllers: requests beyond the adaptive limit for their priority are answered
+ * immediately with 503 and {@code Retry-After} instead of queueing in Tomcat, Hikari or the database.
+ */
+public class ConcurrencyLimitFilter implements Filter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final List<String> criticalPathPrefixes;
+    private final String retryAfterSeconds;
+    private final Map<RequestPriority, Counter> rejections = new EnumMap<>(RequestPriority.class);
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+            List<String> criticalPathPrefixes, int retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.criticalPathPrefixes = List.copyOf(criticalPathPrefixes);
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejections.put(priority, Counter.builder("http.server.requests.shed")
+                    .description("Requests rejected by the adaptive concurrency limiter")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        RequestPriority priority = classify(httpRequest);
+        if (!limiter.tryAcquire(priority)) {
+            rejections.get(priority).increment();
+            reject((HttpServletResponse) response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean sample = false;
+        try {
+            chain.doFilter(request, response);
+            // Streaming/async responses hold the connection, not the server; keep them out of the RTT signal
+            sample = !httpRequest.isAsyncStarted();
+        } finally {
+            limiter.release(System.nanoTime() - start, sample);
+        }
+    }
+
+    RequestPriority classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (String prefix : criticalPathPrefixes) {
+            if (path.startsWith(prefix)) {
+                return RequestPriority.CRITICAL;
+            }
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) ? RequestPriority.READ : RequestPriority.NORMAL;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse error = new ErrorResponse(
+                "Server is over its concurrency limit, retry later",
+                RequestContext.currentCorrelationId(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                LocalDateTime.now());
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.common.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps every {@link DataSource} bean in an {@link AdmissionControlledDataSource} when
+ * {@code app.db-admission.enabled=true}. The flag is read when the data source is created rather than through a
+ * condition, so an AOT-processed build can still switch it at run time. As with Boot's Hikari metrics, the meter
+ * registry is only resolved once a data source is actually wrapped.
+ */
+@AutoConfiguration
+@ConditionalOnClass(DelegatingDataSource.class)
+public class DatabaseAdmissionAutoConfiguration {
+
+    private static final String PREFIX = "app.db-admission.";
+
+    @Bean
+    static BeanPostProcessor databaseAdmissionPostProcessor(Environment environment,
+                                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof AdmissionControlledDataSource)
+                        && environment.getProperty(PREFIX + "enabled", Boolean.class, false)) {
+                    return new AdmissionControlledDataSource(dataSource, gate(environment,
+                            meterRegistry.getIfAvailable(SimpleMeterRegistry::new)));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static DatabaseAdmissionGate gate(Environment environment, MeterRegistry meterRegistry) {
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        return new DatabaseAdmissionGate(
+                environment.getProperty(PREFIX + "max-concurrent", Integer.class, poolSize),
+                environment.getProperty(PREFIX + "max-queued", Integer.class, 1000),
+                environment.getProperty(PREFIX + "queue-timeout", Duration.class, Duration.ofSeconds(1)),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.common.concurrency;
+
+import com.example.common.context.Deadline;
+import com.example.common.context.RequestContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fair, bounded admission in front of the connection pool.
+ * <p>
+ * With virtual threads there is no request-thread cap any more, so thousands of callers can end up parked inside the
+ * pool's own hand-off, in arrival order nobody controls, each holding on until the pool's long connection timeout.
+ * The gate hands out at most {@code maxConcurrent} permits (normally the pool size) first-come first-served, lets
+ * at most {@code maxQueued} callers wait, and fails a caller that waited {@code queueTimeout} with a
+ * {@link SQLTransientConnectionException}, which Spring translates into a resource failure (HTTP 503).
+ * A waiting virtual thread parks on a {@link Semaphore} and releases its carrier. A caller with a request
+ * {@link Deadline} never waits past it; running out of deadline fails with a {@link SQLTimeoutException} (HTTP 504).
+ */
+public final class DatabaseAdmissionGate {
+
+    /** SQLState class 08: connection exception. */
+    static final String SQL_STATE = "08001";
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+
+    private final Timer waits;
+    private final Counter queueFull;
+    private final Counter timedOut;
+    private final Counter deadlineExceeded;
+
+    public DatabaseAdmissionGate(int maxConcurrent, int maxQueued, Duration queueTimeout, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.waits = Timer.builder("db.admission.wait")
+                .description("Time spent waiting for a database admission permit")
+                .register(meterRegistry);
+        this.queueFull = rejectionCounter(meterRegistry, "queue-full");
+        this.timedOut = rejectionCounter(meterRegistry, "timeout");
+        this.deadlineExceeded = rejectionCounter(meterRegistry, "deadline");
+        Gauge.builder("db.admission.active", this, DatabaseAdmissionGate::getActive)
+                .description("Callers currently holding a database admission permit")
+                .register(meterRegistry);
+        Gauge.builder("db.admission.queued", permits, Semaphore::getQueueLength)
+                .description("Callers waiting for a database admission permit")
+                .register(meterRegistry);
+    }
+
+    /** Blocks until a permit is free; the caller must {@link #release()} it exactly once. */
+    public void acquire() throws SQLException {
+        try {
+            // The timed form honours fairness; the untimed tryAcquire() would barge past waiting callers
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                waits.record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+            if (permits.getQueueLength() >= maxQueued) {
+                queueFull.increment();
+                throw new SQLTransientConnectionException(
+                        "Database admission queue is full (" + maxQueued + " waiting)", SQL_STATE);
+            }
+            Deadline deadline = RequestContext.currentDeadline();
+            long budget = deadline == null ? Long.MAX_VALUE : deadline.remainingNanos();
+            long start = System.nanoTime();
+            boolean admitted = permits.tryAcquire(Math.min(queueTimeoutNanos, budget), TimeUnit.NANOSECONDS);
+            waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!admitted && budget < queueTimeoutNanos) {
+                deadlineExceeded.increment();
+                throw new SQLTimeoutException("Request deadline passed waiting for database admission", SQL_STATE);
+            }
+            if (!admitted) {
+                timedOut.increment();
+                throw new SQLTransientConnectionException("No database admission within "
+                        + TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos) + " ms", SQL_STATE);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for database admission", SQL_STATE, ex);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("db.admission.rejected")
+                .description("Database accesses rejected by the admission gate")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.common.concurrency;
+
+/**
+ * Shedding order under overload: lower priorities are rejected first.
+ * The share is the fraction of the current concurrency limit a request of that priority may fill.
+ */
+public enum RequestPriority {
+    /** Writes and fan-out requests (e.g. tax calculation with a people-service hop). */
+    NORMAL(0.9),
+    /** Cheap idempotent reads. */
+    READ(1.0),
+    /** Health and readiness probes; shedding these gets a loaded pod killed, which only makes things worse. */
+    CRITICAL(1.5);
+
+    private final double limitShare;
+
+    RequestPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+
+    public double getLimitShare() {
+        return limitShare;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.common.context;
+
+import java.time.Duration;
+
+/**
+ * A point in time after which nobody waits for the result of a request, on this JVM's monotonic clock. Crossing a
+ * process boundary it travels as the remaining budget in milliseconds, so clocks never have to agree.
+ */
+public record Deadline(long expiresAtNanos) {
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    public long remainingNanos() {
+        return Math.max(0, expiresAtNanos - System.nanoTime());
+    }
+
+    /** Remaining budget rounded up, so a positive remainder never becomes 0 on the wire. */
+    public long remainingMillis() {
+        return (remainingNanos() + 999_999) / 1_000_000;
+    }
+
+    public boolean expired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+}
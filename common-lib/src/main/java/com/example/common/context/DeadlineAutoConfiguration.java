@@ -0,0 +1,51 @@
+package com.example.common.context;
+
+import feign.Capability;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Derives downstream timeouts from the request {@link Deadline}: Feign calls through {@link DeadlineCapability}, and
+ * JDBC statements by wrapping every {@link DataSource} bean in a {@link DeadlineDataSource} unless
+ * {@code app.deadline.jdbc-timeouts=false}. Like the admission wrapper, the flag is read when the data source is
+ * created so AOT builds can still switch it.
+ */
+@AutoConfiguration
+public class DeadlineAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(DelegatingDataSource.class)
+    static class JdbcTimeouts {
+
+        @Bean
+        static BeanPostProcessor deadlineDataSourcePostProcessor(Environment environment) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof DeadlineDataSource)
+                            && environment.getProperty("app.deadline.jdbc-timeouts", Boolean.class, true)) {
+                        return new DeadlineDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Capability.class)
+    static class FeignTimeouts {
+
+        @Bean
+        public DeadlineCapability deadlineCapability() {
+            return new DeadlineCapability();
+        }
+    }
+}
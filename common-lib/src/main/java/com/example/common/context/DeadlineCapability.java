@@ -0,0 +1,41 @@
+package com.example.common.context;
+
+import com.example.common.exception.DeadlineExceededException;
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the connect and read timeouts of every Feign call at the current request's remaining budget, so a call never
+ * outlives the caller that is waiting for it. A call that fails because the budget ran out surfaces as
+ * {@link DeadlineExceededException} rather than an I/O error, so it is not retried or counted against the
+ * dependency's health. Calls made outside a request, or without a deadline, keep the client's configured timeouts.
+ */
+public class DeadlineCapability implements Capability {
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            Deadline deadline = RequestContext.currentDeadline();
+            if (deadline == null) {
+                return client.execute(request, options);
+            }
+            long remaining = Math.max(1, deadline.remainingMillis());
+            try {
+                return client.execute(request, new Request.Options(
+                        Math.min(options.connectTimeoutMillis(), remaining), TimeUnit.MILLISECONDS,
+                        Math.min(options.readTimeoutMillis(), remaining), TimeUnit.MILLISECONDS,
+                        options.isFollowRedirects()));
+            } catch (IOException ex) {
+                if (deadline.expired()) {
+                    throw new DeadlineExceededException(request.httpMethod() + " " + request.url() + " answered",
+                            ex);
+                }
+                throw ex;
+            }
+        };
+    }
+}
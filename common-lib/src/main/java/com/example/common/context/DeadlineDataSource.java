@@ -0,0 +1,82 @@
+package com.example.common.context;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Derives JDBC query timeouts from the current request's {@link Deadline}: every statement created while a deadline
+ * is bound gets {@link Statement#setQueryTimeout} set to the remaining budget (whole seconds, rounded up), unless it
+ * already has a shorter one. Borrowing a connection or creating a statement after the deadline fails with a
+ * {@link SQLTimeoutException}, which Spring translates into a {@code QueryTimeoutException} (HTTP 504).
+ * Unwrapping still reaches the pool, as with the admission wrapper.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    public DeadlineDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkDeadline("borrowing a connection");
+        return withTimeouts(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        checkDeadline("borrowing a connection");
+        return withTimeouts(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection withTimeouts(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Thread.currentThread().getContextClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    boolean factory = STATEMENT_FACTORIES.contains(method.getName());
+                    if (factory) {
+                        checkDeadline("running a statement");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                    if (factory) {
+                        applyTimeout((Statement) result);
+                    }
+                    return result;
+                });
+    }
+
+    private static void applyTimeout(Statement statement) throws SQLException {
+        Deadline deadline = RequestContext.currentDeadline();
+        if (deadline == null) {
+            return;
+        }
+        int seconds = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(1, (deadline.remainingNanos() + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND));
+        int current = statement.getQueryTimeout();
+        if (current == 0 || seconds < current) {
+            statement.setQueryTimeout(seconds);
+        }
+    }
+
+    private static void checkDeadline(String work) throws SQLTimeoutException {
+        Deadline deadline = RequestContext.currentDeadline();
+        if (deadline != null && deadline.expired()) {
+            throw new SQLTimeoutException("Request deadline passed before " + work);
+        }
+    }
+}
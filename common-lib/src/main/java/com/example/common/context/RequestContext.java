@@ -0,0 +1,112 @@
+package com.example.common.context;
+
+import com.example.common.exception.DeadlineExceededException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.function.Supplier;
+
+/**
+ * Per-request values (the correlation id and, if the caller set one, the {@link Deadline}), bound with a
+ * {@link ScopedValue} for the extent of the request.
+ * <p>
+ * Unlike {@code MDC}, a binding is not a per-thread map: it is one immutable object shared by the request thread and
+ * every subtask forked from it with {@link #forkAll(List)}, which {@link StructuredTaskScope} makes visible to the
+ * children for free. Work handed to an unstructured executor must be wrapped with {@link #propagate(Supplier)}.
+ * The binding ends with the scope, so nothing has to be cleared.
+ */
+public record RequestContext(String correlationId, Deadline deadline) {
+
+    private static final ScopedValue<RequestContext> CURRENT = ScopedValue.newInstance();
+
+    /** Work run inside a binding; {@code X} and {@code Y} are the checked exceptions it may throw. */
+    @FunctionalInterface
+    public interface Task<X extends Exception, Y extends Exception> {
+        void run() throws X, Y;
+    }
+
+    /** A context without a deadline. */
+    public RequestContext(String correlationId) {
+        this(correlationId, null);
+    }
+
+    public static Optional<RequestContext> current() {
+        return CURRENT.isBound() ? Optional.of(CURRENT.get()) : Optional.empty();
+    }
+
+    /** Correlation id of the current request, or null outside one. */
+    public static String currentCorrelationId() {
+        return CURRENT.isBound() ? CURRENT.get().correlationId() : null;
+    }
+
+    /** Deadline of the current request, or null outside one or when the caller set none. */
+    public static Deadline currentDeadline() {
+        return CURRENT.isBound() ? CURRENT.get().deadline() : null;
+    }
+
+    /**
+     * Abandons work the caller has stopped waiting for: throws {@link DeadlineExceededException} if the current
+     * request's deadline has passed.
+     */
+    public static void checkDeadline(String work) {
+        Deadline deadline = currentDeadline();
+        if (deadline != null && deadline.expired()) {
+            throw new DeadlineExceededException(work);
+        }
+    }
+
+    /** Runs {@code task} with this context bound, rethrowing whatever it throws. */
+    @SuppressWarnings("unchecked")
+    public <X extends Exception, Y extends Exception> void run(Task<X, Y> task) throws X, Y {
+        try {
+            ScopedValue.where(CURRENT, this).call(() -> {
+                task.run();
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            // Only X or Y can get here, as the task declares nothing else; the cast is erased either way
+            throw (X) ex;
+        }
+    }
+
+    /**
+     * Binds the caller's context, if any, around {@code work} so it survives a hand-off to an executor thread.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        if (!CURRENT.isBound()) {
+            return work;
+        }
+        ScopedValue.Carrier carrier = ScopedValue.where(CURRENT, CURRENT.get());
+        return () -> carrier.get(work);
+    }
+
+    /**
+     * Runs the tasks concurrently on virtual threads that see the caller's context and returns their results in
+     * order. The first failure cancels the rest and is rethrown; nothing outlives the call.
+     */
+    public static <T> List<T> forkAll(List<? extends Callable<T>> tasks) {
+        try (StructuredTaskScope.ShutdownOnFailure scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            List<StructuredTaskScope.Subtask<T>> subtasks = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                subtasks.add(scope.fork(task));
+            }
+            scope.join();
+            scope.throwIfFailed(RequestContext::unchecked);
+            List<T> results = new ArrayList<>(subtasks.size());
+            subtasks.forEach(subtask -> results.add(subtask.get()));
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for forked subtasks", ex);
+        }
+    }
+
+    private static RuntimeException unchecked(Throwable failure) {
+        return failure instanceof RuntimeException runtime ? runtime : new IllegalStateException(failure);
+    }
+}
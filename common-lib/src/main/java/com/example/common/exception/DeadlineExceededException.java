@@ -0,0 +1,19 @@
+package com.example.common.exception;
+
+/**
+ * Thrown when work is abandoned because the request's deadline has passed. Mapped to 504 by
+ * {@link GlobalExceptionHandler}. The caller has already given up, so it is stackless like the other expected
+ * outcomes.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String work) {
+        this(work, null);
+    }
+
+    public DeadlineExceededException(String work, Throwable cause) {
+        super("Request deadline passed before " + work, cause, false, false);
+    }
+}
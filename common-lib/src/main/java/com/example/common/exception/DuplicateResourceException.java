@@ -0,0 +1,21 @@
+package com.example.common.exception;
+
+/**
+ * Thrown when creating an entity would duplicate a unique attribute of an existing one. Mapped to 409 by
+ * {@link GlobalExceptionHandler}.
+ * <p>
+ * Like {@link ResourceNotFoundException} this is an expected client outcome (retries, double submits), so it is
+ * stackless.
+ */
+public class DuplicateResourceException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DuplicateResourceException(String resource, String attribute, Object value) {
+        this(resource, attribute, value, null);
+    }
+
+    public DuplicateResourceException(String resource, String attribute, Object value, Throwable cause) {
+        super(resource + " already exists with " + attribute + ": " + value, cause, false, false);
+    }
+}
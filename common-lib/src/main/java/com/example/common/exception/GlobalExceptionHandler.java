@@ -1,12 +1,20 @@
 package com.example.common.exception;
 
-import com.example.common.logging.CorrelationIdFilter;
-import org.slf4j.MDC;
+import com.example.common.context.RequestContext;
+import com.example.common.logging.LogRateLimiter;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import org.slf4j.Logger;
@@ -17,14 +25,55 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    // Caps stack-trace capture and log I/O when a failure repeats on every request
+    private static final LogRateLimiter ERROR_LOG_LIMITER = new LogRateLimiter(5, Duration.ofSeconds(1));
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleAllExceptions(Exception ex) {
-        if (logger.isErrorEnabled()) {
-            logger.error("Unhandled exception occurred: {}", ex.getMessage(), ex);
+        if (logger.isErrorEnabled() && ERROR_LOG_LIMITER.tryAcquire()) {
+            logger.error("Unhandled exception occurred: {} ({} similar errors suppressed)",
+                    ex.getMessage(), ERROR_LOG_LIMITER.drainSuppressed(), ex);
         }
         return buildErrorResponse(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Not found: {}", ex.getMessage());
+        }
+        return buildErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(DuplicateResourceException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateResourceException(DuplicateResourceException ex) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Conflict: {}", ex.getMessage());
+        }
+        return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    /** A conditional write ({@code If-Match}) lost to a newer version of the resource. */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Precondition failed: {}", ex.getMessage());
+        }
+        return buildErrorResponse(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * The request's deadline passed, or a statement ran out of the time the deadline left it: nobody is waiting for
+     * the answer, so the work was abandoned.
+     */
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleDeadlineExceeded(RuntimeException ex) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Deadline exceeded: {}", ex.getMessage());
+        }
+        return buildErrorResponse(ex.getMessage(), HttpStatus.GATEWAY_TIMEOUT);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         if (logger.isWarnEnabled()) {
@@ -41,8 +90,25 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * No connection within the admission or pool timeout: the database is saturated, so ask the client to retry
+     * instead of reporting a server fault.
+     */
+    @ExceptionHandler({DataAccessResourceFailureException.class, TransientDataAccessResourceException.class,
+            CannotCreateTransactionException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(NestedRuntimeException ex) {
+        if (logger.isWarnEnabled() && ERROR_LOG_LIMITER.tryAcquire()) {
+            logger.warn("Database unavailable: {}", ex.getMostSpecificCause().getMessage());
+        }
+        ResponseEntity<ErrorResponse> response =
+                buildErrorResponse("Database is busy, retry shortly", HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
     private ResponseEntity<ErrorResponse> buildErrorResponse(String message, HttpStatus status) {
-        String correlationId = MDC.get(CorrelationIdFilter.CORRELATION_ID_LOG_VAR);
+        String correlationId = RequestContext.currentCorrelationId();
         ErrorResponse error = new ErrorResponse(
                 message,
                 correlationId,
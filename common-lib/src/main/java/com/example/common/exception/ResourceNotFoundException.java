@@ -0,0 +1,20 @@
+package com.example.common.exception;
+
+/**
+ * Thrown when a requested entity does not exist. Mapped to 404 by {@link GlobalExceptionHandler}.
+ * <p>
+ * Missing ids are an expected outcome (stale links, scanners), not a bug, so the exception is stackless:
+ * no stack walk on construction and nothing worth logging beyond the message.
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ResourceNotFoundException(String resource, Object id) {
+        this(resource, id, null);
+    }
+
+    public ResourceNotFoundException(String resource, Object id, Throwable cause) {
+        super(resource + " not found with id: " + id, cause, false, false);
+    }
+}
@@ -1,19 +1,42 @@
 package com.example.common.logging;
 
+import com.example.common.context.Deadline;
+import com.example.common.context.RequestContext;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.UUID;
 
+/**
+ * Binds a {@link RequestContext} carrying the caller's {@value #CORRELATION_ID_HEADER} (or a fresh one) for the rest
+ * of the chain and echoes the id on the response. Logging picks it up through {@link MeteredAsyncAppender}, Feign
+ * calls through {@link CorrelationIdInterceptor}.
+ * <p>
+ * A {@value #BUDGET_HEADER} header (milliseconds the caller is still willing to wait) becomes the request's
+ * {@link Deadline}, cut to {@code app.deadline.max-budget}. A budget that is not a positive number of milliseconds
+ * (malformed, zero, negative or beyond {@code long}) is ignored and the request runs without a deadline; callers
+ * forwarding a deadline never send 0 (see {@link CorrelationIdInterceptor}).
+ */
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
 public class CorrelationIdFilter implements Filter {
 
     public static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
     public static final String CORRELATION_ID_LOG_VAR = "correlationId";
+    public static final String BUDGET_HEADER = "X-Request-Budget-Ms";
+
+    private final long maxBudgetMillis;
+
+    public CorrelationIdFilter(@Value("${app.deadline.max-budget:PT5M}") Duration maxBudget) {
+        this.maxBudgetMillis = maxBudget.toMillis();
+    }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -27,13 +50,22 @@ public class CorrelationIdFilter implements Filter {
             correlationId = UUID.randomUUID().toString();
         }
 
-        MDC.put(CORRELATION_ID_LOG_VAR, correlationId);
         httpResponse.setHeader(CORRELATION_ID_HEADER, correlationId);
+        Deadline deadline = deadline(httpRequest.getHeader(BUDGET_HEADER));
+        new RequestContext(correlationId, deadline)
+                .<IOException, ServletException>run(() -> chain.doFilter(request, response));
+    }
 
+    private Deadline deadline(String budget) {
+        if (budget == null) {
+            return null;
+        }
+        long millis;
         try {
-            chain.doFilter(request, response);
-        } finally {
-            MDC.remove(CORRELATION_ID_LOG_VAR);
+            millis = Long.parseLong(budget.trim());
+        } catch (NumberFormatException ex) {
+            return null;
         }
+        return millis > 0 ? Deadline.after(Duration.ofMillis(Math.min(millis, maxBudgetMillis))) : null;
     }
 }
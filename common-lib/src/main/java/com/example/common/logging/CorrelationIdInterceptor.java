@@ -1,18 +1,29 @@
 package com.example.common.logging;
 
+import com.example.common.context.Deadline;
+import com.example.common.context.RequestContext;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
-import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 
+/**
+ * Forwards the current request's correlation id on outgoing Feign calls, including from forked subtasks, together
+ * with whatever is left of its deadline as {@value CorrelationIdFilter#BUDGET_HEADER}. A call whose deadline has
+ * already passed is not sent. {@link com.example.common.context.DeadlineCapability} caps the call's timeouts.
+ */
 @Component
 public class CorrelationIdInterceptor implements RequestInterceptor {
 
     @Override
     public void apply(RequestTemplate template) {
-        String correlationId = MDC.get(CorrelationIdFilter.CORRELATION_ID_LOG_VAR);
+        String correlationId = RequestContext.currentCorrelationId();
         if (correlationId != null) {
             template.header(CorrelationIdFilter.CORRELATION_ID_HEADER, correlationId);
         }
+        Deadline deadline = RequestContext.currentDeadline();
+        if (deadline != null) {
+            RequestContext.checkDeadline("calling " + template.method() + " " + template.path());
+            template.header(CorrelationIdFilter.BUDGET_HEADER, Long.toString(deadline.remainingMillis()));
+        }
     }
 }
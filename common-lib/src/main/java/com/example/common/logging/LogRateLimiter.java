@@ -0,0 +1,50 @@
+package com.example.common.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free limiter for per-request log statements on hot paths.
+ * Allows up to {@code permits} log lines per {@code window}; the rest are counted and can be reported with the
+ * next line that gets through, so nothing silently disappears.
+ */
+public final class LogRateLimiter {
+
+    private final long windowNanos;
+    private final long permits;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong used = new AtomicLong();
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogRateLimiter(int permits, Duration window) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        this.permits = permits;
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * @return {@code true} if the caller may log now; {@code false} means the statement should be skipped.
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permits) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    /**
+     * Returns and resets the number of statements skipped since the previous call.
+     */
+    public long drainSuppressed() {
+        return suppressed.sumThenReset();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.common.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.example.common.context.RequestContext;
+import org.slf4j.MDC;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback {@link AsyncAppender} that counts the events it drops so the loss is visible as a metric.
+ * <p>
+ * Events discarded below the discarding threshold are counted exactly. Events lost to a full queue in
+ * {@code neverBlock} mode are counted from the remaining capacity just before the offer, which can
+ * over-report by a handful under heavy contention.
+ * <p>
+ * Also stamps each event with the correlation id of the current {@link RequestContext}, on the logging thread, as the
+ * {@code correlationId} MDC property the JSON encoder already writes. The request context lives in a scoped value,
+ * not in MDC, so this is the one place it is copied into a map, and only for events that are actually logged. It
+ * must be the first appender to see an event: once something has read an event's MDC, it can no longer be amended.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private volatile boolean mdcFrozenReported;
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+
+    @Override
+    protected void preprocess(ILoggingEvent event) {
+        String correlationId = RequestContext.currentCorrelationId();
+        if (correlationId != null && event instanceof LoggingEvent) {
+            stamp((LoggingEvent) event, correlationId);
+        }
+        super.preprocess(event);
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            overflowed.increment();
+        }
+    }
+
+    private void stamp(LoggingEvent event, String correlationId) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Map<String, String> properties = mdc == null ? new HashMap<>(2) : new HashMap<>(mdc);
+        properties.putIfAbsent(CorrelationIdFilter.CORRELATION_ID_LOG_VAR, correlationId);
+        try {
+            event.setMDCPropertyMap(properties);
+        } catch (IllegalStateException ex) {
+            if (!mdcFrozenReported) {
+                mdcFrozenReported = true;
+                addWarn("Another appender read the MDC first; correlation ids are not added to its events", ex);
+            }
+        }
+    }
+
+    /**
+     * Events dropped because the queue was past the discarding threshold (TRACE/DEBUG/INFO only).
+     */
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    /**
+     * Events dropped because the queue was full and the appender is configured never to block.
+     */
+    public long getOverflowCount() {
+        return overflowed.sum();
+    }
+}
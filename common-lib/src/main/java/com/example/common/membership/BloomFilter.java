@@ -0,0 +1,123 @@
+package com.example.common.membership;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Bloom filter over strings: {@link #mightContain} never misses a value that was {@link #put}, and says
+ * "maybe" for an absent value with probability about {@link #expectedFpp()}.
+ * <p>
+ * Sized up front for {@code expectedInsertions} at {@code targetFpp}: {@code m = -n ln p / (ln 2)^2} bits and
+ * {@code k = m / n ln 2} probes, derived from two 64-bit hashes ({@code h1 + i * h2}). Bits are set with CAS on an
+ * {@link AtomicLongArray}, so writers never block readers. Inserting past the expected count still works, but the
+ * false-positive rate climbs; {@link #expectedFpp()} tracks it from the share of bits actually set.
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final int MIN_EXPECTED_INSERTIONS = 1;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int probes;
+    private final long capacity;
+    private final LongAdder setBits = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+
+    public BloomFilter(long expectedInsertions, double targetFpp) {
+        if (expectedInsertions < MIN_EXPECTED_INSERTIONS) {
+            throw new IllegalArgumentException("expectedInsertions must be positive, got " + expectedInsertions);
+        }
+        if (!(targetFpp > 0 && targetFpp < 1)) {
+            throw new IllegalArgumentException("targetFpp must be between 0 and 1, got " + targetFpp);
+        }
+        long bits = Math.max(Long.SIZE, (long) Math.ceil(-expectedInsertions * Math.log(targetFpp) / (LN2 * LN2)));
+        int wordCount = Math.toIntExact((bits + Long.SIZE - 1) / Long.SIZE);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.probes = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * LN2));
+        this.capacity = expectedInsertions;
+    }
+
+    /** Adds the value; returns true if any bit changed, i.e. the value was definitely not present before. */
+    public boolean put(String value) {
+        long h1 = hash(value, 0x9e3779b97f4a7c15L);
+        long h2 = hash(value, 0xc2b2ae3d27d4eb4fL) | 1;
+        boolean changed = false;
+        for (int i = 0; i < probes; i++) {
+            changed |= setBit(Math.floorMod(h1 + i * h2, bitCount));
+        }
+        puts.increment();
+        return changed;
+    }
+
+    /** False means the value was never added; true means it probably was. */
+    public boolean mightContain(String value) {
+        long h1 = hash(value, 0x9e3779b97f4a7c15L);
+        long h2 = hash(value, 0xc2b2ae3d27d4eb4fL) | 1;
+        for (int i = 0; i < probes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** False-positive probability right now: the chance all {@code k} probes of an absent value hit set bits. */
+    public double expectedFpp() {
+        return Math.pow((double) setBits.sum() / bitCount, probes);
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public long memoryBytes() {
+        return bitCount / Byte.SIZE;
+    }
+
+    public int hashFunctions() {
+        return probes;
+    }
+
+    public long expectedInsertions() {
+        return capacity;
+    }
+
+    /** Calls to {@link #put}, duplicates included. */
+    public long insertions() {
+        return puts.sum();
+    }
+
+    private boolean setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        while (true) {
+            long word = words.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, word, word | mask)) {
+                setBits.increment();
+                return true;
+            }
+        }
+    }
+
+    /** Seeded FNV-1a over the UTF-8 bytes, then the MurmurHash3 64-bit finalizer. */
+    private static long hash(String value, long seed) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
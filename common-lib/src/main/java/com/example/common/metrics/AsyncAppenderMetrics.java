@@ -0,0 +1,58 @@
+package com.example.common.metrics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.example.common.logging.MeteredAsyncAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+
+/**
+ * Queue depth and drop counts for every {@link MeteredAsyncAppender} attached to the root logger.
+ */
+public class AsyncAppenderMetrics implements MeterBinder {
+
+    private static final String DROPPED = "logback.async.dropped";
+    private static final String DROPPED_DESCRIPTION = "Log events dropped by the appender";
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof MeteredAsyncAppender appender) {
+                bindAppender(registry, appender);
+            }
+        }
+    }
+
+    private static void bindAppender(MeterRegistry registry, MeteredAsyncAppender appender) {
+        Tags tags = Tags.of("appender", appender.getName());
+        Gauge.builder("logback.async.queue.depth", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+                .description("Log events waiting to be written")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("logback.async.queue.capacity", appender, MeteredAsyncAppender::getQueueSize)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(DROPPED, appender, MeteredAsyncAppender::getDiscardedCount)
+                .description(DROPPED_DESCRIPTION)
+                .tags(tags)
+                .tag("reason", "threshold")
+                .register(registry);
+        FunctionCounter.builder(DROPPED, appender, MeteredAsyncAppender::getOverflowCount)
+                .description(DROPPED_DESCRIPTION)
+                .tags(tags)
+                .tag("reason", "queue-full")
+                .register(registry);
+    }
+}
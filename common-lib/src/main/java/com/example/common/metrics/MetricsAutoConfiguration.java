@@ -0,0 +1,53 @@
+package com.example.common.metrics;
+
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * Shared Micrometer instrumentation for every service. Service-specific hot-path timers live with the
+ * code they measure; this only covers JVM-level meters that Spring Boot does not provide out of the box.
+ * <p>
+ * {@code app.metrics.virtual-threads.enabled=false} leaves the virtual thread beans in place but never starts their
+ * JFR stream, instead of dropping them through a condition, so an AOT-processed build can still switch it at run time.
+ */
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+public class MetricsAutoConfiguration {
+
+    @Bean
+    public PinnedThreadTracker pinnedThreadTracker(
+            @Value("${app.metrics.virtual-threads.pinned-frames:12}") int maxFrames,
+            @Value("${app.metrics.virtual-threads.pinned-sites:100}") int maxSites) {
+        return new PinnedThreadTracker(maxFrames, maxSites);
+    }
+
+    @Bean(destroyMethod = "close")
+    public VirtualThreadMetrics virtualThreadMetrics(
+            @Value("${app.metrics.virtual-threads.enabled:true}") boolean enabled,
+            @Value("${app.metrics.virtual-threads.pinned-threshold:20ms}") Duration pinnedThreshold,
+            PinnedThreadTracker pinnedThreadTracker) {
+        return new VirtualThreadMetrics(enabled, pinnedThreshold, pinnedThreadTracker);
+    }
+
+    @Bean
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint")
+    public PinningEndpoint pinningEndpoint(
+            PinnedThreadTracker pinnedThreadTracker,
+            @Value("${server.port:8080}") String serverPort,
+            @Value("${management.server.port:}") String managementPort) {
+        boolean separate = !managementPort.isBlank() && !managementPort.equals(serverPort);
+        return new PinningEndpoint(pinnedThreadTracker, separate);
+    }
+
+    @Bean
+    @ConditionalOnClass(LoggerContext.class)
+    public AsyncAppenderMetrics asyncAppenderMetrics() {
+        return new AsyncAppenderMetrics();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.common.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Groups {@code jdk.VirtualThreadPinned} events by the top frames of their stack trace, so the handful of call sites
+ * that pin carriers (usually {@code synchronized} blocks in JDBC drivers or pools) show up with a count and duration
+ * instead of as one anonymous timer. A new site is logged once at WARN; the full report is served by
+ * {@link PinningEndpoint}. At most {@code maxSites} distinct sites are kept; events from further sites are only counted.
+ */
+@Slf4j
+public class PinnedThreadTracker {
+
+    private static final String UNKNOWN_SITE = "<no stack trace>";
+
+    private final int maxFrames;
+    private final int maxSites;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+
+    public PinnedThreadTracker(int maxFrames, int maxSites) {
+        this.maxFrames = maxFrames;
+        this.maxSites = maxSites;
+    }
+
+    void record(RecordedEvent event) {
+        List<String> frames = frames(event.getStackTrace());
+        String key = frames.isEmpty() ? UNKNOWN_SITE : String.join("\n", frames);
+        Site site = sites.get(key);
+        if (site == null) {
+            if (sites.size() >= maxSites) {
+                untracked.increment();
+                return;
+            }
+            Site created = new Site(frames.isEmpty() ? List.of(UNKNOWN_SITE) : frames);
+            site = sites.putIfAbsent(key, created);
+            if (site == null) {
+                site = created;
+                if (log.isWarnEnabled()) {
+                    log.warn("Virtual thread pinned for {} ms at a new site:\n\tat {}",
+                            event.getDuration().toMillis(), String.join("\n\tat ", site.frames));
+                }
+            }
+        }
+        site.add(event.getDuration(), event.getEndTime());
+    }
+
+    private List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(maxFrames)
+                .map(PinnedThreadTracker::describe)
+                .toList();
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    /** Sites ordered by total pinned time, worst first. */
+    public Report report() {
+        List<SiteReport> ordered = sites.values().stream()
+                .map(Site::toReport)
+                .sorted(Comparator.comparingLong(SiteReport::totalMillis).reversed())
+                .toList();
+        return new Report(ordered.stream().mapToLong(SiteReport::count).sum() + untracked.sum(),
+                untracked.sum(), ordered);
+    }
+
+    public void reset() {
+        sites.clear();
+        untracked.reset();
+    }
+
+    public record Report(long events, long untrackedEvents, List<SiteReport> sites) {
+    }
+
+    public record SiteReport(List<String> stackTrace, long count, long totalMillis, long maxMillis, Instant lastSeen) {
+    }
+
+    private static final class Site {
+
+        private final List<String> frames;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLong lastSeenMillis = new AtomicLong();
+
+        Site(List<String> frames) {
+            this.frames = frames;
+        }
+
+        void add(Duration pinned, Instant at) {
+            count.increment();
+            totalNanos.add(pinned.toNanos());
+            maxNanos.accumulate(pinned.toNanos());
+            lastSeenMillis.accumulateAndGet(at.toEpochMilli(), Math::max);
+        }
+
+        SiteReport toReport() {
+            return new SiteReport(frames, count.sum(), Duration.ofNanos(totalNanos.sum()).toMillis(),
+                    Duration.ofNanos(maxNanos.get()).toMillis(), Instant.ofEpochMilli(lastSeenMillis.get()));
+        }
+    }
+}
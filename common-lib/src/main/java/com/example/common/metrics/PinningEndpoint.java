@@ -0,0 +1,47 @@
+package com.example.common.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+
+/**
+ * {@code GET /actuator/pinning} lists the code sites where virtual threads were pinned to their carrier;
+ * {@code DELETE} clears the list, e.g. after a fix is deployed.
+ * <p>
+ * The report carries stack traces, so like {@code flightrecorder} it only answers on a separate management port
+ * ({@code management.server.port}) and returns {@code 403} on the application port. It also has to be listed in
+ * {@code management.endpoints.web.exposure.include} explicitly.
+ */
+@WebEndpoint(id = "pinning")
+public class PinningEndpoint {
+
+    private static final int STATUS_FORBIDDEN = 403;
+    private static final String NOT_ON_MANAGEMENT_PORT =
+            "The pinning report is only available on a separate management port (management.server.port)";
+
+    private final PinnedThreadTracker tracker;
+    private final boolean separateManagementPort;
+
+    public PinningEndpoint(PinnedThreadTracker tracker, boolean separateManagementPort) {
+        this.tracker = tracker;
+        this.separateManagementPort = separateManagementPort;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Object> pinning() {
+        if (!separateManagementPort) {
+            return new WebEndpointResponse<>(NOT_ON_MANAGEMENT_PORT, STATUS_FORBIDDEN);
+        }
+        return new WebEndpointResponse<>(tracker.report());
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> reset() {
+        if (!separateManagementPort) {
+            return new WebEndpointResponse<>(STATUS_FORBIDDEN);
+        }
+        tracker.reset();
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Virtual thread counts sourced from JFR, since the JVM thread MXBean only sees platform threads.
+ * Start/end events carry no stack trace, which keeps the per-thread cost to a ring-buffer write. Pinned events above
+ * the threshold do carry one and are handed to the {@link PinnedThreadTracker}. When disabled, no JFR stream is
+ * opened and no meters are registered.
+ */
+public class VirtualThreadMetrics implements MeterBinder, AutoCloseable {
+
+    private static final String START_EVENT = "jdk.VirtualThreadStart";
+    private static final String END_EVENT = "jdk.VirtualThreadEnd";
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder ended = new LongAdder();
+    // Empty when disabled, so JFR is never initialised for it
+    private final Optional<RecordingStream> recording;
+    private final AtomicBoolean streaming = new AtomicBoolean();
+
+    public VirtualThreadMetrics(boolean enabled, Duration pinnedThreshold, PinnedThreadTracker pinnedTracker) {
+        this.recording = enabled ? Optional.of(new RecordingStream()) : Optional.empty();
+        recording.ifPresent(stream -> listen(stream, pinnedThreshold, pinnedTracker));
+    }
+
+    private void listen(RecordingStream stream, Duration pinnedThreshold, PinnedThreadTracker pinnedTracker) {
+        stream.enable(START_EVENT).withoutStackTrace();
+        stream.enable(END_EVENT).withoutStackTrace();
+        stream.enable(PINNED_EVENT).withThreshold(pinnedThreshold).withStackTrace();
+        stream.enable(SUBMIT_FAILED_EVENT).withoutStackTrace();
+        stream.onEvent(START_EVENT, event -> started.increment());
+        stream.onEvent(END_EVENT, event -> ended.increment());
+        stream.onEvent(PINNED_EVENT, pinnedTracker::record);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        recording.ifPresent(stream -> bindTo(registry, stream));
+    }
+
+    private void bindTo(MeterRegistry registry, RecordingStream stream) {
+        FunctionCounter.builder("jvm.threads.virtual.started", started, LongAdder::sum)
+                .description("Virtual threads started since the recorder was attached")
+                .register(registry);
+        Gauge.builder("jvm.threads.virtual.live", this, VirtualThreadMetrics::liveThreads)
+                .description("Virtual threads currently alive (started minus ended)")
+                .register(registry);
+        Timer pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .register(registry);
+        Counter submitFailed = Counter.builder("jvm.threads.virtual.submit.failed")
+                .description("Virtual thread start or unpark submissions rejected by the scheduler")
+                .register(registry);
+        stream.onEvent(PINNED_EVENT, event -> pinned.record(event.getDuration()));
+        stream.onEvent(SUBMIT_FAILED_EVENT, event -> submitFailed.increment());
+        if (streaming.compareAndSet(false, true)) {
+            stream.startAsync();
+        }
+    }
+
+    private double liveThreads() {
+        return Math.max(0, started.sum() - ended.sum());
+    }
+
+    @Override
+    public void close() {
+        recording.ifPresent(RecordingStream::close);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.common.population;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Command line export of a synthetic population; needs nothing but the common-lib jar:
+ * <pre>
+ * java -cp common-lib/target/common-lib-0.0.1-SNAPSHOT.jar com.example.common.population.PopulationExport \
+ *     &lt;count&gt; &lt;seed&gt; &lt;ndjson|csv&gt; &lt;file&gt;
+ * </pre>
+ */
+public final class PopulationExport {
+
+    private static final int ARGUMENTS = 4;
+
+    private PopulationExport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != ARGUMENTS) {
+            throw new IllegalArgumentException("Usage: PopulationExport <count> <seed> <ndjson|csv> <file>");
+        }
+        long count = Long.parseLong(args[0]);
+        PopulationGenerator generator = new PopulationGenerator(Long.parseLong(args[1]));
+        PopulationWriter.Format format = PopulationWriter.Format.valueOf(args[2].toUpperCase(Locale.ROOT));
+        try (Writer out = Files.newBufferedWriter(Path.of(args[3]), StandardCharsets.UTF_8)) {
+            PopulationWriter.write(generator.stream(count), format, out);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.common.population;
+
+import com.example.common.domain.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic synthetic population of all four {@link Person} subtypes. Record {@code i} depends only on
+ * {@code (seed, i)}: it is generated from its own random stream, so any slice or a parallel stream yields exactly the
+ * same people as a sequential run. Load tests, benchmarks and DB seeding all see the same dataset for a given seed.
+ * <p>
+ * Distributions are log-normal (right-skewed, like real incomes) and clamped to plausible bounds:
+ * <ul>
+ *   <li>60% full-time employees: median salary ₹6L, ₹1.8L–₹5Cr</li>
+ *   <li>15% contractors: median ₹900/h, about 1,700 billable hours in the year (sd 350)</li>
+ *   <li>15% self-employed professionals: median turnover ₹15L, capped at the ₹75L Sec 44ADA limit</li>
+ *   <li>10% business owners: median turnover ₹80L, capped at the ₹3Cr Sec 44AD limit</li>
+ * </ul>
+ * Ids are {@code i + 1}; emails are unique per index.
+ */
+public final class PopulationGenerator {
+
+    private static final long INDEX_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Cumulative percentage cut-offs of the subtype mix
+    private static final int FULL_TIME_UPTO = 60;
+    private static final int CONTRACTOR_UPTO = 75;
+    private static final int SELF_EMPLOYED_UPTO = 90;
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Vivaan", "Aditya", "Arjun", "Sai", "Reyansh", "Krishna", "Ishaan", "Rohan", "Kabir",
+            "Ananya", "Diya", "Aadhya", "Saanvi", "Priya", "Kavya", "Meera", "Isha", "Neha", "Lakshmi"};
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Verma", "Iyer", "Reddy", "Nair", "Patel", "Gupta", "Singh", "Kumar", "Das",
+            "Mehta", "Joshi", "Rao", "Chatterjee", "Banerjee", "Menon", "Pillai", "Kulkarni", "Desai", "Shah"};
+    private static final String[] PROFESSIONS = {
+            "Doctor", "Chartered Accountant", "Architect", "Lawyer", "Engineer", "Interior Designer",
+            "Technical Consultant", "Film Artist"};
+    private static final String[] BUSINESS_TYPES = {
+            "Retail", "Wholesale", "Manufacturing", "Restaurant", "Transport", "Construction", "E-commerce",
+            "Trading"};
+
+    private final long seed;
+
+    public PopulationGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public Person person(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * INDEX_GAMMA));
+        Long id = index + 1;
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String name = first + " " + last;
+        String email = (first + "." + last).toLowerCase(Locale.ROOT) + "." + id + "@example.in";
+
+        int roll = random.nextInt(100);
+        if (roll < FULL_TIME_UPTO) {
+            return new FullTimeEmployee(id, name, email, logNormal(random, 600_000, 0.7, 180_000, 50_000_000, 1000));
+        }
+        if (roll < CONTRACTOR_UPTO) {
+            BigDecimal hourlyRate = logNormal(random, 900, 0.5, 200, 15_000, 10);
+            int hours = (int) Math.round(Math.clamp(1700 + 350 * random.nextGaussian(), 200, 2600));
+            return new Contractor(id, name, email, hourlyRate, hours);
+        }
+        if (roll < SELF_EMPLOYED_UPTO) {
+            return new SelfEmployed(id, name, email, logNormal(random, 1_500_000, 0.8, 100_000, 7_500_000, 1000),
+                    PROFESSIONS[random.nextInt(PROFESSIONS.length)]);
+        }
+        return new BusinessOwner(id, name, email, logNormal(random, 8_000_000, 0.9, 500_000, 30_000_000, 1000),
+                BUSINESS_TYPES[random.nextInt(BUSINESS_TYPES.length)]);
+    }
+
+    /** People {@code 0 .. count-1}; safe to run {@code .parallel()} without changing the result. */
+    public Stream<Person> stream(long count) {
+        return LongStream.range(0, count).mapToObj(this::person);
+    }
+
+    private static BigDecimal logNormal(SplittableRandom random, double median, double sigma,
+                                        double min, double max, int step) {
+        double value = Math.clamp(median * Math.exp(sigma * random.nextGaussian()), min, max);
+        return BigDecimal.valueOf(Math.round(value / step) * step).setScale(2, RoundingMode.UNNECESSARY);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.common.population;
+
+import com.example.common.domain.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams people to NDJSON or CSV without building an object tree per record. Generated names, emails, professions
+ * and business types never contain quotes, commas or control characters, so no escaping is needed.
+ * <ul>
+ *   <li>NDJSON: one {@code Person} per line in the API's JSON shape ({@code personType} discriminator), so each
+ *       line can be POSTed to {@code /people} or read back with Jackson.</li>
+ *   <li>CSV: the flattened {@code PersonEntity} columns, for {@code COPY ... FROM} / H2 {@code CSVREAD}.</li>
+ * </ul>
+ */
+public final class PopulationWriter {
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    public static final String CSV_HEADER = "id,personType,name,email,amount,hoursWorked,profession,businessType";
+
+    private PopulationWriter() {
+    }
+
+    /** Writes every person and returns how many were written. The writer is flushed but not closed. */
+    public static long write(Stream<Person> people, Format format, Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(160);
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+        long count = 0;
+        Iterator<Person> it = people.iterator();
+        while (it.hasNext()) {
+            line.setLength(0);
+            if (format == Format.CSV) {
+                appendCsv(line, it.next());
+            } else {
+                appendJson(line, it.next());
+            }
+            out.append(line).append('\n');
+            count++;
+        }
+        out.flush();
+        return count;
+    }
+
+    public static void appendJson(StringBuilder out, Person person) {
+        out.append("{\"personType\":\"").append(person.personType().name())
+                .append("\",\"id\":").append(person.id())
+                .append(",\"name\":\"").append(person.name())
+                .append("\",\"email\":\"").append(person.email()).append('"');
+        if (person instanceof FullTimeEmployee e) {
+            out.append(",\"annualSalary\":").append(e.annualSalary().toPlainString());
+        } else if (person instanceof Contractor c) {
+            out.append(",\"hourlyRate\":").append(c.hourlyRate().toPlainString())
+                    .append(",\"hoursWorked\":").append(c.hoursWorked());
+        } else if (person instanceof SelfEmployed s) {
+            out.append(",\"annualTurnover\":").append(s.annualTurnover().toPlainString())
+                    .append(",\"profession\":\"").append(s.profession()).append('"');
+        } else if (person instanceof BusinessOwner b) {
+            out.append(",\"annualBusinessTurnover\":").append(b.annualBusinessTurnover().toPlainString())
+                    .append(",\"businessType\":\"").append(b.businessType()).append('"');
+        }
+        out.append('}');
+    }
+
+    public static void appendCsv(StringBuilder out, Person person) {
+        out.append(person.id()).append(',').append(person.personType().name()).append(',')
+                .append(person.name()).append(',').append(person.email()).append(',');
+        if (person instanceof FullTimeEmployee e) {
+            out.append(e.annualSalary().toPlainString()).append(",,,");
+        } else if (person instanceof Contractor c) {
+            out.append(c.hourlyRate().toPlainString()).append(',').append(c.hoursWorked()).append(",,");
+        } else if (person instanceof SelfEmployed s) {
+            out.append(s.annualTurnover().toPlainString()).append(",,").append(s.profession()).append(',');
+        } else if (person instanceof BusinessOwner b) {
+            out.append(b.annualBusinessTurnover().toPlainString()).append(",,,").append(b.businessType());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.common.profiling;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Heap bytes allocated per call of an operation, from the JVM's per-thread allocation counter
+ * ({@link ThreadMXBean#getCurrentThreadAllocatedBytes()}). Meant for allocation-budget tests of hot paths: the
+ * operation is first called {@code warmup} times so the JIT has compiled it (escape analysis removes allocations
+ * the interpreter still makes), then in rounds of {@code measured} calls on the calling thread until two successive
+ * rounds agree, since C2 may still be compiling or deoptimizing when the fixed warm-up ends.
+ * <p>
+ * The counter includes TLAB refills attributed to the thread, so results are accurate to a few bytes per call over
+ * thousands of calls, not exact. It only counts platform threads; on a virtual thread the JVM reports nothing and
+ * measuring fails.
+ */
+public final class AllocationMeter {
+
+    /** Rounds that differ by at most this many bytes per call, or by 5%, count as converged. */
+    static final long TOLERANCE_BYTES = 8;
+    static final int MAX_ROUNDS = 20;
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Keeps every result reachable so the JIT cannot drop the work that produced it. */
+    private static volatile Object blackhole;
+
+    private AllocationMeter() {
+    }
+
+    public static boolean isSupported() {
+        return THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Average bytes one call of {@code operation} allocates once warm: the last of up to {@value #MAX_ROUNDS}
+     * rounds, stopping as soon as it agrees with the one before. The operation must return what it produced (not
+     * null), so the work cannot be optimized away. The result describes the warm-up, for failure messages.
+     */
+    public static Measurement measure(int warmup, int measured, Supplier<?> operation) {
+        for (int i = 0; i < warmup; i++) {
+            blackhole = operation.get();
+        }
+        List<Long> rounds = new ArrayList<>();
+        long previous = round(measured, operation);
+        rounds.add(previous);
+        while (rounds.size() < MAX_ROUNDS) {
+            long current = round(measured, operation);
+            rounds.add(current);
+            if (Math.abs(current - previous) <= Math.max(TOLERANCE_BYTES, previous / 20)) {
+                return new Measurement(current, warmup, List.copyOf(rounds), true);
+            }
+            previous = current;
+        }
+        return new Measurement(previous, warmup, List.copyOf(rounds), false);
+    }
+
+    private static long round(int measured, Supplier<?> operation) {
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        if (before < 0) {
+            throw new IllegalStateException("No allocation counter for " + Thread.currentThread());
+        }
+        for (int i = 0; i < measured; i++) {
+            blackhole = operation.get();
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+        if (blackhole == null) {
+            throw new IllegalArgumentException("The measured operation must return its result");
+        }
+        return allocated / measured;
+    }
+
+    /**
+     * Bytes per call of the last round, with the warm-up calls and every round's result; {@code converged} is false
+     * when the rounds were still changing after {@value #MAX_ROUNDS} of them.
+     */
+    public record Measurement(long bytesPerOperation, int warmupCalls, List<Long> rounds, boolean converged) {
+
+        @Override
+        public String toString() {
+            return bytesPerOperation + " bytes per call after " + warmupCalls + " warm-up calls and "
+                    + rounds.size() + " rounds " + rounds + (converged ? "" : ", still not converged");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.common.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One outbound Feign request, including retried and hedged attempts. */
+@Name("com.example.FeignCall")
+@Label("Feign Call")
+@Category({"People & Tax", "HTTP Client"})
+@Description("Outbound HTTP call made through a Feign client")
+@StackTrace(false)
+public final class FeignCallEvent extends jdk.jfr.Event {
+
+    @Label("Client")
+    private String client;
+
+    @Label("Method")
+    @Description("Feign config key of the interface method, e.g. PeopleClient#getPersonById(Long)")
+    private String method;
+
+    @Label("HTTP Method")
+    private String httpMethod;
+
+    @Label("Status")
+    @Description("Response status, or -1 when no response was received")
+    private int status;
+
+    void commit(String client, String method, String httpMethod, int status) {
+        this.client = client;
+        this.method = method;
+        this.httpMethod = httpMethod;
+        this.status = status;
+        commit();
+    }
+}
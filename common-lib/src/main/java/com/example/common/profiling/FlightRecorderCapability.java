@@ -0,0 +1,46 @@
+package com.example.common.profiling;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+
+/**
+ * Emits a {@link FeignCallEvent} around every request of every Feign client. When no recording has the event
+ * enabled the wrapper only pays for one {@code isEnabled()} check.
+ */
+public class FlightRecorderCapability implements Capability {
+
+    private static final int NO_RESPONSE = -1;
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            FeignCallEvent event = new FeignCallEvent();
+            if (!event.isEnabled()) {
+                return client.execute(request, options);
+            }
+            event.begin();
+            int status = NO_RESPONSE;
+            try {
+                Response response = client.execute(request, options);
+                status = response.status();
+                return response;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    commit(event, request, status);
+                }
+            }
+        };
+    }
+
+    private static void commit(FeignCallEvent event, Request request, int status) {
+        RequestTemplate template = request.requestTemplate();
+        String client = template == null || template.feignTarget() == null ? null : template.feignTarget().name();
+        String method = template == null || template.methodMetadata() == null
+                ? null : template.methodMetadata().configKey();
+        event.commit(client, method, request.httpMethod().name(), status);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.common.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * {@code /actuator/flightrecorder}: {@code POST} starts a recording ({@code duration}, {@code settings}),
+ * {@code GET} lists them, {@code GET /{id}} downloads the {@code .jfr} file, {@code POST /{id}} stops it early and
+ * {@code DELETE /{id}} discards it.
+ * <p>
+ * Recordings describe the whole process, so the endpoint only works on a separate management port
+ * ({@code management.server.port}), which is kept off the public network; on the application port every operation
+ * answers {@code 403}. It also has to be listed in {@code management.endpoints.web.exposure.include} explicitly.
+ */
+@WebEndpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint {
+
+    private static final String DEFAULT_SETTINGS = "profile";
+    private static final int STATUS_FORBIDDEN = 403;
+    private static final String NOT_ON_MANAGEMENT_PORT =
+            "Flight recordings are only available on a separate management port (management.server.port)";
+
+    private final FlightRecordings flightRecordings;
+    private final Duration defaultDuration;
+    private final boolean separateManagementPort;
+
+    public FlightRecorderEndpoint(FlightRecordings recordings, Duration defaultDuration,
+                                  boolean separateManagementPort) {
+        this.flightRecordings = recordings;
+        this.defaultDuration = defaultDuration;
+        this.separateManagementPort = separateManagementPort;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Object> recordings() {
+        if (!separateManagementPort) {
+            return forbidden();
+        }
+        return new WebEndpointResponse<>(flightRecordings.list());
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(@Nullable Duration duration, @Nullable String settings) {
+        if (!separateManagementPort) {
+            return forbidden();
+        }
+        try {
+            return new WebEndpointResponse<>(flightRecordings.start(duration == null ? defaultDuration : duration,
+                    settings == null ? DEFAULT_SETTINGS : settings));
+        } catch (IllegalArgumentException ex) {
+            return new WebEndpointResponse<>(ex.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException ex) {
+            return new WebEndpointResponse<>(ex.getMessage(), WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id) {
+        if (!separateManagementPort) {
+            return new WebEndpointResponse<>(STATUS_FORBIDDEN);
+        }
+        return flightRecordings.dump(id)
+                .<WebEndpointResponse<Resource>>map(file -> new WebEndpointResponse<>(new FileSystemResource(file)))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<FlightRecordings.RecordingInfo> stop(@Selector long id) {
+        if (!separateManagementPort) {
+            return new WebEndpointResponse<>(STATUS_FORBIDDEN);
+        }
+        return flightRecordings.stop(id)
+                .map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> discard(@Selector long id) {
+        if (!separateManagementPort) {
+            return new WebEndpointResponse<>(STATUS_FORBIDDEN);
+        }
+        return new WebEndpointResponse<>(flightRecordings.discard(id)
+                ? WebEndpointResponse.STATUS_NO_CONTENT : WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    private static WebEndpointResponse<Object> forbidden() {
+        return new WebEndpointResponse<>(NOT_ON_MANAGEMENT_PORT, STATUS_FORBIDDEN);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.common.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Bounded, on-demand Flight Recorder recordings. Every recording stops itself after at most {@code maxDuration},
+ * keeps at most {@code maxSize} bytes on disk, and at most {@code maxRecordings} are held at once; starting another
+ * evicts the oldest finished one, or fails if all are still running. Finished recordings stay downloadable until
+ * discarded or evicted.
+ * <p>
+ * Events that copy the process environment, system properties and JVM arguments are switched off in every
+ * recording: they carry datasource credentials and other secrets, and a recording is a file meant to be handed out.
+ */
+@Slf4j
+public class FlightRecordings implements AutoCloseable {
+
+    private static final String NAME_PREFIX = "on-demand-";
+
+    /** Events whose payload can contain secrets (environment, {@code -D} flags, system properties). */
+    static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    private final Duration maxDuration;
+    private final long maxSize;
+    private final int maxRecordings;
+    private final Map<Long, Recording> recordings = new ConcurrentSkipListMap<>();
+    private Path dumpDirectory;
+
+    public FlightRecordings(Duration maxDuration, long maxSize, int maxRecordings) {
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+        this.maxRecordings = maxRecordings;
+    }
+
+    /**
+     * @param duration how long to record, capped at the configured maximum
+     * @param settings a JFR configuration name: {@code default} (about 1% overhead) or {@code profile} (about 2%,
+     *                 more frequent CPU and allocation samples)
+     */
+    public synchronized RecordingInfo start(Duration duration, String settings) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Recording duration must be positive, got " + duration);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException ex) {
+            throw new IllegalArgumentException("Unknown JFR settings '" + settings + "', use default or profile", ex);
+        }
+        makeRoom();
+        Recording recording = new Recording(configuration);
+        SENSITIVE_EVENTS.forEach(recording::disable);
+        recording.setName(NAME_PREFIX + settings);
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSize);
+        recording.setDuration(duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        if (log.isInfoEnabled()) {
+            log.info("Started flight recording {} ({} settings, {})", recording.getId(), settings,
+                    recording.getDuration());
+        }
+        return RecordingInfo.of(recording);
+    }
+
+    private void makeRoom() {
+        if (recordings.size() < maxRecordings) {
+            return;
+        }
+        long oldest = recordings.values().stream()
+                .filter(recording -> recording.getState() != RecordingState.RUNNING)
+                .min(Comparator.comparing(Recording::getStartTime))
+                .map(Recording::getId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Already running " + maxRecordings + " flight recordings; stop or discard one first"));
+        discard(oldest);
+    }
+
+    public List<RecordingInfo> list() {
+        return recordings.values().stream().map(RecordingInfo::of).toList();
+    }
+
+    public Optional<RecordingInfo> stop(long id) {
+        return Optional.ofNullable(recordings.get(id)).map(recording -> {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            return RecordingInfo.of(recording);
+        });
+    }
+
+    /** Writes what has been recorded so far (the recording keeps running if it still is) and returns the file. */
+    public synchronized Optional<Path> dump(long id) {
+        if (!recordings.containsKey(id)) {
+            return Optional.empty();
+        }
+        try {
+            Path file = directory().resolve(NAME_PREFIX + id + ".jfr");
+            recordings.get(id).dump(file);
+            return Optional.of(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write flight recording " + id, ex);
+        }
+    }
+
+    private Path directory() throws IOException {
+        if (dumpDirectory == null) {
+            dumpDirectory = Files.createTempDirectory("flight-recordings");
+        }
+        return dumpDirectory;
+    }
+
+    public synchronized boolean discard(long id) {
+        if (!recordings.containsKey(id)) {
+            return false;
+        }
+        recordings.remove(id).close();
+        if (dumpDirectory != null) {
+            try {
+                Files.deleteIfExists(dumpDirectory.resolve(NAME_PREFIX + id + ".jfr"));
+            } catch (IOException ex) {
+                if (log.isWarnEnabled()) {
+                    log.warn("Could not delete dump of flight recording {}: {}", id, ex.toString());
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        List.copyOf(recordings.keySet()).forEach(this::discard);
+    }
+
+    public record RecordingInfo(long id, String name, String state, Instant startTime, Duration duration,
+                                long sizeBytes) {
+
+        static RecordingInfo of(Recording recording) {
+            return new RecordingInfo(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+}
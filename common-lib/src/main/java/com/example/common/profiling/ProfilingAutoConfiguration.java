@@ -0,0 +1,50 @@
+package com.example.common.profiling;
+
+import feign.Capability;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * On-demand Flight Recorder recordings through actuator, plus the {@link FeignCallEvent} capability for services
+ * that use Feign. Domain events ({@code TaxCalculationEvent}, {@code PersonLookupEvent}) are emitted by the services
+ * themselves and land in the same recordings.
+ */
+@AutoConfiguration
+@ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint")
+public class ProfilingAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public FlightRecordings flightRecordings(
+            @Value("${app.profiling.max-duration:10m}") Duration maxDuration,
+            @Value("${app.profiling.max-size:256MB}") DataSize maxSize,
+            @Value("${app.profiling.max-recordings:3}") int maxRecordings) {
+        return new FlightRecordings(maxDuration, maxSize.toBytes(), maxRecordings);
+    }
+
+    /** Read at startup rather than as a bean condition, so AOT-built images follow the runtime configuration. */
+    @Bean
+    public FlightRecorderEndpoint flightRecorderEndpoint(
+            FlightRecordings flightRecordings,
+            @Value("${app.profiling.default-duration:60s}") Duration defaultDuration,
+            @Value("${server.port:8080}") String serverPort,
+            @Value("${management.server.port:}") String managementPort) {
+        boolean separate = !managementPort.isBlank() && !managementPort.equals(serverPort);
+        return new FlightRecorderEndpoint(flightRecordings, defaultDuration, separate);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Capability.class)
+    static class FeignEvents {
+
+        @Bean
+        public FlightRecorderCapability flightRecorderCapability() {
+            return new FlightRecorderCapability();
+        }
+    }
+}
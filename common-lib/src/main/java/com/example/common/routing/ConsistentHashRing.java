@@ -0,0 +1,87 @@
+package com.example.common.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring over named members (replica base URLs, for instance).
+ * <p>
+ * Each member is placed at {@code virtualNodes} pseudo-random points; a key belongs to the first member point at or
+ * after the key's hash, wrapping around. Adding a member only takes over the keys just before its points, about
+ * {@code 1 / (n + 1)} of them, and removing one only hands its own keys to the neighbours; every other key keeps
+ * its owner. Placement depends only on the member names, so every caller that knows the same members routes alike.
+ */
+public final class ConsistentHashRing {
+
+    private static final int MIN_VIRTUAL_NODES = 1;
+
+    private final NavigableMap<Long, String> points;
+    private final List<String> sortedMembers;
+    private final int virtualNodes;
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one member");
+        }
+        if (virtualNodes < MIN_VIRTUAL_NODES) {
+            throw new IllegalArgumentException("virtualNodes must be positive, got " + virtualNodes);
+        }
+        this.sortedMembers = members.stream().distinct().sorted().toList();
+        this.virtualNodes = virtualNodes;
+        NavigableMap<Long, String> ring = new TreeMap<>();
+        for (String member : sortedMembers) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the rare collision the smaller name wins, so placement does not depend on insertion order
+                ring.merge(hash(member + '#' + i), member, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+        this.points = ring;
+    }
+
+    public List<String> members() {
+        return sortedMembers;
+    }
+
+    public String ownerOf(long key) {
+        Map.Entry<Long, String> owner = points.ceilingEntry(mix(key));
+        return (owner != null ? owner : points.firstEntry()).getValue();
+    }
+
+    public ConsistentHashRing withMember(String member) {
+        List<String> grown = new ArrayList<>(sortedMembers);
+        grown.add(member);
+        return new ConsistentHashRing(grown, virtualNodes);
+    }
+
+    public ConsistentHashRing withoutMember(String member) {
+        List<String> shrunk = new ArrayList<>(sortedMembers);
+        shrunk.remove(member);
+        return new ConsistentHashRing(shrunk, virtualNodes);
+    }
+
+    /** FNV-1a over the UTF-8 bytes, then the 64-bit finalizer to spread nearby names apart. */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /** The 64-bit finalizer of MurmurHash3: sequential keys land far apart. */
+    static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
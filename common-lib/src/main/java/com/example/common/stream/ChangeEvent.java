@@ -0,0 +1,12 @@
+package com.example.common.stream;
+
+import java.util.Set;
+
+/**
+ * One entry of a {@link ChangeStream}. {@code id} is the resume offset a client sends back as {@code Last-Event-ID};
+ * it is null for control events that are not part of the stream (eviction). {@code keys} are the ids of the changed
+ * entities, several for a bulk change; it is never null, and when empty the change may concern anyone and every
+ * subscriber receives it.
+ */
+public record ChangeEvent(String id, String type, Set<Long> keys, Object data) {
+}
@@ -0,0 +1,324 @@
+package com.example.common.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Push channel for changes, served as server-sent events.
+ * <p>
+ * {@link #publish} never blocks on subscribers: it numbers the event, keeps it in a ring of the last
+ * {@code retained} events and offers it to the bounded queue of every subscriber interested in its keys. A bulk change
+ * is published once with all its keys ({@link #publishAll}), so it takes one slot in each queue however many entities
+ * it touched. Each subscriber has its own virtual thread that drains the queue into the connection and sends a comment
+ * every {@code heartbeat} so dead connections are noticed. A subscriber whose queue is full is evicted: it gets an
+ * {@code evicted} event and the connection is closed, and it can reconnect with the last id it received. The close
+ * does not wait for the notice: a writer still blocked on the socket after {@link #EVICTION_GRACE} is cut off.
+ * <p>
+ * Event ids are {@code <epoch>-<sequence>}, the epoch being this instance's start. A {@code Last-Event-ID} from this
+ * epoch that is still in the ring replays what was missed; anything else gets a {@code reset} event telling the
+ * client to reload its state, followed by live events. Events are those published on this instance.
+ */
+@Slf4j
+public final class ChangeStream implements AutoCloseable {
+
+    public static final String SUBSCRIBERS = "sse.subscribers";
+    public static final String EVICTIONS = "sse.evictions";
+    public static final String EVENTS = "sse.events";
+    public static final String RESET = "reset";
+    public static final String EVICTED = "evicted";
+
+    /** How long an evicted subscriber's writer may take to send the eviction notice before the connection is closed. */
+    static final Duration EVICTION_GRACE = Duration.ofSeconds(1);
+
+    private static final ChangeEvent EVICTION = new ChangeEvent(null, EVICTED,
+            Set.of(), Map.of("message", "Too slow to keep up; reconnect with Last-Event-ID to resume"));
+
+    private final String name;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final ChangeEvent[] ring;
+    private final int bufferSize;
+    private final long heartbeatNanos;
+    private final long timeoutMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter published;
+    private final Counter evictions;
+
+    // Guarded by lock: sequence of the next event; events 1 .. nextSequence-1 exist, the last ring.length retained
+    private long nextSequence = 1;
+
+    public ChangeStream(String name, int retained, int bufferSize, Duration heartbeat, Duration timeout,
+                        MeterRegistry meterRegistry) {
+        this.name = name;
+        this.ring = new ChangeEvent[retained];
+        this.bufferSize = bufferSize;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.timeoutMillis = timeout.toMillis();
+        Gauge.builder(SUBSCRIBERS, subscribers, Set::size)
+                .description("Open server-sent event subscriptions")
+                .tag("stream", name)
+                .register(meterRegistry);
+        this.published = Counter.builder(EVENTS)
+                .description("Change events published to subscribers")
+                .tag("stream", name)
+                .register(meterRegistry);
+        this.evictions = Counter.builder(EVICTIONS)
+                .description("Subscribers disconnected because their buffer filled up")
+                .tag("stream", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Numbers and retains the event, then hands it to every interested subscriber without waiting for any. A null
+     * {@code key} reaches every subscriber.
+     */
+    public ChangeEvent publish(String type, Long key, Object data) {
+        return publishAll(type, key == null ? Set.of() : Set.of(key), data);
+    }
+
+    /**
+     * One event for a change to several entities: a subscriber receives it once if it follows any of {@code keys}
+     * (every subscriber when empty).
+     */
+    public ChangeEvent publishAll(String type, Collection<Long> keys, Object data) {
+        Set<Long> eventKeys = Set.copyOf(keys);
+        lock.lock();
+        try {
+            long sequence = nextSequence++;
+            ChangeEvent event = new ChangeEvent(epoch + "-" + sequence, type, eventKeys, data);
+            ring[(int) (sequence % ring.length)] = event;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.accepts(event) && !subscriber.queue.offer(event)) {
+                    subscriber.evict();
+                }
+            }
+            published.increment();
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * An event stream of changes to {@code keys} (all changes when null or empty), resuming after
+     * {@code lastEventId} when given. The subscription ends when the client goes away or the timeout passes.
+     */
+    public SseEmitter subscribe(Set<Long> keys, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = subscribe(keys, lastEventId, new SseSink(emitter));
+        emitter.onCompletion(subscriber::cancel);
+        emitter.onTimeout(subscriber::cancel);
+        emitter.onError(error -> subscriber.cancel());
+        return emitter;
+    }
+
+    /** Same as {@link #subscribe(Set, String)} for any sink; the returned handle cancels the subscription. */
+    public Subscriber subscribe(Set<Long> keys, String lastEventId, Sink sink) {
+        Subscriber subscriber = new Subscriber(keys == null || keys.isEmpty() ? null : Set.copyOf(keys), sink);
+        List<ChangeEvent> backlog;
+        lock.lock();
+        try {
+            // Backlog and registration under the lock: nothing published in between is lost or sent twice
+            backlog = backlog(subscriber, lastEventId);
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        Thread.ofVirtual().name("sse-" + name).start(() -> subscriber.deliver(backlog));
+        return subscriber;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /** Ends every subscription, e.g. on shutdown. */
+    @Override
+    public void close() {
+        subscribers.forEach(Subscriber::closeConnection);
+    }
+
+    private List<ChangeEvent> backlog(Subscriber subscriber, String lastEventId) {
+        List<ChangeEvent> backlog = new ArrayList<>();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return backlog;
+        }
+        long oldest = Math.max(1, nextSequence - ring.length);
+        long after = sequenceOf(lastEventId);
+        if (after < oldest - 1 || after >= nextSequence) {
+            String current = nextSequence == 1 ? epoch + "-0" : ring[(int) ((nextSequence - 1) % ring.length)].id();
+            backlog.add(new ChangeEvent(current, RESET, Set.of(),
+                    Map.of("message", "Changes after " + lastEventId + " are no longer available; reload")));
+            return backlog;
+        }
+        for (long sequence = after + 1; sequence < nextSequence; sequence++) {
+            ChangeEvent event = ring[(int) (sequence % ring.length)];
+            if (subscriber.accepts(event)) {
+                backlog.add(event);
+            }
+        }
+        return backlog;
+    }
+
+    /** Sequence within this epoch, or -1 for ids of another epoch or not ours at all. */
+    private long sequenceOf(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Where a subscriber's events go. {@code send} and {@code heartbeat} are called from the subscriber's own thread;
+     * {@code close} is called once, possibly from another thread while a send is blocked.
+     */
+    public interface Sink {
+
+        void send(ChangeEvent event) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    /** One subscription: its filter, its bounded queue and the virtual thread writing it out. */
+    public final class Subscriber {
+
+        private final Set<Long> keys;
+        private final BlockingQueue<ChangeEvent> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final Sink sink;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread writer;
+
+        private Subscriber(Set<Long> keys, Sink sink) {
+            this.keys = keys;
+            this.sink = sink;
+        }
+
+        /** Stops delivery; the connection is left to whoever cancelled. */
+        public void cancel() {
+            if (cancelled.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                Thread thread = writer;
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+        }
+
+        private boolean accepts(ChangeEvent event) {
+            if (keys == null || event.keys().isEmpty()) {
+                return true;
+            }
+            // Probe the larger set with the smaller one: bulk events can carry thousands of keys
+            if (keys.size() < event.keys().size()) {
+                return keys.stream().anyMatch(event.keys()::contains);
+            }
+            return event.keys().stream().anyMatch(keys::contains);
+        }
+
+        /**
+         * Called under the publish lock when the queue is full: make room for the eviction notice only, and close the
+         * connection after the grace period even if the writer is stuck on the socket and never gets to the notice.
+         */
+        private void evict() {
+            subscribers.remove(this);
+            queue.clear();
+            queue.add(EVICTION);
+            evictions.increment();
+            Thread.ofVirtual().name("sse-evict-" + name).start(() -> {
+                try {
+                    Thread.sleep(EVICTION_GRACE);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                closeConnection();
+            });
+        }
+
+        private void closeConnection() {
+            cancel();
+            if (closed.compareAndSet(false, true)) {
+                sink.close();
+            }
+        }
+
+        private void deliver(List<ChangeEvent> backlog) {
+            writer = Thread.currentThread();
+            try {
+                for (ChangeEvent event : backlog) {
+                    sink.send(event);
+                }
+                while (!cancelled.get()) {
+                    ChangeEvent event = queue.poll(heartbeatNanos, TimeUnit.NANOSECONDS);
+                    if (event == null) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send(event);
+                        if (event == EVICTION) {
+                            closeConnection();
+                        }
+                    }
+                }
+            } catch (IOException ex) {
+                // The client went away; the container reports it to the emitter as well
+                if (log.isDebugEnabled()) {
+                    log.debug("Subscriber of {} disconnected: {}", name, ex.getMessage());
+                }
+                cancel();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class SseSink implements Sink {
+
+        private final SseEmitter emitter;
+
+        private SseSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(ChangeEvent event) throws IOException {
+            SseEmitter.SseEventBuilder sse = SseEmitter.event().name(event.type())
+                    .data(event.data(), MediaType.APPLICATION_JSON);
+            emitter.send(event.id() == null ? sse : sse.id(event.id()));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("keepalive"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
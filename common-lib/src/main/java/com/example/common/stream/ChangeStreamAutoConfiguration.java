@@ -0,0 +1,30 @@
+package com.example.common.stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * The service's {@link ChangeStream}. Publishing without subscribers only fills the replay ring, so the bean is
+ * always present and the endpoint serving it decides what is published.
+ * <p>
+ * Each subscriber holds an HTTP connection and a virtual thread; with virtual threads the container's
+ * {@code server.tomcat.max-connections} (8192 by default) is what caps subscribers, not the worker pool.
+ */
+@AutoConfiguration
+public class ChangeStreamAutoConfiguration {
+
+    @Bean
+    public ChangeStream changeStream(
+            @Value("${spring.application.name:application}") String name,
+            @Value("${app.stream.retained-events:10000}") int retainedEvents,
+            @Value("${app.stream.buffer-size:256}") int bufferSize,
+            @Value("${app.stream.heartbeat:15s}") Duration heartbeat,
+            @Value("${app.stream.timeout:30m}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        return new ChangeStream(name, retainedEvents, bufferSize, heartbeat, timeout, meterRegistry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.common.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * Opt-in warm-up phase ({@code app.warmup.enabled=true}) that runs every {@link WarmupTask} bean before the
+ * readiness probe reports UP. Readiness is only exposed as a probe with
+ * {@code management.endpoint.health.probes.enabled=true}.
+ * <p>
+ * The flag is checked when the runner starts rather than through a bean condition, so fast-startup (AOT) images can
+ * still switch warm-up on per environment.
+ */
+@AutoConfiguration
+public class WarmupAutoConfiguration {
+
+    @Bean
+    public WarmupRunner warmupRunner(
+            @Value("${app.warmup.enabled:false}") boolean enabled,
+            ObjectProvider<WarmupTask> tasks,
+            @Value("${app.warmup.budget:30s}") Duration budget,
+            @Value("${app.warmup.iterations-per-round:500}") int iterationsPerRound,
+            @Value("${app.warmup.settle-threshold:10ms}") Duration settleThreshold,
+            @Value("${app.warmup.stable-rounds:3}") int stableRounds,
+            MeterRegistry meterRegistry) {
+        return new WarmupRunner(enabled, tasks.orderedStream().toList(), budget, iterationsPerRound,
+                settleThreshold, stableRounds, meterRegistry);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.common.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives every {@link WarmupTask} in rounds until JIT compilation settles or the time budget runs out.
+ * <p>
+ * Runs as an {@link ApplicationRunner}: Spring Boot only publishes {@code ReadinessState.ACCEPTING_TRAFFIC} after all
+ * runners return, so {@code /actuator/health/readiness} stays {@code OUT_OF_SERVICE} for the whole warm-up while
+ * liveness is already {@code UP}. Compilation is considered settled once the JIT spends less than
+ * {@code settleThreshold} compiling during {@code stableRounds} consecutive rounds. A failing task is logged and
+ * dropped; warm-up never fails startup. Every task's {@link WarmupTask#cleanUp()} runs once at the end.
+ */
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    public static final String DURATION_TIMER = "app.warmup.duration";
+
+    private final boolean enabled;
+    private final List<WarmupTask> tasks;
+    private final Duration budget;
+    private final int iterationsPerRound;
+    private final Duration settleThreshold;
+    private final int stableRounds;
+    private final MeterRegistry meterRegistry;
+    private final CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+
+    public WarmupRunner(boolean enabled, List<WarmupTask> tasks, Duration budget, int iterationsPerRound,
+                        Duration settleThreshold, int stableRounds, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.tasks = List.copyOf(tasks);
+        this.budget = budget;
+        this.iterationsPerRound = iterationsPerRound;
+        this.settleThreshold = settleThreshold;
+        this.stableRounds = stableRounds;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || tasks.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        List<WarmupTask> active = new ArrayList<>(tasks);
+        long lastCompileMillis = compilationMillis();
+        int rounds = 0;
+        int stable = 0;
+        while (!active.isEmpty() && stable < stableRounds && System.nanoTime() < deadline) {
+            runRound(active);
+            rounds++;
+            long compileMillis = compilationMillis();
+            stable = compileMillis - lastCompileMillis <= settleThreshold.toMillis() ? stable + 1 : 0;
+            lastCompileMillis = compileMillis;
+        }
+
+        tasks.forEach(WarmupRunner::cleanUp);
+
+        long elapsed = System.nanoTime() - start;
+        String outcome = stable >= stableRounds ? "settled" : active.isEmpty() ? "failed" : "budget_exhausted";
+        Timer.builder(DURATION_TIMER)
+                .description("Time spent warming up hot paths before reporting ready")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        if (log.isInfoEnabled()) {
+            log.info("Warm-up {} after {} rounds in {} ms ({} of {} tasks active)",
+                    outcome, rounds, TimeUnit.NANOSECONDS.toMillis(elapsed), active.size(), tasks.size());
+        }
+    }
+
+    private void runRound(List<WarmupTask> active) {
+        Iterator<WarmupTask> it = active.iterator();
+        while (it.hasNext()) {
+            WarmupTask task = it.next();
+            try {
+                for (int i = 0; i < iterationsPerRound; i++) {
+                    task.run();
+                }
+            } catch (Exception e) {
+                if (log.isWarnEnabled()) {
+                    log.warn("Warm-up task {} failed and was dropped", task.name(), e);
+                }
+                it.remove();
+            }
+        }
+    }
+
+    private static void cleanUp(WarmupTask task) {
+        try {
+            task.cleanUp();
+        } catch (Exception e) {
+            if (log.isWarnEnabled()) {
+                log.warn("Warm-up task {} failed to clean up", task.name(), e);
+            }
+        }
+    }
+
+    /** Total JIT time so far; a constant when the JVM cannot report it, so only the round count gates readiness. */
+    private long compilationMillis() {
+        return compiler != null && compiler.isCompilationTimeMonitoringSupported() ? compiler.getTotalCompilationTime() : 0;
+    }
+}
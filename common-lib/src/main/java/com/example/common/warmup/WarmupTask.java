@@ -0,0 +1,16 @@
+package com.example.common.warmup;
+
+/**
+ * One iteration of a hot path to exercise before the service reports ready. Implementations must be side-effect
+ * free from the caller's point of view (clean up anything they write) and cheap enough to run thousands of times.
+ */
+public interface WarmupTask {
+
+    String name();
+
+    void run() throws Exception;
+
+    /** Removes anything {@link #run()} created; called once when warm-up ends, whatever the outcome. */
+    default void cleanUp() throws Exception {
+    }
+}
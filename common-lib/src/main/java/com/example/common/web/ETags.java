@@ -0,0 +1,48 @@
+package com.example.common.web;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Strong entity tags built from version numbers, and the {@code If-None-Match} comparison for them.
+ */
+public final class ETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /** A strong tag whose opaque value is the parts joined with dots, e.g. {@code "7.FY2024-25.NEW"}. */
+    public static String of(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining(".", "\"", "\""));
+    }
+
+    /** The opaque value of a tag, without the weak prefix and quotes. */
+    public static String value(String etag) {
+        String tag = etag.trim();
+        if (tag.startsWith(WEAK_PREFIX)) {
+            tag = tag.substring(WEAK_PREFIX.length());
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        return tag;
+    }
+
+    /** Weak comparison as RFC 9110 prescribes for {@code If-None-Match}; {@code null} never matches. */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String expected = value(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (ANY.equals(trimmed) || value(trimmed).equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
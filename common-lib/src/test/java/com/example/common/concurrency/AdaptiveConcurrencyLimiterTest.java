@@ -0,0 +1,87 @@
+package com.example.common.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Lower priorities are shed before reads, reads before health checks")
+    void shouldShedByPriority() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, Long.MAX_VALUE, 1);
+
+        int normal = acquireAll(limiter, RequestPriority.NORMAL);
+        int read = acquireAll(limiter, RequestPriority.READ);
+        int critical = acquireAll(limiter, RequestPriority.CRITICAL);
+
+        assertEquals(9, normal);
+        assertEquals(1, read);
+        assertEquals(5, critical);
+        assertEquals(15, limiter.getInflight());
+    }
+
+    @Test
+    @DisplayName("Limit shrinks when latency rises above the no-queueing baseline")
+    void shouldShrinkWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 1000, 0, 1);
+        runWindows(limiter, 20, 100, 2 * MILLIS);
+        int before = limiter.getLimit();
+
+        runWindows(limiter, 20, 100, 20 * MILLIS);
+
+        assertTrue(limiter.getLimit() < before, "limit should drop, was " + before + " now " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 10);
+    }
+
+    @Test
+    @DisplayName("Limit grows while latency is flat and traffic uses the available concurrency")
+    void shouldGrowWhenLatencyIsFlat() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 10, 1000, 0, 1);
+        int before = limiter.getLimit();
+
+        for (int window = 0; window < 30; window++) {
+            runWindows(limiter, 1, limiter.getLimit(), 2 * MILLIS);
+        }
+
+        assertTrue(limiter.getLimit() > before, "limit should grow, was " + before + " now " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Idle traffic does not inflate the limit")
+    void shouldNotGrowWhenAppLimited() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 10, 1000, 0, 1);
+
+        runWindows(limiter, 40, 2, 2 * MILLIS);
+
+        assertEquals(50, limiter.getLimit());
+    }
+
+    private static int acquireAll(AdaptiveConcurrencyLimiter limiter, RequestPriority priority) {
+        int acquired = 0;
+        while (limiter.tryAcquire(priority)) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    /**
+     * Each window admits {@code concurrency} requests at once and releases them with the given RTT.
+     */
+    private static void runWindows(AdaptiveConcurrencyLimiter limiter, int windows, int concurrency, long rttNanos) {
+        for (int window = 0; window < windows; window++) {
+            int admitted = 0;
+            while (admitted < concurrency && limiter.tryAcquire(RequestPriority.READ)) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(rttNanos, true);
+            }
+        }
+    }
+}
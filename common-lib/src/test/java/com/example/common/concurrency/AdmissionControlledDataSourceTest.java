@@ -0,0 +1,92 @@
+package com.example.common.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlledDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger closed = new AtomicInteger();
+
+    @Test
+    @DisplayName("A permit is held until the connection is closed, and a second close does not release it twice")
+    void shouldReleaseOnceOnClose() throws SQLException {
+        DatabaseAdmissionGate gate = new DatabaseAdmissionGate(2, 0, Duration.ofMillis(10), registry);
+        DataSource dataSource = new AdmissionControlledDataSource(pool(false), gate);
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(2, gate.getActive());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1.0, registry.get("db.admission.rejected").tag("reason", "queue-full").counter().count());
+
+        first.close();
+        first.close();
+        assertEquals(1, gate.getActive());
+        assertEquals(2, closed.get());
+        second.close();
+        assertEquals(0, gate.getActive());
+    }
+
+    @Test
+    @DisplayName("A caller that waits longer than the queue timeout is rejected")
+    void shouldTimeOutQueuedCaller() throws SQLException {
+        DatabaseAdmissionGate gate = new DatabaseAdmissionGate(1, 5, Duration.ofMillis(50), registry);
+        DataSource dataSource = new AdmissionControlledDataSource(pool(false), gate);
+
+        try (Connection held = dataSource.getConnection()) {
+            assertNotNull(held);
+            long start = System.nanoTime();
+            SQLTransientConnectionException ex =
+                    assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+            assertEquals(DatabaseAdmissionGate.SQL_STATE, ex.getSQLState());
+        }
+        assertEquals(1.0, registry.get("db.admission.rejected").tag("reason", "timeout").counter().count());
+        assertEquals(0, gate.getActive());
+    }
+
+    @Test
+    @DisplayName("The permit is returned when the pool itself fails to hand out a connection")
+    void shouldReleaseWhenPoolFails() {
+        DatabaseAdmissionGate gate = new DatabaseAdmissionGate(1, 0, Duration.ofMillis(10), registry);
+        DataSource dataSource = new AdmissionControlledDataSource(pool(true), gate);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(0, gate.getActive());
+    }
+
+    private DataSource pool(boolean failing) {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {DataSource.class},
+                (proxy, method, args) -> {
+                    if (!"getConnection".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (failing) {
+                        throw new SQLException("pool exhausted");
+                    }
+                    return connection();
+                });
+    }
+
+    private Connection connection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        closed.incrementAndGet();
+                    }
+                    return null;
+                });
+    }
+}
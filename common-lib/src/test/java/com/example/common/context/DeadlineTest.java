@@ -0,0 +1,155 @@
+package com.example.common.context;
+
+import com.example.common.concurrency.DatabaseAdmissionGate;
+import com.example.common.exception.DeadlineExceededException;
+import com.example.common.logging.CorrelationIdFilter;
+import com.example.common.logging.CorrelationIdInterceptor;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.SocketTimeoutException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+
+    @Test
+    @DisplayName("The filter binds the caller's budget and forwards what is left")
+    void shouldAcceptAndForwardBudget() throws Exception {
+        CorrelationIdFilter filter = new CorrelationIdFilter(Duration.ofMinutes(5));
+        AtomicReference<String> forwarded = new AtomicReference<>();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/people/1");
+        request.addHeader(CorrelationIdFilter.BUDGET_HEADER, "2000");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            RequestTemplate template = new RequestTemplate();
+            new CorrelationIdInterceptor().apply(template);
+            forwarded.set(template.headers().get(CorrelationIdFilter.BUDGET_HEADER).iterator().next());
+        });
+        long budget = Long.parseLong(forwarded.get());
+        assertTrue(budget > 1000 && budget <= 2000, "forwarded budget " + budget);
+    }
+
+    @Test
+    @DisplayName("Budgets are cut to the configured maximum; non-positive, malformed and overflowing ones are ignored")
+    void shouldBoundBudget() throws Exception {
+        CorrelationIdFilter filter = new CorrelationIdFilter(Duration.ofSeconds(30));
+
+        for (String huge : List.of(Long.toString(Long.MAX_VALUE), "9223372036854775")) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/people/1");
+            request.addHeader(CorrelationIdFilter.BUDGET_HEADER, huge);
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+                long remaining = RequestContext.currentDeadline().remainingMillis();
+                assertTrue(remaining > 29_000 && remaining <= 30_000, huge + " left " + remaining);
+            });
+        }
+        for (String ignored : List.of("0", "-1", "soon", "99999999999999999999", Long.toString(Long.MIN_VALUE))) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/people/1");
+            request.addHeader(CorrelationIdFilter.BUDGET_HEADER, ignored);
+            AtomicBoolean ran = new AtomicBoolean();
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+                assertNull(RequestContext.currentDeadline(), ignored);
+                ran.set(true);
+            });
+            assertTrue(ran.get(), ignored);
+        }
+    }
+
+    @Test
+    @DisplayName("Statements get the remaining budget as query timeout; nothing runs once it is spent")
+    void shouldDeriveQueryTimeouts() throws Exception {
+        Map<String, Integer> timeouts = new HashMap<>();
+        DataSource dataSource = new DeadlineDataSource(pool(timeouts));
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("SELECT 1");
+        }
+        assertEquals(0, timeouts.get("SELECT 1"));
+
+        new RequestContext("req-1", Deadline.after(Duration.ofMillis(2500))).<Exception, Exception>run(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.prepareStatement("SELECT 2");
+            }
+        });
+        assertEquals(3, timeouts.get("SELECT 2"));
+
+        new RequestContext("req-2", Deadline.after(Duration.ZERO)).<Exception, Exception>run(() ->
+                assertThrows(SQLTimeoutException.class, dataSource::getConnection));
+    }
+
+    @Test
+    @DisplayName("Feign calls and admission waits are cut to the remaining budget")
+    void shouldCapDownstreamWaits() throws Exception {
+        AtomicReference<Request.Options> used = new AtomicReference<>();
+        Client timingOut = (request, options) -> {
+            used.set(options);
+            try {
+                Thread.sleep(Math.min(options.readTimeoutMillis(), 100));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            throw new SocketTimeoutException("Read timed out");
+        };
+        Client capped = new DeadlineCapability().enrich(timingOut);
+        Request request = Request.create(Request.HttpMethod.GET, "http://people/people/1", Map.of(), null, null, null);
+        Request.Options configured = new Request.Options(500, TimeUnit.MILLISECONDS, 2000, TimeUnit.MILLISECONDS, true);
+
+        assertThrows(IOException.class, () -> capped.execute(request, configured));
+        assertEquals(2000, used.get().readTimeoutMillis());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DatabaseAdmissionGate gate = new DatabaseAdmissionGate(1, 5, Duration.ofSeconds(5), registry);
+        gate.acquire();
+        new RequestContext("req-3", Deadline.after(Duration.ofMillis(50))).<Exception, Exception>run(() -> {
+            assertThrows(DeadlineExceededException.class, () -> capped.execute(request, configured));
+            assertTrue(used.get().readTimeoutMillis() <= 50, "read timeout " + used.get().readTimeoutMillis());
+
+            long start = System.nanoTime();
+            assertThrows(SQLTimeoutException.class, gate::acquire);
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        });
+        assertEquals(1.0, registry.get("db.admission.rejected").tag("reason", "deadline").counter().count());
+    }
+
+    private static DataSource pool(Map<String, Integer> timeouts) {
+        return (DataSource) Proxy.newProxyInstance(DeadlineTest.class.getClassLoader(),
+                new Class<?>[] {DataSource.class},
+                (proxy, method, args) -> (Connection) Proxy.newProxyInstance(DeadlineTest.class.getClassLoader(),
+                        new Class<?>[] {Connection.class},
+                        (connection, connectionMethod, sql) -> switch (connectionMethod.getName()) {
+                            case "prepareStatement" -> statement((String) sql[0], timeouts);
+                            case "close" -> null;
+                            default -> throw new UnsupportedOperationException(connectionMethod.getName());
+                        }));
+    }
+
+    private static PreparedStatement statement(String sql, Map<String, Integer> timeouts) {
+        timeouts.put(sql, 0);
+        return (PreparedStatement) Proxy.newProxyInstance(DeadlineTest.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getQueryTimeout" -> timeouts.get(sql);
+                    case "setQueryTimeout" -> timeouts.put(sql, (Integer) args[0]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.common.context;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.common.logging.CorrelationIdFilter;
+import com.example.common.logging.MeteredAsyncAppender;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestContextTest {
+
+    @Test
+    @DisplayName("Forked subtasks and propagated executor work see the request context")
+    void shouldReachForkedAndHandedOffWork() throws Exception {
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        new RequestContext("req-1").run(() -> {
+            List<Callable<String>> tasks = List.of(RequestContext::currentCorrelationId,
+                    RequestContext::currentCorrelationId);
+            seen.addAll(RequestContext.forkAll(tasks));
+            try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+                seen.add(CompletableFuture.supplyAsync(
+                        RequestContext.propagate(RequestContext::currentCorrelationId), executor).join());
+                seen.add(String.valueOf(CompletableFuture.supplyAsync(
+                        RequestContext::currentCorrelationId, executor).join()));
+            }
+        });
+
+        assertEquals(List.of("req-1", "req-1", "req-1", "null"), seen);
+        assertNull(RequestContext.currentCorrelationId());
+    }
+
+    @Test
+    @DisplayName("Nested forks inherit the whole context, and an inner binding only shadows the outer one inside it")
+    void shouldPropagateIntoNestedForks() throws Exception {
+        Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        new RequestContext("outer", deadline).run(() -> {
+            List<List<String>> nested = RequestContext.forkAll(List.<Callable<List<String>>>of(() ->
+                    RequestContext.forkAll(List.<Callable<String>>of(
+                            () -> RequestContext.currentCorrelationId() + "@" + RequestContext.currentDeadline()))));
+            seen.add(nested.get(0).get(0));
+            new RequestContext("inner").run(() -> seen.addAll(RequestContext.forkAll(
+                    List.<Callable<String>>of(() -> RequestContext.currentCorrelationId() + "@"
+                            + RequestContext.currentDeadline()))));
+            seen.add(RequestContext.currentCorrelationId() + "@" + RequestContext.currentDeadline());
+        });
+
+        assertEquals(List.of("outer@" + deadline, "inner@null", "outer@" + deadline), seen);
+    }
+
+    @Test
+    @DisplayName("Nothing is left bound after the scope exits, on the request thread, reused pool threads or MDC")
+    void shouldNotLeakPastScope() throws Exception {
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            new RequestContext("req-3").run(() -> CompletableFuture.supplyAsync(
+                    RequestContext.propagate(RequestContext::currentCorrelationId), executor).join());
+            assertThrows(IllegalStateException.class, () -> new RequestContext("req-4").run(() -> {
+                throw new IllegalStateException("request failed");
+            }));
+
+            assertTrue(RequestContext.current().isEmpty());
+            assertTrue(CompletableFuture.supplyAsync(RequestContext::current, executor).join().isEmpty(),
+                    "the pool thread that ran propagated work still sees it");
+            assertTrue(RequestContext.forkAll(List.<Callable<Boolean>>of(() -> RequestContext.current().isEmpty()))
+                    .get(0), "a subtask forked after the scope still sees it");
+        }
+        assertNull(MDC.get(CorrelationIdFilter.CORRELATION_ID_LOG_VAR), "the binding must not be written to MDC");
+    }
+
+    @Test
+    @DisplayName("Log events carry the correlation id of the scope they were logged in")
+    void shouldStampLogEvents() throws Exception {
+        LoggerContext loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(MDC.getMDCAdapter());
+        ListAppender<ILoggingEvent> sink = new ListAppender<>();
+        sink.setContext(loggerContext);
+        sink.start();
+        MeteredAsyncAppender async = new MeteredAsyncAppender();
+        async.setContext(loggerContext);
+        async.addAppender(sink);
+        async.start();
+        Logger logger = loggerContext.getLogger("request-context-test");
+        logger.addAppender(async);
+
+        new RequestContext("req-2").run(() -> RequestContext.forkAll(List.<Callable<Void>>of(() -> {
+            logger.info("from a forked subtask");
+            return null;
+        })));
+        logger.info("outside any request");
+        async.stop();
+
+        assertEquals(2, sink.list.size());
+        assertEquals("req-2", sink.list.get(0).getMDCPropertyMap().get(CorrelationIdFilter.CORRELATION_ID_LOG_VAR));
+        assertNull(sink.list.get(1).getMDCPropertyMap().get(CorrelationIdFilter.CORRELATION_ID_LOG_VAR));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.common.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRateLimiterTest {
+
+    @Test
+    @DisplayName("Lines past the permits of a window are suppressed, counted once and allowed again next window")
+    void shouldCountSuppressedLines() throws InterruptedException {
+        LogRateLimiter limiter = new LogRateLimiter(3, Duration.ofMillis(200));
+
+        assertEquals(List.of(true, true, true, false, false), acquire(limiter, 5));
+        assertEquals(2, limiter.drainSuppressed());
+        assertEquals(0, limiter.drainSuppressed(), "draining resets the count");
+
+        Thread.sleep(250);
+        assertEquals(List.of(true, true, true, false), acquire(limiter, 4));
+        assertEquals(1, limiter.drainSuppressed());
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never get more than the permits of one window")
+    void shouldNotOverAdmitUnderContention() throws Exception {
+        LogRateLimiter limiter = new LogRateLimiter(10, Duration.ofHours(1));
+        List<Callable<Integer>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(() -> (int) acquire(limiter, 1_000).stream().filter(Boolean::booleanValue).count());
+        }
+
+        int admitted = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<Integer> result : executor.invokeAll(callers)) {
+                admitted += result.get();
+            }
+        }
+
+        assertEquals(10, admitted);
+        assertEquals(8_000 - 10, limiter.drainSuppressed());
+        assertThrows(IllegalArgumentException.class, () -> new LogRateLimiter(0, Duration.ofSeconds(1)));
+    }
+
+    private static List<Boolean> acquire(LogRateLimiter limiter, int calls) {
+        List<Boolean> results = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            results.add(limiter.tryAcquire());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.common.membership;
+
+import com.example.common.population.PopulationGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static final int EMAILS = 100_000;
+
+    @Test
+    @DisplayName("Added emails are always found and absent ones rarely are, close to the target rate")
+    void shouldMeetTargetFalsePositiveRate() {
+        PopulationGenerator population = new PopulationGenerator(42);
+        BloomFilter filter = new BloomFilter(EMAILS, 0.01);
+        for (int i = 0; i < EMAILS; i++) {
+            filter.put(population.person(i).email());
+        }
+
+        for (int i = 0; i < EMAILS; i++) {
+            assertTrue(filter.mightContain(population.person(i).email()), "false negative at " + i);
+        }
+        long falsePositives = IntStream.range(EMAILS, 2 * EMAILS)
+                .filter(i -> filter.mightContain(population.person(i).email()))
+                .count();
+        double observed = (double) falsePositives / EMAILS;
+        assertTrue(observed < 0.015, "observed false-positive rate " + observed);
+        assertEquals(0.01, filter.expectedFpp(), 0.003);
+        // -n ln p / (ln 2)^2 bits: about 9.6 bits per email at 1%
+        assertEquals(EMAILS * 9.6 / 8, filter.memoryBytes(), EMAILS * 0.1);
+        assertEquals(7, filter.hashFunctions());
+    }
+
+    @Test
+    @DisplayName("Overfilling keeps finding every email while the expected rate reports the degradation")
+    void shouldReportDegradationWhenOverfilled() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 5_000; i++) {
+            filter.put("person" + i + "@example.in");
+        }
+
+        assertTrue(IntStream.range(0, 5_000).allMatch(i -> filter.mightContain("person" + i + "@example.in")));
+        assertTrue(filter.expectedFpp() > 0.3, "expected fpp " + filter.expectedFpp());
+        assertEquals(5_000, filter.insertions());
+    }
+
+    @Test
+    @DisplayName("Concurrent writers lose no bits")
+    void shouldKeepEveryConcurrentInsert() {
+        BloomFilter filter = new BloomFilter(EMAILS, 0.01);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int writer = 0; writer < 8; writer++) {
+                int first = writer;
+                executor.submit(() -> {
+                    for (int i = first; i < EMAILS; i += 8) {
+                        filter.put("person" + i + "@example.in");
+                    }
+                });
+            }
+        }
+
+        assertTrue(IntStream.range(0, EMAILS).allMatch(i -> filter.mightContain("person" + i + "@example.in")));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.common.metrics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.example.common.logging.MeteredAsyncAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncAppenderMetricsTest {
+
+    private static final int QUEUE_SIZE = 10;
+    private static final String APPENDER = "TEST_ASYNC";
+
+    @Test
+    @DisplayName("Queue depth, capacity and drops by reason are exported for the root logger's async appender")
+    void shouldExportQueueAndDrops() throws InterruptedException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        StuckAppender sink = new StuckAppender();
+        sink.setContext(context);
+        sink.start();
+        MeteredAsyncAppender async = new MeteredAsyncAppender();
+        async.setName(APPENDER);
+        async.setContext(context);
+        async.setQueueSize(QUEUE_SIZE);
+        async.setDiscardingThreshold(2);
+        async.setNeverBlock(true);
+        async.addAppender(sink);
+        async.start();
+        root.addAppender(async);
+        try {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            new AsyncAppenderMetrics().bindTo(registry);
+
+            // The worker takes the first event and hangs on it, so everything after stays in the queue
+            async.doAppend(event(root, Level.INFO));
+            assertTrue(sink.entered.await(5, TimeUnit.SECONDS), "worker never picked up the first event");
+            append(async, root, Level.WARN, QUEUE_SIZE - 1);
+            append(async, root, Level.INFO, 3);  // one slot left, below the threshold: discarded
+            append(async, root, Level.WARN, 1);  // takes the last slot
+            append(async, root, Level.ERROR, 2); // queue full, never blocking: dropped
+
+            assertEquals(3, async.getDiscardedCount());
+            assertEquals(2, async.getOverflowCount());
+            assertEquals(QUEUE_SIZE, registry.get("logback.async.queue.depth").tag("appender", APPENDER).gauge().value());
+            assertEquals(QUEUE_SIZE,
+                    registry.get("logback.async.queue.capacity").tag("appender", APPENDER).gauge().value());
+            assertEquals(3, registry.get("logback.async.dropped").tag("appender", APPENDER)
+                    .tag("reason", "threshold").functionCounter().count());
+            assertEquals(2, registry.get("logback.async.dropped").tag("appender", APPENDER)
+                    .tag("reason", "queue-full").functionCounter().count());
+        } finally {
+            root.detachAppender(async);
+            sink.release.countDown();
+            async.stop();
+        }
+        assertEquals(1 + QUEUE_SIZE, sink.appended.get(), "everything that was queued is still written");
+    }
+
+    private static void append(MeteredAsyncAppender async, Logger logger, Level level, int count) {
+        for (int i = 0; i < count; i++) {
+            async.doAppend(event(logger, level));
+        }
+    }
+
+    private static LoggingEvent event(Logger logger, Level level) {
+        return new LoggingEvent(Logger.FQCN, logger, level, "event", null, null);
+    }
+
+    /** Blocks the async worker on the first event until released. */
+    private static final class StuckAppender extends AppenderBase<ILoggingEvent> {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger appended = new AtomicInteger();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            appended.incrementAndGet();
+        }
+    }
+}
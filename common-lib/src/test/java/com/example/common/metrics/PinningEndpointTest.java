@@ -0,0 +1,25 @@
+package com.example.common.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class PinningEndpointTest {
+
+    private final PinnedThreadTracker tracker = new PinnedThreadTracker(12, 100);
+
+    @Test
+    @DisplayName("The pinning report and its reset only answer on a separate management port")
+    void shouldRequireSeparateManagementPort() {
+        PinningEndpoint onAppPort = new PinningEndpoint(tracker, false);
+        assertEquals(403, onAppPort.pinning().getStatus());
+        assertEquals(403, onAppPort.reset().getStatus());
+
+        PinningEndpoint onManagementPort = new PinningEndpoint(tracker, true);
+        assertEquals(200, onManagementPort.pinning().getStatus());
+        assertInstanceOf(PinnedThreadTracker.Report.class, onManagementPort.pinning().getBody());
+        assertEquals(204, onManagementPort.reset().getStatus());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.common.population;
+
+import com.example.common.domain.*;
+import com.example.common.enums.PersonType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopulationGeneratorTest {
+
+    @Test
+    @DisplayName("Same seed gives the same people, in any order and in parallel")
+    void shouldBeDeterministic() {
+        List<Person> sequential = new PopulationGenerator(7).stream(10_000).toList();
+        List<Person> parallel = new PopulationGenerator(7).stream(10_000).parallel().toList();
+
+        assertEquals(sequential, parallel);
+        assertEquals(sequential.get(4321), new PopulationGenerator(7).person(4321));
+        assertNotEquals(sequential, new PopulationGenerator(8).stream(10_000).toList());
+    }
+
+    @Test
+    @DisplayName("Subtype mix and incomes follow the documented distributions")
+    void shouldFollowDistributions() {
+        List<Person> people = new PopulationGenerator(42).stream(100_000).toList();
+        Map<PersonType, Long> mix = people.stream()
+                .collect(Collectors.groupingBy(Person::personType, Collectors.counting()));
+
+        assertEquals(0.60, mix.get(PersonType.EMPLOYEE_FULL_TIME) / 100_000.0, 0.01);
+        assertEquals(0.15, mix.get(PersonType.EMPLOYEE_CONTRACTOR) / 100_000.0, 0.01);
+        assertEquals(0.15, mix.get(PersonType.SELF_EMPLOYED) / 100_000.0, 0.01);
+        assertEquals(0.10, mix.get(PersonType.BUSINESS_OWNER) / 100_000.0, 0.01);
+
+        List<BigDecimal> salaries = people.stream()
+                .filter(FullTimeEmployee.class::isInstance)
+                .map(Person::income)
+                .sorted()
+                .toList();
+        BigDecimal median = salaries.get(salaries.size() / 2);
+        assertTrue(median.compareTo(BigDecimal.valueOf(550_000)) > 0 && median.compareTo(BigDecimal.valueOf(650_000)) < 0,
+                "median salary " + median);
+        assertTrue(people.stream().allMatch(p -> !(p instanceof SelfEmployed s)
+                || s.annualTurnover().compareTo(BigDecimal.valueOf(7_500_000)) <= 0));
+        assertEquals(100_000, people.stream().map(Person::email).distinct().count());
+    }
+
+    @Test
+    @DisplayName("NDJSON lines read back through Jackson as the same people")
+    void shouldWriteNdjsonReadableByJackson() throws Exception {
+        List<Person> people = new PopulationGenerator(1).stream(200).toList();
+        StringWriter out = new StringWriter();
+
+        long written = PopulationWriter.write(people.stream(), PopulationWriter.Format.NDJSON, out);
+
+        ObjectMapper mapper = new ObjectMapper();
+        List<Person> read = out.toString().lines()
+                .map(line -> readPerson(mapper, line))
+                .toList();
+        assertEquals(200, written);
+        assertEquals(people, read);
+    }
+
+    @Test
+    @DisplayName("CSV has a header and the flattened entity columns")
+    void shouldWriteCsv() throws Exception {
+        List<Person> people = new PopulationGenerator(1).stream(100).toList();
+        StringWriter out = new StringWriter();
+
+        PopulationWriter.write(people.stream(), PopulationWriter.Format.CSV, out);
+
+        List<String> lines = out.toString().lines().toList();
+        assertEquals(PopulationWriter.CSV_HEADER, lines.get(0));
+        assertEquals(101, lines.size());
+        Map<Integer, Long> columnCounts = lines.stream()
+                .collect(Collectors.groupingBy(l -> l.split(",", -1).length, Collectors.counting()));
+        assertEquals(Map.of(8, 101L), columnCounts);
+        Person first = people.get(0);
+        assertTrue(lines.get(1).startsWith(first.id() + "," + first.personType() + "," + first.name()));
+    }
+
+    private static Person readPerson(ObjectMapper mapper, String line) {
+        try {
+            return mapper.readValue(line, Person.class);
+        } catch (Exception e) {
+            throw new AssertionError(line, e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.common.profiling;
+
+import com.example.common.domain.Person;
+import com.example.common.domain.TaxResult;
+import com.example.common.enums.PersonType;
+import com.example.common.enums.TaxRegime;
+import com.example.common.population.PopulationGenerator;
+import com.example.tax.core.TaxCalculator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AllocationMeterTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 10_000;
+
+    // Byte budgets per call, about 1.5x what JDK 21 measured; raise them deliberately, not to make a build pass
+    private static final long PERSON_ENCODE_BUDGET = 1_024;
+    private static final long PERSON_DECODE_BUDGET = 1_664;
+    private static final long TAX_RESULT_ENCODE_BUDGET = 1_024;
+    private static final long TAX_RESULT_DECODE_BUDGET = 2_176;
+
+    /** What the web layer uses: Spring's builder defaults, as Boot's auto-configured mapper. */
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private static final Map<PersonType, Person> PEOPLE = new EnumMap<>(PersonType.class);
+
+    @BeforeAll
+    static void requireCounters() {
+        assumeTrue(AllocationMeter.isSupported(), "thread allocation counters are not available on this JVM");
+        new PopulationGenerator(7).stream(1_000).forEach(person -> PEOPLE.putIfAbsent(person.personType(), person));
+    }
+
+    @Test
+    @DisplayName("Measures what an operation allocates, not the harness")
+    void shouldMeasureKnownAllocation() {
+        AllocationMeter.Measurement nothing = AllocationMeter.measure(WARMUP, MEASURED, () -> PEOPLE);
+        assertEquals(0, nothing.bytesPerOperation(), 8, nothing::toString);
+        // 16-byte array header plus 1 KiB of elements
+        AllocationMeter.Measurement array = AllocationMeter.measure(WARMUP, MEASURED, () -> new byte[1_024]);
+        assertEquals(1_040, array.bytesPerOperation(), 8, array::toString);
+        assertTrue(array.converged(), array::toString);
+        assertTrue(array.rounds().size() >= 2, array::toString);
+    }
+
+    @Test
+    @DisplayName("JSON encode and decode of a person stay within their byte budgets")
+    void shouldEncodeAndDecodePeopleWithinBudget() {
+        ObjectWriter writer = MAPPER.writerFor(Person.class);
+        ObjectReader reader = MAPPER.readerFor(Person.class);
+        for (Person person : PEOPLE.values()) {
+            String json = write(writer, person);
+            assertWithinBudget("encode " + person.personType(), PERSON_ENCODE_BUDGET, () -> write(writer, person));
+            assertWithinBudget("decode " + person.personType(), PERSON_DECODE_BUDGET, () -> read(reader, json));
+        }
+    }
+
+    @Test
+    @DisplayName("JSON encode and decode of a tax result stay within their byte budgets")
+    void shouldEncodeAndDecodeTaxResultsWithinBudget() {
+        ObjectWriter writer = MAPPER.writerFor(TaxResult.class);
+        ObjectReader reader = MAPPER.readerFor(TaxResult.class);
+        TaxResult result = new TaxCalculator().calculate(PEOPLE.get(PersonType.EMPLOYEE_FULL_TIME), TaxRegime.NEW);
+        String json = write(writer, result);
+        assertWithinBudget("encode tax result", TAX_RESULT_ENCODE_BUDGET, () -> write(writer, result));
+        assertWithinBudget("decode tax result", TAX_RESULT_DECODE_BUDGET, () -> read(reader, json));
+    }
+
+    private static void assertWithinBudget(String operation, long budget, Supplier<?> call) {
+        AllocationMeter.Measurement allocated = AllocationMeter.measure(WARMUP, MEASURED, call);
+        assertTrue(allocated.bytesPerOperation() <= budget,
+                () -> operation + " allocates " + allocated + ", budget " + budget);
+    }
+
+    private static String write(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Object read(ObjectReader reader, String json) {
+        try {
+            return reader.readValue(json);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.common.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingsTest {
+
+    private final FlightRecordings recordings = new FlightRecordings(Duration.ofMinutes(1), 16L << 20, 1);
+
+    @AfterEach
+    void closeRecordings() {
+        recordings.close();
+    }
+
+    @Test
+    @DisplayName("A dumped recording contains the custom events committed while it ran")
+    void shouldCaptureCustomEvents() throws IOException {
+        FlightRecordings.RecordingInfo started = recordings.start(Duration.ofHours(1), "default");
+        assertEquals(Duration.ofMinutes(1), started.duration());
+        assertEquals("RUNNING", started.state());
+
+        FeignCallEvent event = new FeignCallEvent();
+        event.begin();
+        event.commit("people-management-service", "PeopleClient#getPersonById(Long)", "GET", 200);
+        assertEquals("STOPPED", recordings.stop(started.id()).orElseThrow().state());
+
+        Path file = recordings.dump(started.id()).orElseThrow();
+        List<RecordedEvent> calls = RecordingFile.readAllEvents(file).stream()
+                .filter(recorded -> "com.example.FeignCall".equals(recorded.getEventType().getName()))
+                .toList();
+        assertEquals(1, calls.size());
+        assertEquals("PeopleClient#getPersonById(Long)", calls.get(0).getString("method"));
+        assertEquals(200, calls.get(0).getInt("status"));
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .noneMatch(recorded -> FlightRecordings.SENSITIVE_EVENTS.contains(recorded.getEventType().getName())),
+                "recording contains environment, system properties or JVM arguments");
+    }
+
+    @Test
+    @DisplayName("The endpoint refuses every operation unless served on a separate management port")
+    void shouldRequireSeparateManagementPort() {
+        FlightRecorderEndpoint onAppPort = new FlightRecorderEndpoint(recordings, Duration.ofSeconds(30), false);
+        assertEquals(403, onAppPort.start(null, null).getStatus());
+        assertEquals(403, onAppPort.recordings().getStatus());
+        assertEquals(403, onAppPort.download(1).getStatus());
+        assertTrue(recordings.list().isEmpty());
+
+        FlightRecorderEndpoint onManagementPort = new FlightRecorderEndpoint(recordings, Duration.ofSeconds(30), true);
+        assertEquals(200, onManagementPort.start(null, "default").getStatus());
+        assertEquals(1, recordings.list().size());
+    }
+
+    @Test
+    @DisplayName("Starting past the limit evicts a finished recording but never a running one")
+    void shouldBoundRecordings() {
+        long first = recordings.start(Duration.ofSeconds(30), "default").id();
+        assertThrows(IllegalStateException.class, () -> recordings.start(Duration.ofSeconds(30), "default"));
+
+        recordings.stop(first);
+        long second = recordings.start(Duration.ofSeconds(30), "default").id();
+
+        assertEquals(List.of(second), recordings.list().stream().map(FlightRecordings.RecordingInfo::id).toList());
+        assertTrue(recordings.dump(first).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> recordings.start(Duration.ofSeconds(1), "no-such-settings"));
+    }
+}
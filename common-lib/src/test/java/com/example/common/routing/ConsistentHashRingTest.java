@@ -0,0 +1,94 @@
+package com.example.common.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> REPLICAS = List.of("http://tax-a:8081", "http://tax-b:8081", "http://tax-c:8081");
+    private static final int KEYS = 100_000;
+
+    @Test
+    @DisplayName("Keys spread evenly and placement ignores member order")
+    void shouldSpreadKeysEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(REPLICAS, 160);
+        ConsistentHashRing reordered = new ConsistentHashRing(REPLICAS.reversed(), 160);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (long key = 1; key <= KEYS; key++) {
+            String owner = ring.ownerOf(key);
+            assertEquals(owner, reordered.ownerOf(key));
+            owned.merge(owner, 1, Integer::sum);
+        }
+        owned.values().forEach(count ->
+                assertTrue(count > KEYS * 0.25 && count < KEYS * 0.42, "unbalanced ring: " + owned));
+    }
+
+    @Test
+    @DisplayName("Membership changes only move the keys of the member that joined or left")
+    void shouldMoveFewKeysOnMembershipChange() {
+        ConsistentHashRing ring = new ConsistentHashRing(REPLICAS, 160);
+        ConsistentHashRing grown = ring.withMember("http://tax-d:8081");
+        ConsistentHashRing shrunk = ring.withoutMember("http://tax-b:8081");
+
+        int movedOnJoin = 0;
+        int movedOnLeave = 0;
+        for (long key = 1; key <= KEYS; key++) {
+            String before = ring.ownerOf(key);
+            if (!before.equals(grown.ownerOf(key))) {
+                movedOnJoin++;
+                assertEquals("http://tax-d:8081", grown.ownerOf(key));
+            }
+            if (!before.equals(shrunk.ownerOf(key))) {
+                movedOnLeave++;
+                assertEquals("http://tax-b:8081", before);
+            }
+        }
+        assertTrue(movedOnJoin < KEYS * 0.32, "a fourth member should take about a quarter, took " + movedOnJoin);
+        assertTrue(movedOnLeave < KEYS * 0.42, "only the leaver's third should move, moved " + movedOnLeave);
+    }
+
+    @Test
+    @DisplayName("Affinity raises the aggregate hit ratio of per-replica caches over round-robin")
+    void shouldRaiseAggregateHitRatio() {
+        ConsistentHashRing ring = new ConsistentHashRing(REPLICAS, 160);
+        // Each replica caches 2,000 of 6,000 hot people; requests are skewed towards low ids
+        double roundRobin = hitRatio(ring, false);
+        double affinity = hitRatio(ring, true);
+
+        assertTrue(affinity > roundRobin + 0.2, "round-robin " + roundRobin + ", affinity " + affinity);
+    }
+
+    private static double hitRatio(ConsistentHashRing ring, boolean affinity) {
+        Map<String, Map<Long, Boolean>> caches = new HashMap<>();
+        REPLICAS.forEach(replica -> caches.put(replica, lru(2_000)));
+        SplittableRandom random = new SplittableRandom(42);
+        int hits = 0;
+        int requests = 200_000;
+        for (int i = 0; i < requests; i++) {
+            long person = (long) (6_000 * Math.pow(random.nextDouble(), 2));
+            String replica = affinity ? ring.ownerOf(person) : REPLICAS.get(i % REPLICAS.size());
+            if (caches.get(replica).put(person, Boolean.TRUE) != null) {
+                hits++;
+            }
+        }
+        return (double) hits / requests;
+    }
+
+    private static Map<Long, Boolean> lru(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+}
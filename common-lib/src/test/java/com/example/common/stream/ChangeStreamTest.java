@@ -0,0 +1,206 @@
+package com.example.common.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeStreamTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ChangeStream stream(int retained, int bufferSize) {
+        return new ChangeStream("test", retained, bufferSize, Duration.ofMinutes(1), Duration.ofMinutes(5), registry);
+    }
+
+    @Test
+    @DisplayName("Subscribers get the keys they asked for plus broadcasts, and resume after their Last-Event-ID")
+    void shouldFilterByKeyAndResume() throws InterruptedException {
+        try (ChangeStream stream = stream(100, 16)) {
+            RecordingSink all = new RecordingSink();
+            RecordingSink one = new RecordingSink();
+            stream.subscribe(null, null, all);
+            stream.subscribe(Set.of(1L), null, one);
+
+            ChangeEvent first = stream.publish("updated", 1L, "a");
+            stream.publish("updated", 2L, "b");
+            stream.publish("bulk-updated", null, "c");
+
+            assertEquals(List.of("a", "b", "c"), all.take(3));
+            assertEquals(List.of("a", "c"), one.take(2));
+
+            RecordingSink resumed = new RecordingSink();
+            stream.subscribe(Set.of(2L), first.id(), resumed);
+            assertEquals(List.of("b", "c"), resumed.take(2));
+            stream.publish("updated", 2L, "d");
+            assertEquals(List.of("d"), resumed.take(1));
+        }
+    }
+
+    @Test
+    @DisplayName("An offset no longer retained, or from another instance, gets a reset instead of a partial replay")
+    void shouldResetWhenOffsetIsGone() throws InterruptedException {
+        try (ChangeStream stream = stream(4, 16)) {
+            ChangeEvent first = stream.publish("updated", 1L, "a");
+            IntStream.range(0, 5).forEach(i -> stream.publish("updated", 1L, "x" + i));
+
+            RecordingSink expired = new RecordingSink();
+            stream.subscribe(null, first.id(), expired);
+            ChangeEvent reset = expired.events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(reset);
+            assertEquals(ChangeStream.RESET, reset.type());
+
+            RecordingSink foreign = new RecordingSink();
+            stream.subscribe(null, "other-7", foreign);
+            assertEquals(ChangeStream.RESET, foreign.events.poll(5, TimeUnit.SECONDS).type());
+
+            // The reset carries the current offset, so resuming from it replays nothing old
+            RecordingSink again = new RecordingSink();
+            stream.subscribe(null, reset.id(), again);
+            stream.publish("updated", 1L, "new");
+            assertEquals(List.of("new"), again.take(1));
+        }
+    }
+
+    @Test
+    @DisplayName("A subscriber that stops reading is evicted and disconnected once its buffer fills, without slowing publishers")
+    void shouldEvictSlowConsumer() throws InterruptedException {
+        try (ChangeStream stream = stream(100, 4)) {
+            CountDownLatch stuck = new CountDownLatch(1);
+            RecordingSink slow = new RecordingSink(stuck);
+            RecordingSink fast = new RecordingSink();
+            stream.subscribe(null, null, slow);
+            stream.subscribe(null, null, fast);
+
+            for (int i = 0; i < 20; i++) {
+                stream.publish("updated", (long) i, i);
+                assertEquals(List.of(i), fast.take(1));
+            }
+            assertEquals(1, stream.subscriberCount());
+            assertEquals(1.0, registry.get(ChangeStream.EVICTIONS).counter().count());
+
+            // The writer never gets past its first send, so only closing the connection releases it
+            assertTrue(slow.closed.await(5, TimeUnit.SECONDS), "connection of the stuck subscriber not closed");
+            assertEquals(1, stuck.getCount());
+            stuck.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Evicting a subscriber that still reads sends it the eviction notice before disconnecting")
+    void shouldNotifyEvictedSubscriber() throws InterruptedException {
+        try (ChangeStream stream = stream(100, 4)) {
+            CountDownLatch paused = new CountDownLatch(1);
+            RecordingSink slow = new RecordingSink(paused);
+            stream.subscribe(null, null, slow);
+
+            IntStream.range(0, 20).forEach(i -> stream.publish("updated", (long) i, i));
+            paused.countDown();
+
+            ChangeEvent last = null;
+            while (last == null || last.id() != null) {
+                last = slow.events.poll(5, TimeUnit.SECONDS);
+                assertNotNull(last, "eviction notice not delivered");
+            }
+            assertEquals(ChangeStream.EVICTED, last.type());
+            assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("A bulk change to more entities than the buffer holds is one event and evicts nobody")
+    void shouldPublishBulkChangeAsOneEvent() throws InterruptedException {
+        try (ChangeStream stream = stream(100, 4)) {
+            RecordingSink all = new RecordingSink();
+            RecordingSink one = new RecordingSink();
+            RecordingSink other = new RecordingSink();
+            stream.subscribe(null, null, all);
+            stream.subscribe(Set.of(7L), null, one);
+            stream.subscribe(Set.of(1000L), null, other);
+
+            stream.publishAll("bulk-updated", LongStream.range(0, 100).boxed().toList(), "bulk");
+            stream.publish("updated", 1000L, "single");
+
+            assertEquals(List.of("bulk", "single"), all.take(2));
+            assertEquals(List.of("bulk"), one.take(1));
+            assertEquals(List.of("single"), other.take(1));
+            assertEquals(3, stream.subscriberCount());
+            assertEquals(0.0, registry.get(ChangeStream.EVICTIONS).counter().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Thousands of subscribers, each on its own virtual thread, all receive every event")
+    void shouldServeThousandsOfSubscribers() throws InterruptedException {
+        int subscribers = 5_000;
+        try (ChangeStream stream = stream(100, 64)) {
+            List<RecordingSink> sinks = IntStream.range(0, subscribers).mapToObj(i -> new RecordingSink()).toList();
+            sinks.forEach(sink -> stream.subscribe(null, null, sink));
+            assertEquals(subscribers, registry.get(ChangeStream.SUBSCRIBERS).gauge().value());
+
+            IntStream.range(0, 10).forEach(i -> stream.publish("updated", (long) i, i));
+
+            for (RecordingSink sink : sinks) {
+                assertEquals(10, sink.take(10).size());
+            }
+        }
+        assertEquals(0, registry.get(ChangeStream.SUBSCRIBERS).gauge().value());
+    }
+
+    private static final class RecordingSink implements ChangeStream.Sink {
+
+        private final BlockingQueue<ChangeEvent> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private final CountDownLatch readable;
+
+        RecordingSink() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingSink(CountDownLatch readable) {
+            this.readable = readable;
+        }
+
+        @Override
+        public void send(ChangeEvent event) {
+            try {
+                readable.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void heartbeat() {
+            // Heartbeats are a minute apart here
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        List<Object> take(int count) throws InterruptedException {
+            List<Object> data = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                ChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+                assertNotNull(event, "only " + i + " of " + count + " events arrived");
+                data.add(event.data());
+            }
+            return data;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.common.warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmupRunnerTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    @Test
+    @DisplayName("Stops once compilation has been quiet for the configured number of rounds")
+    void shouldStopWhenSettled() {
+        CountingTask task = new CountingTask(false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new WarmupRunner(true, List.of(task), NEVER, 10, NEVER, 3, registry).run(null);
+
+        assertEquals(30, task.runs);
+        assertEquals(1, task.cleanUps);
+        assertEquals(1, registry.get(WarmupRunner.DURATION_TIMER).tag("outcome", "settled").timer().count());
+    }
+
+    @Test
+    @DisplayName("Stops when the time budget runs out even if compilation never settles")
+    void shouldStopAtBudget() {
+        CountingTask task = new CountingTask(false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new WarmupRunner(true, List.of(task), Duration.ofMillis(50), 10, Duration.ofMillis(-1), 3, registry)
+                .run(null);
+
+        assertTrue(task.runs > 0);
+        assertEquals(1, registry.get(WarmupRunner.DURATION_TIMER).tag("outcome", "budget_exhausted").timer().count());
+    }
+
+    @Test
+    @DisplayName("A failing task is dropped without affecting the others, and every task is cleaned up")
+    void shouldDropFailingTask() {
+        CountingTask healthy = new CountingTask(false);
+        CountingTask broken = new CountingTask(true);
+
+        new WarmupRunner(true, List.of(broken, healthy), NEVER, 10, NEVER, 2, new SimpleMeterRegistry()).run(null);
+
+        assertEquals(1, broken.runs);
+        assertEquals(20, healthy.runs);
+        assertEquals(1, broken.cleanUps);
+        assertEquals(1, healthy.cleanUps);
+    }
+
+    @Test
+    @DisplayName("Does nothing when disabled")
+    void shouldSkipWhenDisabled() {
+        CountingTask task = new CountingTask(false);
+
+        new WarmupRunner(false, List.of(task), NEVER, 10, NEVER, 3, new SimpleMeterRegistry()).run(null);
+
+        assertEquals(0, task.runs);
+        assertEquals(0, task.cleanUps);
+    }
+
+    private static final class CountingTask implements WarmupTask {
+        private final boolean failing;
+        private int runs;
+        private int cleanUps;
+
+        CountingTask(boolean failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public String name() {
+            return failing ? "broken" : "healthy";
+        }
+
+        @Override
+        public void run() {
+            runs++;
+            if (failing) {
+                throw new IllegalStateException("boom");
+            }
+        }
+
+        @Override
+        public void cleanUp() {
+            cleanUps++;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+#!/bin/sh
+# Launches a Spring Boot fat jar as a plain classpath. Classes loaded through the fat-jar launcher (or from directories)
+# cannot be stored in a class-data-sharing archive, so the extracted layout is what makes AppCDS work.
+#
+#   run-app.sh --extract JAR   unpack JAR into APP_DIR and jar up the application classes (needs a JDK)
+#   run-app.sh --train         boot the context once, exit after refresh and write app.jsa
+#   run-app.sh [args]          start the service (uses app.jsa and AOT initializers when present)
+set -e
+
+APP_DIR=${APP_DIR:-/app}
+
+if [ "$1" = "--extract" ]; then
+  FAT_JAR=$(cd "$(dirname "$2")" && pwd)/$(basename "$2")
+  mkdir -p "$APP_DIR" && cd "$APP_DIR"
+  jar -xf "$FAT_JAR"
+  AOT=false
+  if find BOOT-INF/classes -name '*__ApplicationContextInitializer.class' | grep -q .; then
+    # Built with -Pfast-startup: use the bean definitions generated at build time
+    AOT=true
+  fi
+  jar -cf application.jar -C BOOT-INF/classes .
+  rm -rf BOOT-INF/classes org
+  {
+    echo "MAIN_CLASS=$(sed -n 's/^Start-Class: *//p' META-INF/MANIFEST.MF | tr -d '\r')"
+    echo "CLASSPATH=application.jar:$(sed -n 's/^- "\(.*\)"$/\1/p' BOOT-INF/classpath.idx | tr '\n' ':')"
+    echo "AOT=$AOT"
+  } > launch.env
+  exit 0
+fi
+
+cd "$APP_DIR"
+. ./launch.env
+
+FAST_OPTS=""
+if [ "$AOT" = "true" ]; then
+  FAST_OPTS="-Dspring.aot.enabled=true"
+fi
+
+if [ "$1" = "--train" ]; then
+  # shellcheck disable=SC2086
+  exec java $JAVA_OPTS $FAST_OPTS -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh \
+    -cp "$CLASSPATH" "$MAIN_CLASS"
+fi
+
+if [ -f app.jsa ]; then
+  FAST_OPTS="$FAST_OPTS -XX:SharedArchiveFile=app.jsa"
+fi
+
+# shellcheck disable=SC2086
+exec java $JAVA_OPTS $FAST_OPTS -cp "$CLASSPATH" "$MAIN_CLASS" "$@"
@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+# Startup benchmark: time-to-first-request and resident memory for both services, with and without the
+# fast-startup profile (Spring AOT + AppCDS). Run from the repository root with JDK 21 on the PATH:
+#
+#   docker/startup-benchmark.sh [runs]
+#
+# Results are written to target/startup-benchmark.csv and printed as a table.
+set -euo pipefail
+
+RUNS=${1:-3}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+OUT="$ROOT/target/startup-benchmark.csv"
+LOGS=$(mktemp -d)
+RESULTS="$LOGS/results.csv"
+echo "service,mode,run,first_request_ms,rss_mb" > "$RESULTS"
+JAVA_OPTS=${JAVA_OPTS:-"-XX:+UseZGC -XX:+ZGenerational --enable-preview"}
+export JAVA_OPTS
+
+
+first_request() {
+  case "$1" in
+    people-management-service) curl -sf -o /dev/null http://localhost:8080/people ;;
+    tax-engine-service) curl -sf -o /dev/null -H 'Content-Type: application/json' \
+      -d '{"person":{"personType":"EMPLOYEE_FULL_TIME","id":1,"name":"A","email":"a@b.c","annualSalary":1000000},"regime":"NEW"}' \
+      http://localhost:8081/tax/calculate ;;
+  esac
+}
+
+measure() {
+  local service=$1 mode=$2 run=$3
+  shift 3
+  local start end pid rss
+  start=$(date +%s%N)
+  "$@" > "$LOGS/$service-$mode.log" 2>&1 &
+  pid=$!
+  until first_request "$service"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "$service ($mode) exited before serving a request, see $LOGS/$service-$mode.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  end=$(date +%s%N)
+  rss=$(awk '/VmRSS/ {print int($2 / 1024)}' "/proc/$pid/status")
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+  echo "$service,$mode,$run,$(( (end - start) / 1000000 )),$rss" | tee -a "$RESULTS"
+}
+
+build() {
+  (cd "$ROOT" && mvn -q -B clean package -DskipTests -Dpmd.skip -Dspotbugs.skip -Dcheckstyle.skip "$@")
+}
+
+build
+for service in people-management-service tax-engine-service; do
+  for run in $(seq "$RUNS"); do
+    # shellcheck disable=SC2086
+    measure "$service" baseline "$run" java $JAVA_OPTS -jar "$ROOT/$service/target/$service-0.0.1-SNAPSHOT.jar"
+  done
+done
+
+build -Pfast-startup
+for service in people-management-service tax-engine-service; do
+  app_dir="$ROOT/$service/target/exploded"
+  rm -rf "$app_dir"
+  APP_DIR="$app_dir" "$ROOT/docker/run-app.sh" --extract "$ROOT/$service/target/$service-0.0.1-SNAPSHOT.jar"
+  APP_DIR="$app_dir" "$ROOT/docker/run-app.sh" --train > "$LOGS/$service-train.log" 2>&1
+  for run in $(seq "$RUNS"); do
+    measure "$service" fast-startup "$run" env APP_DIR="$app_dir" "$ROOT/docker/run-app.sh"
+  done
+done
+
+mkdir -p "$ROOT/target"
+cp "$RESULTS" "$OUT"
+echo
+sed "s/,/\t/g" "$OUT"
@@ -0,0 +1,157 @@
+package com.example.loadtest;
+
+import com.example.common.population.PopulationGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Three Tax Engine replicas behind a simulated round-robin balancer, with consistent-hash affinity enabled
+ * ({@code app.affinity.*}). The same read pattern runs twice over disjoint people: once pinned to the replica it
+ * lands on ({@code X-Affinity-Hop} set, as without affinity) and once routed to each person's owner. The aggregate
+ * hit ratio of the replicas' tax-result stores ({@code tax_store_reads_total}) is compared.
+ */
+class AffinityRoutingLoadTest {
+
+    private static final int REPLICAS = 3;
+    private static final int PEOPLE_PER_PASS = 60;
+    private static final int READS_PER_PERSON = 6;
+    private static final Pattern STORE_READS =
+            Pattern.compile("^tax_store_reads_total\\{[^}]*outcome=\"(hit|stale|miss)\"[^}]*} ([0-9.E]+)$");
+
+    private static final Path OUTPUT_DIR = Path.of(System.getProperty("load.output-dir", "target/load-results"));
+
+    private static ServiceProcess people;
+    private static final List<ServiceProcess> TAX = new ArrayList<>();
+    private static HttpClient client;
+
+    @BeforeAll
+    static void startServices() throws Exception {
+        Files.createDirectories(OUTPUT_DIR);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        people = ServiceProcess.start("people-management-service",
+                Path.of(System.getProperty("load.people-jar")), OUTPUT_DIR, List.of());
+
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < REPLICAS; i++) {
+            ports.add(ServiceProcess.freePort());
+        }
+        String members = String.join(",", ports.stream().map(port -> "http://localhost:" + port).toList());
+        for (int i = 0; i < REPLICAS; i++) {
+            TAX.add(ServiceProcess.start("tax-engine-service-" + i, Path.of(System.getProperty("load.tax-jar")),
+                    OUTPUT_DIR, ports.get(i), List.of(
+                            "--app.services.people-service.url=" + people.baseUri(),
+                            "--app.tax.store.reconcile-enabled=false",
+                            "--app.affinity.enabled=true",
+                            "--app.affinity.self=http://localhost:" + ports.get(i),
+                            "--app.affinity.members=" + members)));
+        }
+        people.awaitReady(client, Duration.ofMinutes(3));
+        for (ServiceProcess replica : TAX) {
+            replica.awaitReady(client, Duration.ofMinutes(3));
+        }
+    }
+
+    @AfterAll
+    static void stopServices() throws Exception {
+        for (ServiceProcess replica : TAX) {
+            replica.close();
+        }
+        if (people != null) {
+            people.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Affinity routing raises the aggregate tax-store hit ratio across replicas")
+    void affinityShouldRaiseHitRatio() throws Exception {
+        List<Long> ids = seedPeople(new PopulationGenerator(Long.getLong("load.seed", 42)), 2 * PEOPLE_PER_PASS);
+
+        double roundRobin = hitRatio(ids.subList(0, PEOPLE_PER_PASS), true);
+        double affinity = hitRatio(ids.subList(PEOPLE_PER_PASS, ids.size()), false);
+
+        System.out.printf("Tax-store hit ratio over %d replicas, %d reads per person:%n"
+                        + "  round-robin only  %.3f%n  with affinity     %.3f%n",
+                REPLICAS, READS_PER_PERSON, roundRobin, affinity);
+        assertTrue(affinity > roundRobin, "affinity " + affinity + " should beat round-robin " + roundRobin);
+    }
+
+    /** Sends every read round-robin over the replicas and returns the hit ratio of the reads it caused. */
+    private static double hitRatio(List<Long> personIds, boolean pinned) throws Exception {
+        double[] before = storeReads();
+        List<Long> reads = new ArrayList<>();
+        for (int i = 0; i < READS_PER_PERSON; i++) {
+            reads.addAll(personIds);
+        }
+        Collections.shuffle(reads, new Random(7));
+        for (int i = 0; i < reads.size(); i++) {
+            URI replica = TAX.get(i % REPLICAS).baseUri();
+            HttpRequest.Builder request = HttpRequest.newBuilder(
+                    replica.resolve("/tax/results/" + reads.get(i) + "?regime=NEW"));
+            if (pinned) {
+                request.header("X-Affinity-Hop", "load-test");
+            }
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), response.body());
+        }
+        double[] after = storeReads();
+        double hits = after[0] - before[0];
+        return hits / (after[1] - before[1]);
+    }
+
+    /** {@code [hits, all reads]} summed over the replicas. */
+    private static double[] storeReads() throws Exception {
+        double[] totals = new double[2];
+        for (ServiceProcess replica : TAX) {
+            HttpRequest scrape = HttpRequest.newBuilder(replica.baseUri().resolve("/actuator/prometheus")).build();
+            for (String line : client.send(scrape, HttpResponse.BodyHandlers.ofString()).body().split("\n")) {
+                Matcher matcher = STORE_READS.matcher(line);
+                if (matcher.matches()) {
+                    double value = Double.parseDouble(matcher.group(2));
+                    totals[1] += value;
+                    if ("hit".equals(matcher.group(1))) {
+                        totals[0] += value;
+                    }
+                }
+            }
+        }
+        return totals;
+    }
+
+    private static List<Long> seedPeople(PopulationGenerator population, int count) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            HttpRequest request = HttpRequest.newBuilder(people.baseUri().resolve("/people"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(Workload.json(population.person(i))))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, response.statusCode(), response.body());
+            ids.add(mapper.readTree(response.body()).get("id").asLong());
+        }
+        return ids;
+    }
+}
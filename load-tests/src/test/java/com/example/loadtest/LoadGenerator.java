@@ -0,0 +1,93 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests are issued on a fixed schedule at {@code rate} per second, each on its own
+ * virtual thread, regardless of how fast earlier ones complete. Latency is measured from the request's
+ * <em>intended</em> start time, not from when it was actually sent. If the system stalls, the requests queued behind
+ * the stall are charged for the wait, which corrects for coordinated omission.
+ */
+final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final int rate;
+
+    LoadGenerator(HttpClient client, Workload workload, int rate) {
+        this.client = client;
+        this.workload = workload;
+        this.rate = rate;
+    }
+
+    /**
+     * Outcome of one run: a latency histogram (nanoseconds) and error count per operation, how many requests the
+     * schedule issued over {@code duration}, and how many of them succeeded before it ended.
+     */
+    record Result(Map<Operation, Histogram> latencies, Map<Operation, Long> errors, Duration duration,
+                  long offered, long completedInWindow) {
+    }
+
+    Result run(Duration duration) throws InterruptedException {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            recorders.put(op, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(op, new LongAdder());
+        }
+        LongAdder completedInWindow = new LongAdder();
+        long offered = 0;
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long intended = start; intended < end; intended += interval) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long scheduled = intended;
+                offered++;
+                Operation op = Operation.forRoll(ThreadLocalRandom.current().nextInt(100));
+                executor.execute(() -> {
+                    boolean ok;
+                    try {
+                        int status = client.send(workload.request(op), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        ok = status < 400;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    long now = System.nanoTime();
+                    recorders.get(op).recordValue(Math.min(now - scheduled, HIGHEST_TRACKABLE_NANOS));
+                    if (!ok) {
+                        errors.get(op).increment();
+                    } else if (now < end) {
+                        completedInWindow.increment();
+                    }
+                });
+            }
+        }
+
+        Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        recorders.forEach((op, recorder) -> latencies.put(op, recorder.getIntervalHistogram()));
+        errors.forEach((op, count) -> errorCounts.put(op, count.sum()));
+        return new Result(latencies, errorCounts, duration, offered, completedInWindow.sum());
+    }
+}
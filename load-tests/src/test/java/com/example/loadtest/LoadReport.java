@@ -0,0 +1,171 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarises a {@link LoadGenerator.Result} per operation (sample count, p50/p99/p99.9/max in ms, throughput, error
+ * rate) plus the offered and achieved request rate as a flat properties file, so results and baselines diff cleanly in
+ * review. Full percentile distributions are written next to it as {@code .hgrm} files, which the HdrHistogram plotter
+ * reads.
+ */
+final class LoadReport {
+
+    /** A p99 needs at least 10 samples above it to be more than the run's maximum. */
+    static final long MIN_P99_SAMPLES = 1_000;
+
+    static final String COUNT = ".count";
+    static final String P50 = ".p50.ms";
+    static final String P99 = ".p99.ms";
+    static final String P999 = ".p999.ms";
+    static final String MAX = ".max.ms";
+    static final String THROUGHPUT = ".throughput.rps";
+    static final String ERROR_RATE = ".error.rate";
+    static final String TOTAL_OFFERED = "total.offered.rps";
+    static final String TOTAL_ACHIEVED = "total.achieved.rps";
+
+    private final Properties summary = new Properties();
+    private final LoadGenerator.Result result;
+
+    LoadReport(LoadGenerator.Result result) {
+        this.result = result;
+        double seconds = result.duration().toNanos() / 1e9;
+        for (Operation op : Operation.values()) {
+            Histogram histogram = result.latencies().get(op);
+            long count = histogram.getTotalCount();
+            String key = op.key();
+            summary.setProperty(key + COUNT, Long.toString(count));
+            summary.setProperty(key + P50, millis(histogram.getValueAtPercentile(50)));
+            summary.setProperty(key + P99, millis(histogram.getValueAtPercentile(99)));
+            summary.setProperty(key + P999, millis(histogram.getValueAtPercentile(99.9)));
+            summary.setProperty(key + MAX, millis(histogram.getMaxValue()));
+            summary.setProperty(key + THROUGHPUT, format(count / seconds));
+            summary.setProperty(key + ERROR_RATE, format(count == 0 ? 0 : (double) result.errors().get(op) / count));
+        }
+        summary.setProperty(TOTAL_OFFERED, format(result.offered() / seconds));
+        summary.setProperty(TOTAL_ACHIEVED, format(result.completedInWindow() / seconds));
+    }
+
+    Properties summary() {
+        return summary;
+    }
+
+    void write(Path outputDir, String name) throws IOException {
+        Files.createDirectories(outputDir);
+        store(summary, outputDir.resolve(name + ".properties"));
+        for (Operation op : Operation.values()) {
+            try (OutputStream out = Files.newOutputStream(outputDir.resolve(name + "-" + op.key() + ".hgrm"));
+                 PrintStream print = new PrintStream(out, false, StandardCharsets.UTF_8)) {
+                result.latencies().get(op).outputPercentileDistribution(print, 1e6);
+            }
+        }
+    }
+
+    /**
+     * Lists every regression against {@code baseline}: an operation's p99 latency above it by more than
+     * {@code margin}, fewer than {@code minAchieved} of the offered requests answered successfully within the run, or
+     * an error rate above {@code maxErrorRate}. The offered rate is fixed by the open-model schedule, so throughput
+     * itself cannot regress; falling behind the schedule is what shows a saturated system. A p99 from fewer than
+     * {@link #MIN_P99_SAMPLES} samples, in this run or the baseline, is reported as a failure rather than compared.
+     */
+    List<String> regressions(Properties baseline, double margin, double minAchieved, double maxErrorRate) {
+        List<String> failures = new ArrayList<>();
+        double offered = value(summary, TOTAL_OFFERED);
+        double achieved = value(summary, TOTAL_ACHIEVED);
+        if (achieved < offered * minAchieved) {
+            failures.add("achieved %.1f rps < %.0f%% of offered %.1f rps".formatted(achieved, minAchieved * 100, offered));
+        }
+        for (Operation op : Operation.values()) {
+            String key = op.key();
+            long count = (long) value(summary, key + COUNT);
+            long baseCount = (long) value(baseline, key + COUNT);
+            if (Math.min(count, baseCount) < MIN_P99_SAMPLES) {
+                failures.add("%s p99 not comparable: %d samples, baseline %d; both need %d (raise load.duration)"
+                        .formatted(key, count, baseCount, MIN_P99_SAMPLES));
+            } else {
+                double p99 = value(summary, key + P99);
+                double baseP99 = value(baseline, key + P99);
+                if (p99 > baseP99 * (1 + margin)) {
+                    failures.add("%s p99 %.2f ms > baseline %.2f ms +%.0f%%".formatted(key, p99, baseP99, margin * 100));
+                }
+            }
+            double errorRate = value(summary, key + ERROR_RATE);
+            if (errorRate > maxErrorRate) {
+                failures.add("%s error rate %.4f > %.4f".formatted(key, errorRate, maxErrorRate));
+            }
+        }
+        return failures;
+    }
+
+    /** Operations with too few samples in this run for their p99 to be recorded as a baseline. */
+    List<String> undersampled() {
+        List<String> thin = new ArrayList<>();
+        for (Operation op : Operation.values()) {
+            long count = (long) value(summary, op.key() + COUNT);
+            if (count < MIN_P99_SAMPLES) {
+                thin.add("%s has %d samples, needs %d".formatted(op.key(), count, MIN_P99_SAMPLES));
+            }
+        }
+        return thin;
+    }
+
+    String table() {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-26s %7s %9s %9s %9s %9s %9s %7s%n",
+                "operation", "count", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "rps", "errors"));
+        for (Operation op : Operation.values()) {
+            String key = op.key();
+            out.append(String.format(Locale.ROOT, "%-26s %7s %9s %9s %9s %9s %9s %7s%n", key,
+                    summary.getProperty(key + COUNT), summary.getProperty(key + P50), summary.getProperty(key + P99),
+                    summary.getProperty(key + P999), summary.getProperty(key + MAX),
+                    summary.getProperty(key + THROUGHPUT), summary.getProperty(key + ERROR_RATE)));
+        }
+        out.append(String.format(Locale.ROOT, "%-26s %57s%n", "offered", summary.getProperty(TOTAL_OFFERED)));
+        out.append(String.format(Locale.ROOT, "%-26s %57s%n", "achieved", summary.getProperty(TOTAL_ACHIEVED)));
+        return out.toString();
+    }
+
+    static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    static void store(Properties properties, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        // Sorted keys so baseline updates produce readable diffs
+        StringBuilder out = new StringBuilder();
+        new TreeMap<>(properties).forEach((k, v) -> out.append(k).append('=').append(v).append('\n'));
+        Files.writeString(file, out, StandardCharsets.UTF_8);
+    }
+
+    private static double value(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException("Baseline is missing " + key + ", refresh it with -Dload.update-baseline=true");
+        }
+        return Double.parseDouble(value);
+    }
+
+    private static String millis(long nanos) {
+        return format(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.loadtest;
+
+import com.example.common.population.PopulationGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Boots People Service and Tax Engine from their packaged jars (People Service on its in-memory H2, or on a Postgres
+ * Testcontainer with {@code -Dload.database=postgres}), seeds people, warms up, then drives the {@link Operation} mix
+ * at a constant arrival rate and compares the result with {@code baseline/<database>.properties}, which must exist.
+ */
+class MixedWorkloadLoadTest {
+
+    private static final int SEEDED_PEOPLE = 200;
+    private static final String RATE = "load.rate";
+
+    private static final String DATABASE = System.getProperty("load.database", "h2");
+    private static final Path OUTPUT_DIR = Path.of(System.getProperty("load.output-dir", "target/load-results"));
+    private static final Path BASELINE_DIR = Path.of(System.getProperty("load.baseline-dir", "src/test/resources/baseline"));
+
+    private static PostgreSQLContainer<?> postgres;
+    private static ServiceProcess people;
+    private static ServiceProcess tax;
+    private static HttpClient client;
+
+    @BeforeAll
+    static void startServices() throws Exception {
+        Files.createDirectories(OUTPUT_DIR);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+
+        List<String> peopleArgs = new ArrayList<>();
+        if ("postgres".equals(DATABASE)) {
+            assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                    "Docker is not available; run with -Dload.database=h2 to use the in-memory database");
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            peopleArgs.addAll(List.of(
+                    "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "--spring.datasource.username=" + postgres.getUsername(),
+                    "--spring.datasource.password=" + postgres.getPassword(),
+                    "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                    "--spring.jpa.hibernate.ddl-auto=update"));
+        }
+
+        people = ServiceProcess.start("people-management-service",
+                Path.of(System.getProperty("load.people-jar")), OUTPUT_DIR, peopleArgs);
+        tax = ServiceProcess.start("tax-engine-service", Path.of(System.getProperty("load.tax-jar")), OUTPUT_DIR,
+                List.of("--app.services.people-service.url=" + people.baseUri()));
+        people.awaitReady(client, Duration.ofMinutes(3));
+        tax.awaitReady(client, Duration.ofMinutes(3));
+    }
+
+    @AfterAll
+    static void stopServices() throws Exception {
+        if (tax != null) {
+            tax.close();
+        }
+        if (people != null) {
+            people.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Mixed people/tax workload stays within the stored baseline")
+    void mixedWorkloadShouldNotRegress() throws Exception {
+        int rate = Integer.getInteger(RATE, 50);
+        double margin = Double.parseDouble(System.getProperty("load.margin", "0.25"));
+        double minAchieved = Double.parseDouble(System.getProperty("load.min-achieved", "0.95"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+        PopulationGenerator population = new PopulationGenerator(Long.getLong("load.seed", 42));
+        Workload workload = new Workload(people.baseUri(), tax.baseUri(), population, seedPeople(population));
+        LoadGenerator generator = new LoadGenerator(client, workload, rate);
+        generator.run(Duration.parse("PT" + System.getProperty("load.warmup", "15s")));
+        LoadReport report = new LoadReport(generator.run(Duration.parse("PT" + System.getProperty("load.duration", "240s"))));
+        report.summary().setProperty(RATE, Integer.toString(rate));
+
+        report.write(OUTPUT_DIR, DATABASE);
+        System.out.printf("Mixed workload at %d req/s against %s:%n%s", rate, DATABASE, report.table());
+
+        Path baselineFile = BASELINE_DIR.resolve(DATABASE + ".properties");
+        if (Boolean.getBoolean("load.update-baseline")) {
+            List<String> undersampled = report.undersampled();
+            assertTrue(undersampled.isEmpty(),
+                    "Run too short for a baseline (raise load.duration):\n  " + String.join("\n  ", undersampled));
+            LoadReport.store(report.summary(), baselineFile);
+            System.out.println("Baseline updated: " + baselineFile);
+            return;
+        }
+        assertTrue(Files.exists(baselineFile),
+                "No baseline for " + DATABASE + "; record one with -Dload.update-baseline=true and commit it");
+        Properties baseline = LoadReport.load(baselineFile);
+        assertEquals(baseline.getProperty(RATE), Integer.toString(rate),
+                "Baseline was recorded at a different arrival rate; results are not comparable");
+        List<String> regressions = report.regressions(baseline, margin, minAchieved, maxErrorRate);
+        assertTrue(regressions.isEmpty(), "Regressed against " + baselineFile + ":\n  " + String.join("\n  ", regressions));
+    }
+
+    private static List<Long> seedPeople(PopulationGenerator population) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < SEEDED_PEOPLE; i++) {
+            HttpRequest request = HttpRequest.newBuilder(people.baseUri().resolve("/people"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(Workload.json(population.person(i))))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, response.statusCode(), response.body());
+            ids.add(mapper.readTree(response.body()).get("id").asLong());
+        }
+        return ids;
+    }
+}
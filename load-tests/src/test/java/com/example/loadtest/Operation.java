@@ -0,0 +1,38 @@
+package com.example.loadtest;
+
+/**
+ * Request types in the mixed workload with their share of traffic (weights sum to 100). The mix is read-heavy, like
+ * production: most calls read people or calculate tax, and a tenth register new people.
+ */
+enum Operation {
+
+    CREATE_PERSON("people.create", 10),
+    GET_PERSON("people.get", 40),
+    CALCULATE_TAX("tax.calculate", 30),
+    CALCULATE_TAX_FOR_PERSON("tax.calculate-for-person", 20);
+
+    private final String key;
+    private final int weight;
+
+    Operation(String key, int weight) {
+        this.key = key;
+        this.weight = weight;
+    }
+
+    /** Stable name used in result and baseline files. */
+    String key() {
+        return key;
+    }
+
+    /** Picks an operation for a uniform {@code roll} in [0, 100). */
+    static Operation forRoll(int roll) {
+        int cumulative = 0;
+        for (Operation op : values()) {
+            cumulative += op.weight;
+            if (roll < cumulative) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("roll out of range: " + roll);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One service fat jar running in its own JVM, the way it runs in production. Output goes to
+ * {@code <output-dir>/<name>.log}; {@link #awaitReady} polls the readiness probe so warm-up is respected.
+ */
+final class ServiceProcess implements AutoCloseable {
+
+    private final String name;
+    private final Process process;
+    private final Path log;
+    private final URI baseUri;
+
+    private ServiceProcess(String name, Process process, Path log, int port) {
+        this.name = name;
+        this.process = process;
+        this.log = log;
+        this.baseUri = URI.create("http://localhost:" + port);
+    }
+
+    static ServiceProcess start(String name, Path jar, Path outputDir, List<String> args) throws IOException {
+        return start(name, jar, outputDir, freePort(), args);
+    }
+
+    /** Starts on a port picked beforehand, for services that must know each other's addresses up front. */
+    static ServiceProcess start(String name, Path jar, Path outputDir, int port, List<String> args)
+            throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " not found, package the services first (mvn package -DskipTests)");
+        }
+        Path log = outputDir.resolve(name + ".log");
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-XX:+UseZGC", "-XX:+ZGenerational", "--enable-preview",
+                "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--management.endpoint.health.probes.enabled=true"));
+        command.addAll(args);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new ServiceProcess(name, process, log, port);
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    void awaitReady(HttpClient client, Duration timeout) throws InterruptedException {
+        HttpRequest probe = HttpRequest.newBuilder(baseUri.resolve("/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException(name + " not ready after " + timeout + ", see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(15, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
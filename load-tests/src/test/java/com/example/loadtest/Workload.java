@@ -0,0 +1,73 @@
+package com.example.loadtest;
+
+import com.example.common.domain.Person;
+import com.example.common.population.PopulationGenerator;
+import com.example.common.population.PopulationWriter;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the HTTP request for each {@link Operation}. Payloads come from the shared {@link PopulationGenerator}, so
+ * every run sends the same mix of person subtypes and incomes. Reads and per-person tax calculations target people
+ * seeded before the run, so every read is a hit. Creates take indices past the seeded range, so emails stay unique.
+ */
+final class Workload {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String JSON = "application/json";
+    private static final String[] REGIMES = {"OLD", "NEW"};
+
+    private final URI people;
+    private final URI tax;
+    private final PopulationGenerator population;
+    private final List<Long> seededIds;
+    private final AtomicLong nextIndex;
+
+    Workload(URI people, URI tax, PopulationGenerator population, List<Long> seededIds) {
+        this.people = people;
+        this.tax = tax;
+        this.population = population;
+        this.seededIds = List.copyOf(seededIds);
+        this.nextIndex = new AtomicLong(seededIds.size());
+    }
+
+    HttpRequest request(Operation op) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (op) {
+            case CREATE_PERSON -> post(people.resolve("/people"), json(population.person(nextIndex.getAndIncrement())));
+            case GET_PERSON -> get(people.resolve("/people/" + randomId(random)));
+            case CALCULATE_TAX -> post(tax.resolve("/tax/calculate"), """
+                    {"person":%s,"regime":"%s"}""".formatted(
+                    json(population.person(random.nextLong(seededIds.size()))), REGIMES[random.nextInt(2)]));
+            case CALCULATE_TAX_FOR_PERSON -> get(tax.resolve(
+                    "/tax/calculate/" + randomId(random) + "?regime=" + REGIMES[random.nextInt(2)]));
+        };
+    }
+
+    static String json(Person person) {
+        StringBuilder out = new StringBuilder(160);
+        PopulationWriter.appendJson(out, person);
+        return out.toString();
+    }
+
+    private long randomId(ThreadLocalRandom random) {
+        return seededIds.get(random.nextInt(seededIds.size()));
+    }
+
+    private static HttpRequest get(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET().build();
+    }
+
+    private static HttpRequest post(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(TIMEOUT)
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -3,11 +3,14 @@ package com.example.javamigrationlab.entity;
 import com.example.common.enums.PersonType;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+// Unique email: duplicate creates are refused with 409 (EmailRegistry answers most of them without a query)
+@Table(indexes = @Index(name = "person_entity_email", columnList = "email", unique = true))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,4 +28,10 @@ public class PersonEntity {
     private Integer hoursWorked; // Only for Contractor
     private String profession; // Only for SelfEmployed
     private String businessType; // Only for BusinessOwner
+
+    // Bumped by every update; exposed as the ETag of GET /people/{id}
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
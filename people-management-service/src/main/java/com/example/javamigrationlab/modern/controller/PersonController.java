@@ -1,32 +1,82 @@
 package com.example.javamigrationlab.modern.controller;
 
 import com.example.common.domain.Person;
+import com.example.common.domain.VersionedPerson;
+import com.example.common.enums.PersonType;
+import com.example.common.enums.TaxRegime;
+import com.example.common.stream.ChangeStream;
+import com.example.common.web.ETags;
+import com.example.javamigrationlab.modern.service.BulkPersonUpdate;
+import com.example.javamigrationlab.modern.service.BulkUpdateResult;
+import com.example.javamigrationlab.modern.service.EmailCheck;
+import com.example.javamigrationlab.modern.service.PersonPage;
+import com.example.javamigrationlab.modern.service.PersonPatch;
 import com.example.javamigrationlab.modern.service.PersonService;
+import com.example.javamigrationlab.modern.service.PersonWithTax;
 import java.math.BigDecimal;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/people")
 public class PersonController {
 
     private final PersonService personService;
+    private final ChangeStream changeStream;
 
-    public PersonController(PersonService personService) {
+    public PersonController(PersonService personService, ChangeStream changeStream) {
         this.personService = personService;
+        this.changeStream = changeStream;
     }
 
+    /** 409 Conflict when the email is already registered. */
     @PostMapping
     public ResponseEntity<Person> createPerson(@RequestBody Person person) {
         return new ResponseEntity<>(personService.createPerson(person), HttpStatus.CREATED);
     }
 
+    /**
+     * Tagged with the record version. A matching {@code If-None-Match} gets 304, straight from the version cache
+     * when the version is known, otherwise after the read.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Person> getPerson(@PathVariable Long id) {
-        return ResponseEntity.ok(personService.getPerson(id));
+    public ResponseEntity<Person> getPerson(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                            String ifNoneMatch) {
+        OptionalLong known = ifNoneMatch == null ? OptionalLong.empty() : personService.cachedVersion(id);
+        if (known.isPresent() && ETags.matches(ifNoneMatch, ETags.of(known.getAsLong()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(known.getAsLong())).build();
+        }
+        VersionedPerson found = personService.getVersionedPerson(id);
+        // Spring turns this into a 304 itself when If-None-Match matches
+        return ResponseEntity.ok().eTag(ETags.of(found.version())).body(found.person());
+    }
+
+    /**
+     * Changes only the fields present in the body. With {@code If-Match: "<version>"} the change is refused with 412
+     * if the person was modified since that version; {@code If-Match: *} or no header applies it regardless.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Person> updatePerson(@PathVariable Long id, @RequestBody PersonPatch patch,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                               String ifMatch) {
+        VersionedPerson updated = personService.updatePerson(id, patch, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.version())).body(updated.person());
+    }
+
+    /** The same change for a list of ids or a whole type, e.g. a salary revision; reports how many rows changed. */
+    @PatchMapping
+    public ResponseEntity<BulkUpdateResult> updatePeople(@RequestBody BulkPersonUpdate update) {
+        return ResponseEntity.ok(personService.updatePeople(update));
     }
 
     @GetMapping
@@ -34,8 +84,55 @@ public class PersonController {
         return ResponseEntity.ok(personService.getAllPeople());
     }
 
+    /** {@code GET /people?withTax=NEW}: every person with the tax under that regime, without calling the tax engine. */
+    @GetMapping(params = "withTax")
+    public ResponseEntity<List<PersonWithTax>> getAllPeopleWithTax(@RequestParam TaxRegime withTax) {
+        return ResponseEntity.ok(personService.getAllPeopleWithTax(withTax));
+    }
+
+    /**
+     * Server-sent events for people changed on this instance: {@code created} and {@code updated} carry the person,
+     * {@code bulk-updated} the ids of a bulk update (or the type, for a whole type) and {@code deleted} the ids removed.
+     * Limited to events about {@code ids} when given; {@code Last-Event-ID} resumes after the last event received.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Set<Long> ids,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeStream.subscribe(ids, lastEventId);
+    }
+
+    /** Keyset page ordered by id; follow {@code nextAfter} until it is null. */
+    @GetMapping("/page")
+    public ResponseEntity<PersonPage> getPage(@RequestParam(defaultValue = "0") long after,
+                                              @RequestParam(defaultValue = "50") int limit,
+                                              @RequestParam(required = false) PersonType type) {
+        return ResponseEntity.ok(personService.getPage(type, after, limit));
+    }
+
+    /** Answered from the email Bloom filter when the email is certainly new; otherwise checked in the database. */
+    @GetMapping("/email-registered")
+    public ResponseEntity<EmailCheck> isEmailRegistered(@RequestParam String email) {
+        return ResponseEntity.ok(new EmailCheck(email, personService.isEmailRegistered(email)));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<PersonType, Long>> getCountsByType() {
+        return ResponseEntity.ok(personService.countByType());
+    }
+
     @GetMapping("/{id}/income")
     public ResponseEntity<BigDecimal> getMonthlyIncome(@PathVariable Long id) {
         return ResponseEntity.ok(personService.calculateMonthlyIncome(id));
     }
+
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        try {
+            return Long.valueOf(ETags.value(ifMatch));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("If-Match must be an ETag of this API, got " + ifMatch, ex);
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.example.javamigrationlab.modern.service;
+
+import com.example.common.enums.PersonType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Body of {@code PATCH /people}: the same change for many people, selected by {@code ids} or else by {@code type}.
+ * {@code amountPercent} revises the amount in the database (e.g. {@code 8.5} raises it by 8.5%, rounded to paise);
+ * {@code set} writes fixed values, except the email, which is unique per person.
+ */
+public record BulkPersonUpdate(List<Long> ids, PersonType type, BigDecimal amountPercent, PersonPatch set) {
+}
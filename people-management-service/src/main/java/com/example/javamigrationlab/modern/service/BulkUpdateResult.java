@@ -0,0 +1,8 @@
+package com.example.javamigrationlab.modern.service;
+
+/**
+ * Outcome of a bulk update. {@code skipped} counts listed ids that were not updated because they do not exist or are
+ * of another type; it is 0 for an update by type.
+ */
+public record BulkUpdateResult(long updated, long skipped) {
+}
@@ -0,0 +1,5 @@
+package com.example.javamigrationlab.modern.service;
+
+/** Answer to "is this email registered", as returned by {@code GET /people/email-registered}. */
+public record EmailCheck(String email, boolean registered) {
+}
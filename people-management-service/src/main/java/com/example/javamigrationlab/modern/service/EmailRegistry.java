@@ -0,0 +1,176 @@
+package com.example.javamigrationlab.modern.service;
+
+import com.example.common.membership.BloomFilter;
+import com.example.javamigrationlab.repository.PersonStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Answers "is this email registered" from a {@link BloomFilter} of every stored email, so most checks for a new
+ * email (the common case on sign-up) never reach the database. Only a "maybe" is confirmed with a query.
+ * <p>
+ * The filter is built on start-up by streaming the emails, after {@link PopulationSeeder} and before warm-up, and
+ * every create through {@link PersonService} adds to it. Until it exists every check goes to the database. Once
+ * more emails were added than it was sized for, it is rebuilt at twice the size in the background; creates during
+ * the rebuild go into both filters.
+ * <p>
+ * Emails created through other instances only reach this filter when it is rebuilt, so until then a check for one
+ * of them is a wrong "not registered": for {@code GET /people/email-registered}, not for creates, which the unique
+ * index still refuses. The first check after {@code app.people.email-filter.rebuild-interval} rebuilds the filter in
+ * the background, which bounds that window to the interval plus one rebuild (0 turns periodic rebuilds off, for a
+ * single instance).
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class EmailRegistry implements ApplicationRunner {
+
+    public static final String CHECKS = "people.email.checks";
+
+    private final PersonStore personStore;
+    private final long expectedInsertions;
+    private final double targetFpp;
+    private final long rebuildIntervalNanos;
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+    private final AtomicReference<BloomFilter> next = new AtomicReference<>();
+    private final Counter absent;
+    private final Counter present;
+    private final Counter falsePositives;
+    private final Counter unfiltered;
+
+    private volatile BloomFilter filter;
+    // When the scan behind the current filter started; emails committed elsewhere after it may be missing
+    private volatile long filterScannedAt;
+
+    public EmailRegistry(PersonStore personStore,
+                         @Value("${app.people.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                         @Value("${app.people.email-filter.target-fpp:0.01}") double targetFpp,
+                         @Value("${app.people.email-filter.rebuild-interval:5m}") Duration rebuildInterval,
+                         MeterRegistry meterRegistry) {
+        this.personStore = personStore;
+        this.expectedInsertions = expectedInsertions;
+        this.targetFpp = targetFpp;
+        this.rebuildIntervalNanos = rebuildInterval.toNanos();
+        this.absent = checkCounter(meterRegistry, "absent");
+        this.present = checkCounter(meterRegistry, "present");
+        this.falsePositives = checkCounter(meterRegistry, "false-positive");
+        this.unfiltered = checkCounter(meterRegistry, "unfiltered");
+        Gauge.builder("people.email.filter.memory", this, registry -> registry.filterStat(BloomFilter::memoryBytes))
+                .description("Memory held by the email Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("people.email.filter.fpp", this, registry -> registry.filterStat(BloomFilter::expectedFpp))
+                .description("Expected false-positive probability of the email Bloom filter at its current fill")
+                .register(meterRegistry);
+        Gauge.builder("people.email.filter.insertions", this,
+                        registry -> registry.filterStat(BloomFilter::insertions))
+                .description("Emails added to the email Bloom filter since it was built")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild(expectedInsertions);
+    }
+
+    /** Whether a person with this email exists; definite negatives are answered without the database. */
+    public boolean isRegistered(String email) {
+        if (email == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (current == null) {
+            unfiltered.increment();
+            return personStore.existsByEmail(email);
+        }
+        if (rebuildIntervalNanos > 0 && System.nanoTime() - filterScannedAt > rebuildIntervalNanos) {
+            rebuildInBackground(current.expectedInsertions());
+        }
+        if (!current.mightContain(email)) {
+            absent.increment();
+            return false;
+        }
+        boolean exists = personStore.existsByEmail(email);
+        (exists ? present : falsePositives).increment();
+        return exists;
+    }
+
+    /** Records an email that was just stored. */
+    public void added(String email) {
+        if (email == null) {
+            return;
+        }
+        // Rebuild target first: if it is already gone, the swap happened and filter below is the rebuilt one
+        BloomFilter building = next.get();
+        if (building != null) {
+            building.put(email);
+        }
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        current.put(email);
+        if (current.insertions() > current.expectedInsertions()) {
+            rebuildInBackground(current.expectedInsertions() * 2);
+        }
+    }
+
+    private void rebuildInBackground(long size) {
+        if (rebuildRunning.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("email-filter-rebuild").start(() -> rebuild(size));
+        }
+    }
+
+    /**
+     * Streams every stored email into a new filter and swaps it in. The new filter is published to
+     * {@link #added} before the scan starts, so an email committed after the scan read past it still lands in it.
+     */
+    void rebuild(long minimumInsertions) {
+        rebuildRunning.set(true);
+        try {
+            long start = System.nanoTime();
+            BloomFilter building = new BloomFilter(Math.max(minimumInsertions, personStore.count() * 2), targetFpp);
+            next.set(building);
+            long scannedAt = System.nanoTime();
+            personStore.forEachEmail(building::put);
+            filterScannedAt = scannedAt;
+            filter = building;
+            if (log.isInfoEnabled()) {
+                log.info("Email filter built from {} emails in {} ms: {} KiB, {} hash functions, expected fpp {}",
+                        building.insertions(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                        building.memoryBytes() / 1024, building.hashFunctions(),
+                        String.format("%.5f", building.expectedFpp()));
+            }
+        } finally {
+            // Cleared only after the swap: added() relies on seeing either next or the rebuilt filter
+            next.set(null);
+            rebuildRunning.set(false);
+        }
+    }
+
+    private double filterStat(ToDoubleFunction<BloomFilter> stat) {
+        BloomFilter current = filter;
+        return current == null ? 0 : stat.applyAsDouble(current);
+    }
+
+    private static Counter checkCounter(MeterRegistry registry, String result) {
+        return Counter.builder(CHECKS)
+                .description("Email existence checks by how they were answered")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.javamigrationlab.modern.service;
+
+import com.example.tax.core.TaxCalculator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The tax math of tax-core, embedded so list views can show taxes without a call to the tax engine per person. Both
+ * use the same tax table ({@code TaxConstants.TABLE_VERSION}) as long as they are built from the same version.
+ */
+@Configuration(proxyBeanMethods = false)
+public class EmbeddedTaxConfiguration {
+
+    @Bean
+    public TaxCalculator taxCalculator() {
+        return new TaxCalculator();
+    }
+}
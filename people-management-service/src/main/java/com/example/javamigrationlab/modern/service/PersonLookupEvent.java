@@ -0,0 +1,34 @@
+package com.example.javamigrationlab.modern.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** One {@link PersonService#getVersionedPerson} call, with the part of it spent in the repository. */
+@Name("com.example.PersonLookup")
+@Label("Person Lookup")
+@Category({"People & Tax", "People Service"})
+@Description("Lookup of a single person by id")
+@StackTrace(false)
+final class PersonLookupEvent extends jdk.jfr.Event {
+
+    @Label("Person Id")
+    private long personId;
+
+    @Label("Found")
+    private boolean found;
+
+    @Label("Database Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long dbTime;
+
+    void commit(long personId, boolean found, long dbTimeNanos) {
+        this.personId = personId;
+        this.found = found;
+        this.dbTime = dbTimeNanos;
+        commit();
+    }
+}
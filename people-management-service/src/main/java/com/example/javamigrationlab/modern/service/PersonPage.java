@@ -0,0 +1,12 @@
+package com.example.javamigrationlab.modern.service;
+
+import com.example.common.domain.Person;
+
+import java.util.List;
+
+/**
+ * One keyset page of people ordered by id. {@code nextAfter} is the cursor for the following page, or null when
+ * this page is the last one.
+ */
+public record PersonPage(List<Person> people, Long nextAfter) {
+}
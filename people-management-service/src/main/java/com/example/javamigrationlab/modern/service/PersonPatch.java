@@ -0,0 +1,24 @@
+package com.example.javamigrationlab.modern.service;
+
+import com.example.javamigrationlab.repository.PersonChanges;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of {@code PATCH /people/{id}}: the fields to change; absent or null fields are left as they are. The amount is
+ * the annual salary or turnover, or the hourly rate of a contractor. {@code hoursWorked}, {@code profession} and
+ * {@code businessType} only apply to contractors, self-employed people and business owners respectively.
+ */
+public record PersonPatch(String name, String email, BigDecimal amount, Integer hoursWorked, String profession,
+                          String businessType) {
+
+    PersonChanges toChanges() {
+        return new PersonChanges()
+                .set(PersonChanges.Column.NAME, name)
+                .set(PersonChanges.Column.EMAIL, email)
+                .set(PersonChanges.Column.AMOUNT, amount)
+                .set(PersonChanges.Column.HOURS_WORKED, hoursWorked)
+                .set(PersonChanges.Column.PROFESSION, profession)
+                .set(PersonChanges.Column.BUSINESS_TYPE, businessType);
+    }
+}
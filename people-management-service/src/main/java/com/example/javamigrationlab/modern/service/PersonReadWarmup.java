@@ -0,0 +1,140 @@
+package com.example.javamigrationlab.modern.service;
+
+import com.example.common.domain.*;
+import com.example.common.warmup.WarmupTask;
+import com.example.javamigrationlab.entity.PersonEntity;
+import com.example.javamigrationlab.repository.PersonStore;
+import com.example.javamigrationlab.sharding.ShardedPersonStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Exercises the {@code GET /people/{id}} path in-process: one person per {@link Person} subtype is read through the
+ * service, mapped and JSON encoded/decoded on every iteration. Existing rows are used where the table has them (e.g.
+ * after seeding). A subtype with no row gets a throwaway one, inserted and read inside a transaction that is always
+ * rolled back and dropped from the version cache, so nothing is committed, published on the change stream or added
+ * to the email filter, even if the process dies mid-warm-up. Sharded stores write outside the transaction, so there
+ * only existing rows are read.
+ */
+@Component
+public class PersonReadWarmup implements WarmupTask {
+
+    private static final String PERSON_NAME = "warmup";
+    private static final BigDecimal AMOUNT = BigDecimal.valueOf(1_000_000);
+
+    private final PersonService personService;
+    private final PersonStore personStore;
+    private final PersonVersionCache versionCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter personWriter;
+    private final ObjectReader personReader;
+
+    // Resolved on the first run
+    private List<Long> existingIds;
+    private List<Person> throwaways;
+
+    public PersonReadWarmup(PersonService personService, PersonStore personStore, PersonVersionCache versionCache,
+                            JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper) {
+        this.personService = personService;
+        this.personStore = personStore;
+        this.versionCache = versionCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.personWriter = objectMapper.writerFor(Person.class);
+        this.personReader = objectMapper.readerFor(Person.class);
+    }
+
+    @Override
+    public String name() {
+        return "person-read";
+    }
+
+    @Override
+    public void run() throws Exception {
+        if (existingIds == null) {
+            resolve();
+        }
+        for (Long id : existingIds) {
+            roundTrip(id);
+        }
+        if (!throwaways.isEmpty()) {
+            readThrowaways();
+        }
+    }
+
+    private void resolve() {
+        List<Long> ids = new ArrayList<>();
+        List<Person> missing = new ArrayList<>();
+        for (Person persona : List.of(
+                new FullTimeEmployee(null, PERSON_NAME, null, AMOUNT),
+                new Contractor(null, PERSON_NAME, null, BigDecimal.valueOf(1000), 160),
+                new SelfEmployed(null, PERSON_NAME, null, AMOUNT, "Consultant"),
+                new BusinessOwner(null, PERSON_NAME, null, AMOUNT, "Retail"))) {
+            List<PersonEntity> rows = personStore.findPage(persona.personType(), 0, 1);
+            if (rows.isEmpty()) {
+                missing.add(persona);
+            } else {
+                ids.add(rows.get(0).getId());
+            }
+        }
+        existingIds = List.copyOf(ids);
+        throwaways = personStore instanceof ShardedPersonStore ? List.of() : List.copyOf(missing);
+    }
+
+    private void readThrowaways() {
+        List<Long> ids = new ArrayList<>(throwaways.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                for (Person persona : throwaways) {
+                    ids.add(insert(persona));
+                }
+                for (Long id : ids) {
+                    roundTrip(id);
+                }
+            });
+        } finally {
+            ids.forEach(versionCache::evict);
+        }
+    }
+
+    /** Plain JDBC on the transaction's connection, so the row is read back by a real query, not the JPA session. */
+    private Long insert(Person persona) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(PopulationSeeder.INSERT_SQL, new String[]{"id"});
+            PopulationSeeder.bind(ps, persona);
+            ps.setString(2, email());
+            return ps;
+        }, keys);
+        return keys.getKeyAs(Long.class);
+    }
+
+    private void roundTrip(Long id) {
+        try {
+            personReader.readValue(personWriter.writeValueAsBytes(personService.getPerson(id)));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Person " + id + " did not survive a JSON round trip", ex);
+        }
+    }
+
+    /** The rows are never committed, but a unique email keeps concurrent warm-ups from blocking on each other. */
+    private static String email() {
+        return PERSON_NAME + "-" + UUID.randomUUID() + "@localhost";
+    }
+}
@@ -1,45 +1,253 @@
 package com.example.javamigrationlab.modern.service;
 
 import com.example.common.domain.*;
+import com.example.common.enums.PersonType;
+import com.example.common.enums.TaxRegime;
+import com.example.common.exception.DuplicateResourceException;
+import com.example.common.exception.ResourceNotFoundException;
+import com.example.common.logging.LogRateLimiter;
+import com.example.common.stream.ChangeStream;
 import com.example.javamigrationlab.entity.PersonEntity;
-import com.example.javamigrationlab.repository.PersonRepository;
+import com.example.javamigrationlab.repository.PersonChanges;
+import com.example.javamigrationlab.repository.PersonStore;
+import com.example.tax.core.TaxCalculator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class PersonService {
 
-    private final PersonRepository personRepository;
+    public static final int MAX_PAGE_SIZE = 1000;
 
-    public PersonService(PersonRepository personRepository) {
-        this.personRepository = personRepository;
+    private static final String RESOURCE = "Person";
+    private static final String UPDATED = "updated";
+    private static final String BULK_UPDATED = "bulk-updated";
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private static final LogRateLimiter FETCH_LOG_LIMITER = new LogRateLimiter(10, Duration.ofSeconds(1));
+
+    private final PersonStore personStore;
+    private final PersonWriteBatcher writeBatcher;
+    private final PersonVersionCache versionCache;
+    private final EmailRegistry emailRegistry;
+    private final TaxCalculator taxCalculator;
+    private final ChangeStream changeStream;
+
+    public PersonService(PersonStore personStore, PersonWriteBatcher writeBatcher, PersonVersionCache versionCache,
+                         EmailRegistry emailRegistry, TaxCalculator taxCalculator, ChangeStream changeStream) {
+        this.personStore = personStore;
+        this.writeBatcher = writeBatcher;
+        this.versionCache = versionCache;
+        this.emailRegistry = emailRegistry;
+        this.taxCalculator = taxCalculator;
+        this.changeStream = changeStream;
     }
 
+    /** Refuses an email that is already registered with {@link DuplicateResourceException} (409). */
     public Person createPerson(Person person) {
+        if (emailRegistry.isRegistered(person.email())) {
+            throw new DuplicateResourceException(RESOURCE, "email", person.email());
+        }
+        Person created;
+        try {
+            created = insert(person);
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent create with the same email won the race to the unique index
+            if (person.email() != null && personStore.existsByEmail(person.email())) {
+                throw new DuplicateResourceException(RESOURCE, "email", person.email(), ex);
+            }
+            throw ex;
+        }
+        emailRegistry.added(person.email());
+        changeStream.publish("created", created.id(), created);
+        return created;
+    }
+
+    /**
+     * Writes only the fields present in the patch, without loading the person, and returns the result. With
+     * {@code expectedVersion} (from {@code If-Match}) the write only happens if nobody changed the person since;
+     * otherwise {@link OptimisticLockingFailureException} (412).
+     */
+    public VersionedPerson updatePerson(Long id, PersonPatch patch, Long expectedVersion) {
+        PersonChanges changes = patch.toChanges();
+        PersonType required = changes.requiredType();
+        if (changes.isEmpty()) {
+            return getVersionedPerson(id);
+        }
+        boolean updated;
+        try {
+            updated = personStore.update(id, expectedVersion, changes);
+        } catch (DataIntegrityViolationException ex) {
+            if (patch.email() != null && personStore.existsByEmail(patch.email())) {
+                throw new DuplicateResourceException(RESOURCE, "email", patch.email(), ex);
+            }
+            throw ex;
+        }
+        if (!updated) {
+            // Nothing was read before the write, so find out now why no row matched
+            PersonEntity current = personStore.findById(id).orElseThrow(() -> {
+                versionCache.evict(id);
+                return new ResourceNotFoundException(RESOURCE, id);
+            });
+            if (required != null && current.getType() != required) {
+                throw new IllegalArgumentException("Person " + id + " is " + current.getType()
+                        + "; the patch only applies to " + required);
+            }
+            throw new OptimisticLockingFailureException("Person " + id + " is at version " + current.getVersion()
+                    + ", not " + expectedVersion);
+        }
+        emailRegistry.added(patch.email());
+        VersionedPerson current = getVersionedPerson(id);
+        changeStream.publish(UPDATED, id, current.person());
+        return current;
+    }
+
+    /**
+     * Applies one change to many people straight in the database: listed ids in JDBC batches, a whole type in
+     * set-based chunks. Versions of the touched people are bumped and dropped from the version cache.
+     */
+    public BulkUpdateResult updatePeople(BulkPersonUpdate update) {
+        PersonChanges changes = update.set() == null ? new PersonChanges() : update.set().toChanges();
+        if (update.set() != null && update.set().email() != null) {
+            throw new IllegalArgumentException("email is unique per person and cannot be set in bulk");
+        }
+        if (update.amountPercent() != null) {
+            if (update.amountPercent().compareTo(HUNDRED.negate()) <= 0) {
+                throw new IllegalArgumentException("amountPercent must be above -100, got " + update.amountPercent());
+            }
+            if (update.set() != null && update.set().amount() != null) {
+                throw new IllegalArgumentException("Give either amountPercent or set.amount, not both");
+            }
+            changes.scaleAmount(BigDecimal.ONE.add(update.amountPercent().divide(HUNDRED)));
+        }
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to update: give amountPercent or set");
+        }
+        PersonType required = changes.requiredType();
+        long start = System.nanoTime();
+        BulkUpdateResult result;
+        if (update.ids() != null && !update.ids().isEmpty()) {
+            List<Long> ids = update.ids().stream().distinct().toList();
+            long updated = personStore.updateAll(ids, changes);
+            ids.forEach(versionCache::evict);
+            result = new BulkUpdateResult(updated, ids.size() - updated);
+            // One event with the ids, not the new rows: subscribers that care re-read, and a large batch takes one
+            // slot in their buffers instead of evicting them
+            changeStream.publishAll(BULK_UPDATED, ids, Map.of("ids", ids, "updated", updated));
+        } else if (update.type() != null) {
+            if (required != null && required != update.type()) {
+                throw new IllegalArgumentException("The changes only apply to " + required + ", not " + update.type());
+            }
+            result = new BulkUpdateResult(personStore.updateByType(update.type(), changes), 0);
+            versionCache.clear();
+            changeStream.publish(BULK_UPDATED, null, Map.of("type", update.type(), "updated", result.updated()));
+        } else {
+            throw new IllegalArgumentException("Select the people to update by ids or by type");
+        }
+        if (log.isInfoEnabled()) {
+            log.info("Bulk update changed {} people ({} skipped) in {} ms", result.updated(), result.skipped(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+        return result;
+    }
+
+    /** Deletes the people and drops their cached versions; their emails stay in the filter until its next rebuild. */
+    public void deletePeople(Collection<Long> ids) {
+        personStore.deleteAllById(ids);
+        ids.forEach(versionCache::evict);
+        changeStream.publishAll("deleted", ids, Map.of("ids", List.copyOf(ids)));
+    }
+
+    public boolean isEmailRegistered(String email) {
+        return emailRegistry.isRegistered(email);
+    }
+
+    private Person insert(Person person) {
+        long generation = versionCache.generation();
         PersonEntity entity = mapToEntity(person);
-        PersonEntity savedEntity = personRepository.save(entity);
+        if (writeBatcher.isEnabled()) {
+            // Shares one INSERT batch and commit with concurrent creates
+            entity.setId(writeBatcher.insert(person));
+            versionCache.put(entity.getId(), 0, generation);
+            return mapToDomain(entity);
+        }
+        PersonEntity savedEntity = personStore.save(entity);
+        versionCache.put(savedEntity.getId(), savedEntity.getVersion(), generation);
         return mapToDomain(savedEntity);
     }
 
     public Person getPerson(Long id) {
-        log.info("Fetching person with ID: {}", id);
-        return personRepository.findById(id)
-                .map(this::mapToDomain)
-                .orElseThrow(() -> new RuntimeException("Person not found with id: " + id));
+        return getVersionedPerson(id).person();
+    }
+
+    /** Version last seen for the person, if still fresh; answers conditional reads without the database. */
+    public OptionalLong cachedVersion(Long id) {
+        return versionCache.get(id);
+    }
+
+    public VersionedPerson getVersionedPerson(Long id) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching person with ID: {}", id);
+        } else if (log.isInfoEnabled() && FETCH_LOG_LIMITER.tryAcquire()) {
+            log.info("Fetching person with ID: {} ({} similar messages suppressed)", id, FETCH_LOG_LIMITER.drainSuppressed());
+        }
+        long generation = versionCache.generation();
+        PersonLookupEvent event = new PersonLookupEvent();
+        event.begin();
+        long dbStart = System.nanoTime();
+        Optional<PersonEntity> entity = personStore.findById(id);
+        long dbTime = System.nanoTime() - dbStart;
+        Optional<VersionedPerson> person = entity.map(this::mapToVersioned);
+        event.end();
+        if (event.shouldCommit()) {
+            event.commit(id, person.isPresent(), dbTime);
+        }
+        person.ifPresentOrElse(found -> versionCache.put(id, found.version(), generation),
+                () -> versionCache.evict(id));
+        return person.orElseThrow(() -> new ResourceNotFoundException(RESOURCE, id));
     }
 
     public List<Person> getAllPeople() {
-        return personRepository.findAll().stream()
+        return personStore.findAll().stream()
                 .map(this::mapToDomain)
                 .collect(Collectors.toList());
     }
 
+    /** Every person with the tax under {@code regime}, computed in-process by the embedded tax-core calculator. */
+    public List<PersonWithTax> getAllPeopleWithTax(TaxRegime regime) {
+        return personStore.findAll().stream()
+                .map(this::mapToDomain)
+                .map(person -> new PersonWithTax(person, regime, taxCalculator.calculate(person, regime)))
+                .toList();
+    }
+
+    /** Keyset pagination by id: pass the previous page's {@code nextAfter} (0 for the first page). */
+    public PersonPage getPage(PersonType type, long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE + ", got " + limit);
+        }
+        List<PersonEntity> rows = personStore.findPage(type, after, limit);
+        Long nextAfter = rows.size() < limit ? null : rows.get(rows.size() - 1).getId();
+        return new PersonPage(rows.stream().map(this::mapToDomain).toList(), nextAfter);
+    }
+
+    public Map<PersonType, Long> countByType() {
+        return personStore.countByType();
+    }
+
     public BigDecimal calculateMonthlyIncome(Long id) {
         Person person = getPerson(id);
         return switch (person) {
@@ -79,6 +287,10 @@ public class PersonService {
         return entity;
     }
 
+    private VersionedPerson mapToVersioned(PersonEntity entity) {
+        return new VersionedPerson(mapToDomain(entity), entity.getVersion() == null ? 0 : entity.getVersion());
+    }
+
     private Person mapToDomain(PersonEntity entity) {
         return switch (entity.getType()) {
             case EMPLOYEE_FULL_TIME -> new FullTimeEmployee(
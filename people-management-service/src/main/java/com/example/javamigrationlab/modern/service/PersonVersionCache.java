@@ -0,0 +1,97 @@
+package com.example.javamigrationlab.modern.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Last version seen per person id, so a conditional {@code GET /people/{id}} whose ETag is still current can be
+ * answered with 304 without a database read. Every write through {@link PersonService} updates the entry; entries
+ * also expire after {@code max-age}, which bounds how long a write made by another instance can go unnoticed.
+ * <p>
+ * A version is only cached by whoever read or wrote it, and that can land after a newer one. Versions only grow, so
+ * an entry keeps the higher of the two. An entry that was evicted or cleared must not come back from a read that
+ * started before the write behind the eviction: callers take {@link #generation()} before touching the database and
+ * pass it to {@link #put}, which drops the version if any eviction or clear happened since. The generation is shared
+ * by all ids, so a write only costs concurrent reads of other people their caching, never correctness.
+ */
+@Component
+public class PersonVersionCache {
+
+    private final long maxAgeNanos;
+    private final Map<Long, Entry> versions;
+
+    // The generation: bumped by every evict and clear; guarded by versions
+    private long invalidations;
+
+    public PersonVersionCache(@Value("${app.people.etag-cache.max-entries:100000}") int maxEntries,
+                              @Value("${app.people.etag-cache.max-age:30s}") Duration maxAge) {
+        this.maxAgeNanos = maxAge.toNanos();
+        this.versions = boundedCache(maxEntries);
+    }
+
+    public OptionalLong get(Long id) {
+        Entry entry;
+        synchronized (versions) {
+            entry = versions.get(id);
+        }
+        if (entry == null || System.nanoTime() - entry.storedAt() > maxAgeNanos) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(entry.version());
+    }
+
+    /** Take before the database read or write whose resulting version will be {@link #put}. */
+    public long generation() {
+        synchronized (versions) {
+            return invalidations;
+        }
+    }
+
+    /**
+     * Caches {@code version} unless an eviction or clear happened after {@code generation} was taken, or a higher
+     * version is already cached.
+     */
+    public void put(Long id, long version, long generation) {
+        Entry entry = new Entry(version, System.nanoTime());
+        synchronized (versions) {
+            if (generation == invalidations) {
+                versions.merge(id, entry, (cached, fresh) -> cached.version() > fresh.version() ? cached : fresh);
+            }
+        }
+    }
+
+    /** After a write to the person that did not leave its new version at hand. */
+    public void evict(Long id) {
+        synchronized (versions) {
+            invalidations++;
+            versions.remove(id);
+        }
+    }
+
+    /** After a write that may have touched any person. */
+    public void clear() {
+        synchronized (versions) {
+            invalidations++;
+            versions.clear();
+        }
+    }
+
+    private static Map<Long, Entry> boundedCache(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private record Entry(long version, long storedAt) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.javamigrationlab.modern.service;
+
+import com.example.common.domain.Person;
+import com.example.common.domain.TaxResult;
+import com.example.common.enums.TaxRegime;
+
+/** A person with the tax computed in-process under {@code regime}, as listed by {@code GET /people?withTax=}. */
+public record PersonWithTax(Person person, TaxRegime regime, TaxResult tax) {
+}
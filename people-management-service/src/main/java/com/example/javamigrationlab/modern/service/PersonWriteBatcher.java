@@ -0,0 +1,261 @@
+package com.example.javamigrationlab.modern.service;
+
+import com.example.common.context.Deadline;
+import com.example.common.context.RequestContext;
+import com.example.common.domain.Person;
+import com.example.common.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for person inserts ({@code app.person-writes.group-commit.enabled}).
+ * <p>
+ * Callers enqueue a person and block until it is written. A single flusher takes whatever is queued, waits up to
+ * {@code max-delay} for more (never past {@code max-batch-size}) and writes the lot as one JDBC batch in one
+ * transaction, so concurrent creates share a single commit. Generated ids come back in insert order and are handed
+ * to each caller. If the batch fails, every row is retried in its own transaction so each caller gets its own id
+ * or its own error.
+ * <p>
+ * Enqueueing waits at most {@code enqueue-timeout}, and never past the request's deadline, for room in a full queue;
+ * a caller that gets none is refused (503, or 504 when its deadline ran out) instead of blocking. Inserts still
+ * queued when the batcher closes are failed rather than left waiting. Every failure of the batcher itself (stopped,
+ * interrupted, no ids from the driver) is a {@link TransientDataAccessResourceException}, answered 503, since the
+ * request was fine.
+ */
+@Slf4j
+@Component
+public final class PersonWriteBatcher implements AutoCloseable {
+
+    public static final String BATCH_SIZE = "people.write.batch.size";
+    public static final String FLUSH_TIMER = "people.write.flush";
+
+    private static final String[] GENERATED_ID = {"id"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long enqueueTimeoutNanos;
+    private final BlockingQueue<PendingInsert> queue;
+    private final Thread flusher;
+
+    private final DistributionSummary batchSizes;
+    private final Timer flushes;
+    private final Counter fallbacks;
+
+    private volatile boolean running = true;
+
+    public PersonWriteBatcher(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              @Value("${app.person-writes.group-commit.enabled:false}") boolean enabled,
+                              @Value("${app.person-writes.group-commit.max-batch-size:256}") int maxBatchSize,
+                              @Value("${app.person-writes.group-commit.max-delay:2ms}") Duration maxDelay,
+                              @Value("${app.person-writes.group-commit.queue-capacity:10000}") int queueCapacity,
+                              @Value("${app.person-writes.group-commit.enqueue-timeout:1s}") Duration enqueueTimeout,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.enqueueTimeoutNanos = enqueueTimeout.toNanos();
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder(BATCH_SIZE)
+                .description("Person inserts committed together by one group-commit flush")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.flushes = Timer.builder(FLUSH_TIMER)
+                .description("Time to write and commit one group-commit batch")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("people.write.fallback")
+                .description("Group-commit batches that failed and were retried row by row")
+                .register(meterRegistry);
+        this.flusher = Thread.ofPlatform().name("person-group-commit").daemon().unstarted(this::run);
+        if (enabled) {
+            flusher.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Queues the insert, waits for its batch to commit and returns the generated id. */
+    public long insert(Person person) {
+        if (!enabled || !running) {
+            throw new TransientDataAccessResourceException("Group commit is not accepting writes");
+        }
+        PendingInsert pending = new PendingInsert(person, new CompletableFuture<>());
+        try {
+            enqueue(pending);
+            // close() may have drained the queue between the check above and the offer; fail what nobody will take
+            if (!running && queue.remove(pending)) {
+                pending.result().completeExceptionally(stopped());
+            }
+            return pending.result().join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TransientDataAccessResourceException("Interrupted while queueing a person insert", ex);
+        } catch (CompletionException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    private void enqueue(PendingInsert pending) throws InterruptedException {
+        Deadline deadline = RequestContext.currentDeadline();
+        long budget = deadline == null ? Long.MAX_VALUE : deadline.remainingNanos();
+        if (queue.offer(pending, Math.min(enqueueTimeoutNanos, budget), TimeUnit.NANOSECONDS)) {
+            return;
+        }
+        if (budget < enqueueTimeoutNanos) {
+            throw new DeadlineExceededException("queueing a person insert");
+        }
+        throw new TransientDataAccessResourceException("Group-commit queue is full (" + queue.size() + " waiting)");
+    }
+
+    private static TransientDataAccessResourceException stopped() {
+        return new TransientDataAccessResourceException("Group commit stopped before the write");
+    }
+
+    private static RuntimeException unwrap(CompletionException ex) {
+        return ex.getCause() instanceof RuntimeException cause ? cause : ex;
+    }
+
+    private void run() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+        failPending();
+    }
+
+    /** Fails every insert still queued, so none of their callers waits for a flush that will not come. */
+    private void failPending() {
+        List<PendingInsert> orphans = new ArrayList<>();
+        queue.drainTo(orphans);
+        orphans.forEach(orphan -> orphan.result().completeExceptionally(stopped()));
+    }
+
+    private void flush(List<PendingInsert> batch) {
+        batchSizes.record(batch.size());
+        long start = System.nanoTime();
+        long[] ids;
+        try {
+            ids = write(batch);
+        } catch (RuntimeException ex) {
+            fallbacks.increment();
+            if (log.isWarnEnabled()) {
+                log.warn("Group-commit batch of {} failed ({}), retrying row by row", batch.size(), ex.toString());
+            }
+            batch.forEach(this::insertAlone);
+            return;
+        }
+        flushes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(ids[i]);
+        }
+    }
+
+    private void insertAlone(PendingInsert pending) {
+        try {
+            long[] ids = write(List.of(pending));
+            pending.result().complete(ids[0]);
+        } catch (RuntimeException ex) {
+            pending.result().completeExceptionally(ex);
+        }
+    }
+
+    /** Inserts the rows in one transaction and returns their generated ids, in order. */
+    private long[] write(List<PendingInsert> rows) {
+        long[] ids = transactionTemplate.execute(status -> jdbcTemplate.execute(insertAll(rows)));
+        if (ids == null) {
+            throw new TransientDataAccessResourceException("Batch insert returned no generated ids");
+        }
+        return ids;
+    }
+
+    private static ConnectionCallback<long[]> insertAll(List<PendingInsert> batch) {
+        return connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(PopulationSeeder.INSERT_SQL, GENERATED_ID)) {
+                for (PendingInsert pending : batch) {
+                    PopulationSeeder.bind(ps, pending.person());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                return generatedIds(ps, batch.size());
+            }
+        };
+    }
+
+    private static long[] generatedIds(PreparedStatement ps, int expected) throws SQLException {
+        long[] ids = new long[expected];
+        int count = 0;
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (keys.next() && count < expected) {
+                ids[count++] = keys.getLong(1);
+            }
+        }
+        if (count != expected) {
+            throw new SQLException("Expected " + expected + " generated ids, driver returned " + count);
+        }
+        return ids;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        if (flusher.isAlive()) {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Covers a flusher that never started or did not finish in time; whoever drains an insert completes it
+        failPending();
+    }
+
+    private record PendingInsert(Person person, CompletableFuture<Long> result) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.javamigrationlab.modern.service;
+
+import com.example.common.domain.*;
+import com.example.common.population.PopulationGenerator;
+import com.example.javamigrationlab.repository.PersonStore;
+import com.example.javamigrationlab.sharding.ShardedPersonStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Seeds the people table with {@code app.population.seed-count} synthetic people from {@link PopulationGenerator}
+ * when it is empty, so benchmarks and index tests run against the same reproducible dataset at realistic scale.
+ * Bypasses JPA: rows go through JDBC batch inserts, split into contiguous index ranges across parallel writers
+ * (each on its own pooled connection). With PostgreSQL, {@code reWriteBatchedInserts=true} on the JDBC URL turns
+ * each batch into multi-row inserts. With sharding on, each batch is split by owning shard instead.
+ * <p>
+ * Runs before any other {@link ApplicationRunner} (notably warm-up), so readiness stays down until seeding is done.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PopulationSeeder implements ApplicationRunner {
+
+    static final String INSERT_SQL = "INSERT INTO person_entity "
+            + "(name, email, type, amount, hours_worked, profession, business_type, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PersonStore personStore;
+    private final long seedCount;
+    private final PopulationGenerator generator;
+    private final int batchSize;
+    private final int writers;
+
+    public PopulationSeeder(JdbcTemplate jdbcTemplate, PersonStore personStore,
+                            @Value("${app.population.seed-count:0}") long seedCount,
+                            @Value("${app.population.seed:42}") long seed,
+                            @Value("${app.population.batch-size:1000}") int batchSize,
+                            @Value("${app.population.writers:4}") int writers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.personStore = personStore;
+        this.seedCount = seedCount;
+        this.generator = new PopulationGenerator(seed);
+        this.batchSize = batchSize;
+        this.writers = writers;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (seedCount <= 0) {
+            return;
+        }
+        long existing = personStore.count();
+        if (existing > 0) {
+            log.info("Skipping population seeding: person_entity already has {} rows", existing);
+            return;
+        }
+        long start = System.nanoTime();
+        seed(seedCount);
+        if (log.isInfoEnabled()) {
+            long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.info("Seeded {} synthetic people in {} ms ({} rows/s)", seedCount, millis, seedCount * 1000 / millis);
+        }
+    }
+
+    /** Inserts people {@code 0 .. count-1}. */
+    public void seed(long count) throws InterruptedException, ExecutionException {
+        long chunk = (count + writers - 1) / writers;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long from = 0; from < count; from += chunk) {
+                long rangeStart = from;
+                long rangeEnd = Math.min(count, from + chunk);
+                futures.add(executor.submit(() -> insertRange(rangeStart, rangeEnd)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private void insertRange(long from, long to) {
+        for (long batchStart = from; batchStart < to; batchStart += batchSize) {
+            List<Person> batch = LongStream.range(batchStart, Math.min(to, batchStart + batchSize))
+                    .mapToObj(generator::person)
+                    .toList();
+            if (personStore instanceof ShardedPersonStore) {
+                ((ShardedPersonStore) personStore).insertAll(batch);
+            } else {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), PopulationSeeder::bind);
+            }
+        }
+    }
+
+    public static void bind(PreparedStatement ps, Person person) throws SQLException {
+        ps.setString(1, person.name());
+        ps.setString(2, person.email());
+        ps.setString(3, person.personType().name());
+        ps.setNull(5, Types.INTEGER);
+        ps.setNull(6, Types.VARCHAR);
+        ps.setNull(7, Types.VARCHAR);
+        if (person instanceof FullTimeEmployee e) {
+            ps.setBigDecimal(4, e.annualSalary());
+        } else if (person instanceof Contractor c) {
+            ps.setBigDecimal(4, c.hourlyRate());
+            ps.setInt(5, c.hoursWorked());
+        } else if (person instanceof SelfEmployed s) {
+            ps.setBigDecimal(4, s.annualTurnover());
+            ps.setString(6, s.profession());
+        } else if (person instanceof BusinessOwner b) {
+            ps.setBigDecimal(4, b.annualBusinessTurnover());
+            ps.setString(7, b.businessType());
+        }
+    }
+}
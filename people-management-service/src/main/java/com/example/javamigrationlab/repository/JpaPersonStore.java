@@ -0,0 +1,107 @@
+package com.example.javamigrationlab.repository;
+
+import com.example.common.enums.PersonType;
+import com.example.javamigrationlab.entity.PersonEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * {@link PersonStore} over the single JPA datasource. Updates go through JDBC on the same datasource, so they never
+ * load entities into the persistence context and write only the changed columns.
+ */
+public class JpaPersonStore implements PersonStore {
+
+    static final int EMAIL_BATCH_SIZE = 10_000;
+
+    private final PersonRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public JpaPersonStore(PersonRepository repository, JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public PersonEntity save(PersonEntity entity) {
+        return repository.save(entity);
+    }
+
+    @Override
+    public Optional<PersonEntity> findById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public boolean update(long id, Long expectedVersion, PersonChanges changes) {
+        return changes.applyTo(jdbcTemplate, id, expectedVersion);
+    }
+
+    @Override
+    public long updateAll(Collection<Long> ids, PersonChanges changes) {
+        return changes.applyToAll(jdbcTemplate, ids);
+    }
+
+    @Override
+    public long updateByType(PersonType type, PersonChanges changes) {
+        return changes.applyToType(jdbcTemplate, type);
+    }
+
+    @Override
+    public List<PersonEntity> findAll() {
+        return repository.findAll(Sort.by(PersonRepository.ID));
+    }
+
+    @Override
+    public List<PersonEntity> findPage(PersonType type, long afterId, int limit) {
+        return type == null
+                ? repository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit))
+                : repository.findByTypeAndIdGreaterThanOrderByIdAsc(type, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public Map<PersonType, Long> countByType() {
+        Map<PersonType, Long> counts = new EnumMap<>(PersonType.class);
+        for (PersonRepository.TypeCount row : repository.countGroupedByType()) {
+            counts.put(row.getType(), row.getPeople());
+        }
+        return counts;
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return repository.existsByEmail(email);
+    }
+
+    @Override
+    public void forEachEmail(Consumer<String> action) {
+        long after = 0;
+        List<PersonRepository.IdAndEmail> batch;
+        do {
+            batch = repository.findEmailsAfter(after, Limit.of(EMAIL_BATCH_SIZE));
+            for (PersonRepository.IdAndEmail row : batch) {
+                if (row.getEmail() != null) {
+                    action.accept(row.getEmail());
+                }
+                after = row.getId();
+            }
+        } while (batch.size() == EMAIL_BATCH_SIZE);
+    }
+
+    @Override
+    public void deleteAllById(Iterable<Long> ids) {
+        repository.deleteAllById(ids);
+    }
+}
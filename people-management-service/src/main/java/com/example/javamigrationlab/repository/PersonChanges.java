@@ -0,0 +1,207 @@
+package com.example.javamigrationlab.repository;
+
+import com.example.common.enums.PersonType;
+import org.springframework.jdbc.core.ArgumentTypePreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * The columns an update changes, so the {@code UPDATE} names only those (plus the version bump) instead of writing
+ * every column of a loaded entity. The amount can instead be scaled in the database ({@link #scaleAmount}), which is
+ * what a salary revision across many rows needs.
+ * <p>
+ * A type-specific column (hours worked, profession, business type) restricts the update to people of that type;
+ * rows of another type are left alone and do not count as updated.
+ * <p>
+ * The {@code apply} methods run the statements on one database without reading any row first; bulk updates commit
+ * chunk by chunk, so a failure part-way leaves the earlier chunks applied.
+ */
+public final class PersonChanges {
+
+    /** Rows per statement batch or per set-based statement in bulk updates. */
+    public static final int CHUNK_SIZE = 1_000;
+
+    private static final String TABLE = "person_entity";
+
+    private final Map<Column, Object> values = new EnumMap<>(Column.class);
+    private BigDecimal amountFactor;
+
+    public PersonChanges set(Column column, Object value) {
+        if (value != null) {
+            values.put(column, value);
+        }
+        return this;
+    }
+
+    /** {@code amount = ROUND(amount * factor, 2)}; cannot be combined with setting the amount. */
+    public PersonChanges scaleAmount(BigDecimal factor) {
+        amountFactor = factor;
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty() && amountFactor == null;
+    }
+
+    public Object value(Column column) {
+        return values.get(column);
+    }
+
+    /** The type every updated row must have, or null when only common columns change. */
+    public PersonType requiredType() {
+        PersonType required = null;
+        for (Column column : values.keySet()) {
+            if (column.onlyFor != null) {
+                if (required != null && required != column.onlyFor) {
+                    throw new IllegalArgumentException("Cannot change " + column.property + " together with fields of "
+                            + required + " people");
+                }
+                required = column.onlyFor;
+            }
+        }
+        return required;
+    }
+
+    /** One person, only if still at {@code expectedVersion} when that is given; true if the row was updated. */
+    public boolean applyTo(JdbcTemplate jdbc, long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return jdbc.update(updateSql("id = ?"), arguments(id), argumentTypes(Types.BIGINT)) > 0;
+        }
+        return jdbc.update(updateSql("id = ? AND version = ?"), arguments(id, expectedVersion),
+                argumentTypes(Types.BIGINT, Types.BIGINT)) > 0;
+    }
+
+    /** One statement per id, sent as JDBC batches of {@link #CHUNK_SIZE}; returns the rows updated. */
+    public long applyToAll(JdbcTemplate jdbc, Collection<Long> ids) {
+        String sql = updateSql("id = ?");
+        int[] types = argumentTypes(Types.BIGINT);
+        int[][] counts = jdbc.batchUpdate(sql, ids, CHUNK_SIZE,
+                (ps, id) -> new ArgumentTypePreparedStatementSetter(arguments(id), types).setValues(ps));
+        long updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated += Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Every person of the type, or everyone when null: one set-based statement per id range of {@link #CHUNK_SIZE}
+     * rows, the range found by a keyset probe for its upper bound. Returns the rows updated.
+     */
+    public long applyToType(JdbcTemplate jdbc, PersonType type) {
+        String filter = type == null ? "" : "type = ? AND ";
+        String probe = "SELECT id FROM " + TABLE + " WHERE " + filter + "id > ? ORDER BY id LIMIT 1 OFFSET ?";
+        long after = 0;
+        long updated = 0;
+        while (true) {
+            Long upper = jdbc.queryForList(probe, Long.class, withType(type, after, CHUNK_SIZE - 1))
+                    .stream().findFirst().orElse(null);
+            if (upper == null) {
+                return updated + jdbc.update(updateSql(filter + "id > ?"), arguments(withType(type, after)),
+                        argumentTypes(withTypeTypes(type, Types.BIGINT)));
+            }
+            updated += jdbc.update(updateSql(filter + "id > ? AND id <= ?"), arguments(withType(type, after, upper)),
+                    argumentTypes(withTypeTypes(type, Types.BIGINT, Types.BIGINT)));
+            after = upper;
+        }
+    }
+
+    /**
+     * {@code UPDATE person_entity SET <changed columns>, version = version + 1 WHERE <where>}, plus the type
+     * restriction when there is one. The parameters are {@link #arguments} followed by the caller's own.
+     */
+    private String updateSql(String where) {
+        if (values.containsKey(Column.AMOUNT) && amountFactor != null) {
+            throw new IllegalArgumentException("Set the amount or scale it, not both");
+        }
+        StringJoiner set = new StringJoiner(", ");
+        values.keySet().forEach(column -> set.add(column.columnName + " = ?"));
+        if (amountFactor != null) {
+            set.add("amount = ROUND(amount * ?, 2)");
+        }
+        set.add("version = version + 1");
+        String sql = "UPDATE " + TABLE + " SET " + set + " WHERE " + where;
+        return requiredType() == null ? sql : sql + " AND type = ?";
+    }
+
+    /** Values for the placeholders of {@link #updateSql}, with {@code whereArgs} in place of the caller's. */
+    private Object[] arguments(Object... whereArgs) {
+        List<Object> args = new ArrayList<>(values.values());
+        if (amountFactor != null) {
+            args.add(amountFactor);
+        }
+        args.addAll(List.of(whereArgs));
+        PersonType required = requiredType();
+        if (required != null) {
+            args.add(required.name());
+        }
+        return args.toArray();
+    }
+
+    /** SQL types matching {@link #arguments}; {@code whereTypes} describe the caller's placeholders. */
+    private int[] argumentTypes(int... whereTypes) {
+        List<Integer> types = new ArrayList<>();
+        values.keySet().forEach(column -> types.add(column.sqlType));
+        if (amountFactor != null) {
+            types.add(Types.NUMERIC);
+        }
+        for (int type : whereTypes) {
+            types.add(type);
+        }
+        if (requiredType() != null) {
+            types.add(Types.VARCHAR);
+        }
+        return types.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Object[] withType(PersonType type, Object... args) {
+        if (type == null) {
+            return args;
+        }
+        Object[] all = new Object[args.length + 1];
+        all[0] = type.name();
+        System.arraycopy(args, 0, all, 1, args.length);
+        return all;
+    }
+
+    private static int[] withTypeTypes(PersonType type, int... types) {
+        if (type == null) {
+            return types;
+        }
+        int[] all = new int[types.length + 1];
+        all[0] = Types.VARCHAR;
+        System.arraycopy(types, 0, all, 1, types.length);
+        return all;
+    }
+
+    public enum Column {
+        NAME("name", "name", Types.VARCHAR, null),
+        EMAIL("email", "email", Types.VARCHAR, null),
+        AMOUNT("amount", "amount", Types.NUMERIC, null),
+        HOURS_WORKED("hours_worked", "hoursWorked", Types.INTEGER, PersonType.EMPLOYEE_CONTRACTOR),
+        PROFESSION("profession", "profession", Types.VARCHAR, PersonType.SELF_EMPLOYED),
+        BUSINESS_TYPE("business_type", "businessType", Types.VARCHAR, PersonType.BUSINESS_OWNER);
+
+        private final String columnName;
+        private final String property;
+        private final int sqlType;
+        private final PersonType onlyFor;
+
+        Column(String columnName, String property, int sqlType, PersonType onlyFor) {
+            this.columnName = columnName;
+            this.property = property;
+            this.sqlType = sqlType;
+            this.onlyFor = onlyFor;
+        }
+    }
+}
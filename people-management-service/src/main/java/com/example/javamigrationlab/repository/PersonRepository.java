@@ -1,9 +1,41 @@
 package com.example.javamigrationlab.repository;
 
+import com.example.common.enums.PersonType;
 import com.example.javamigrationlab.entity.PersonEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface PersonRepository extends JpaRepository<PersonEntity, Long> {
+
+    String ID = "id";
+
+    List<PersonEntity> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    List<PersonEntity> findByTypeAndIdGreaterThanOrderByIdAsc(PersonType type, Long afterId, Limit limit);
+
+    boolean existsByEmail(String email);
+
+    @Query("SELECT p.id AS id, p.email AS email FROM PersonEntity p WHERE p.id > :afterId ORDER BY p.id")
+    List<IdAndEmail> findEmailsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT p.type AS type, COUNT(p) AS people FROM PersonEntity p GROUP BY p.type")
+    List<TypeCount> countGroupedByType();
+
+    interface TypeCount {
+        PersonType getType();
+
+        long getPeople();
+    }
+
+    interface IdAndEmail {
+        Long getId();
+
+        String getEmail();
+    }
 }
@@ -0,0 +1,53 @@
+package com.example.javamigrationlab.repository;
+
+import com.example.common.enums.PersonType;
+import com.example.javamigrationlab.entity.PersonEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage of person records, independent of how many databases hold them: {@link JpaPersonStore} for the single
+ * datasource, {@code ShardedPersonStore} when {@code app.people.sharding.enabled=true}.
+ */
+public interface PersonStore {
+
+    /** Inserts when the id is null, otherwise updates, failing if the version no longer matches. */
+    PersonEntity save(PersonEntity entity);
+
+    Optional<PersonEntity> findById(Long id);
+
+    /**
+     * Writes only the changed columns of one person, without reading it, and only while it is still at
+     * {@code expectedVersion} when that is given. False if no row matched.
+     */
+    boolean update(long id, Long expectedVersion, PersonChanges changes);
+
+    /** Applies the same changes to every listed person in JDBC batches; returns the rows updated. */
+    long updateAll(Collection<Long> ids, PersonChanges changes);
+
+    /** Applies the changes to every person of the type (everyone when null) in set-based chunks. */
+    long updateByType(PersonType type, PersonChanges changes);
+
+    /** Every person, ordered by id. */
+    List<PersonEntity> findAll();
+
+    /**
+     * Keyset page: up to {@code limit} people with an id above {@code afterId}, ordered by id, optionally of one type.
+     */
+    List<PersonEntity> findPage(PersonType type, long afterId, int limit);
+
+    Map<PersonType, Long> countByType();
+
+    long count();
+
+    boolean existsByEmail(String email);
+
+    /** Hands every stored email to {@code action}, a batch at a time, never holding the whole table in memory. */
+    void forEachEmail(Consumer<String> action);
+
+    void deleteAllById(Iterable<Long> ids);
+}
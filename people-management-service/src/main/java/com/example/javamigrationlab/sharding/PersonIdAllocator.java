@@ -0,0 +1,64 @@
+package com.example.javamigrationlab.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Globally unique person ids for a sharded store, allocated hi/lo style: one sequence on the first shard hands out
+ * blocks of {@code blockSize} ids ({@code INCREMENT BY blockSize}), and ids inside a block are handed out locally.
+ * One sequence round trip per block keeps the first shard off the write path. Ids left in a block at shutdown are
+ * skipped, never reused.
+ * <p>
+ * Every instance must use the sequence's own increment as its block size: an instance with a larger block would hand
+ * out ids from the next instance's block. {@code CREATE SEQUENCE IF NOT EXISTS} keeps an existing sequence as it is,
+ * so start-up reads the increment back and refuses to run with a different {@code blockSize}.
+ */
+final class PersonIdAllocator {
+
+    static final String SEQUENCE = "person_id_seq";
+
+    private static final String INCREMENT_SQL =
+            "SELECT increment FROM information_schema.sequences WHERE LOWER(sequence_name) = ?";
+
+    // A lock rather than synchronized: the refill is JDBC I/O and must not pin a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final JdbcTemplate sequenceShard;
+    private final String nextBlockSql;
+    private final int blockSize;
+    private long next;
+    private long blockEnd;
+
+    PersonIdAllocator(JdbcTemplate sequenceShard, boolean postgres, int blockSize) {
+        this.sequenceShard = sequenceShard;
+        this.blockSize = blockSize;
+        this.nextBlockSql = postgres ? "SELECT nextval('" + SEQUENCE + "')" : "SELECT NEXT VALUE FOR " + SEQUENCE;
+        sequenceShard.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE
+                + " START WITH 1 INCREMENT BY " + blockSize);
+        // information_schema reports the increment as a number on H2 and as text on PostgreSQL
+        String increment = sequenceShard.queryForObject(INCREMENT_SQL, String.class, SEQUENCE);
+        if (increment == null || Long.parseLong(increment.trim()) != blockSize) {
+            throw new IllegalStateException("Sequence " + SEQUENCE + " increments by " + increment
+                    + " but app.people.sharding.id-block-size is " + blockSize + "; use the same block size "
+                    + "everywhere, or stop every writer and ALTER SEQUENCE " + SEQUENCE + " RESTART WITH (its "
+                    + "current value plus the old increment) INCREMENT BY " + blockSize);
+        }
+    }
+
+    long nextId() {
+        lock.lock();
+        try {
+            if (next >= blockEnd) {
+                Long blockStart = sequenceShard.queryForObject(nextBlockSql, Long.class);
+                if (blockStart == null) {
+                    throw new IllegalStateException("Sequence " + SEQUENCE + " returned no value");
+                }
+                next = blockStart;
+                blockEnd = blockStart + blockSize;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
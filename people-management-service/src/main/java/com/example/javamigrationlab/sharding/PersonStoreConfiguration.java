@@ -0,0 +1,46 @@
+package com.example.javamigrationlab.sharding;
+
+import com.example.javamigrationlab.repository.JpaPersonStore;
+import com.example.javamigrationlab.repository.PersonRepository;
+import com.example.javamigrationlab.repository.PersonStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Chooses where people live. By default the JPA repository on the application datasource; with
+ * {@code app.people.sharding.enabled=true}, a {@link ShardedPersonStore} over {@code app.people.sharding.urls}.
+ * The flag is read at runtime rather than through a condition, so an AOT-processed build can still switch.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class PersonStoreConfiguration {
+
+    @Bean
+    public PersonStore personStore(PersonRepository personRepository, JdbcTemplate jdbcTemplate,
+                                   @Value("${app.people.sharding.enabled:false}") boolean sharded,
+                                   @Value("${app.people.sharding.urls:}") List<String> urls,
+                                   @Value("${app.people.sharding.username:sa}") String username,
+                                   @Value("${app.people.sharding.password:}") String password,
+                                   @Value("${app.people.sharding.pool-size:10}") int poolSize,
+                                   @Value("${app.people.sharding.id-block-size:1000}") int idBlockSize,
+                                   @Value("${app.person-writes.group-commit.enabled:false}") boolean groupCommit,
+                                   MeterRegistry meterRegistry) {
+        if (!sharded) {
+            return new JpaPersonStore(personRepository, jdbcTemplate);
+        }
+        if (groupCommit) {
+            throw new IllegalStateException("Group commit writes to the application datasource only; "
+                    + "disable app.person-writes.group-commit.enabled when sharding");
+        }
+        if (log.isInfoEnabled()) {
+            log.info("People are hash-partitioned across {} shards", urls.size());
+        }
+        return ShardedPersonStore.connect(urls, username, password, poolSize, idBlockSize, meterRegistry);
+    }
+}
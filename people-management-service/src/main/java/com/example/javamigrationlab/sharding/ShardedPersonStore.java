@@ -0,0 +1,486 @@
+package com.example.javamigrationlab.sharding;
+
+import com.example.common.context.DeadlineDataSource;
+import com.example.common.context.RequestContext;
+import com.example.common.domain.Person;
+import com.example.common.enums.PersonType;
+import com.example.javamigrationlab.entity.PersonEntity;
+import com.example.javamigrationlab.modern.service.PopulationSeeder;
+import com.example.javamigrationlab.repository.PersonChanges;
+import com.example.javamigrationlab.repository.PersonStore;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@link PersonStore} hash-partitioned by id across several databases ({@code app.people.sharding.urls}).
+ * <p>
+ * Ids come from a {@link PersonIdAllocator} and decide the owning shard, so point reads, updates and deletes touch
+ * exactly one database. Everything else (listing, keyset pages, counts) runs on every shard in parallel as structured
+ * subtasks on virtual threads; ordered results are merged by id, taking only as many rows from each shard as the
+ * page needs. Bulk updates by id are grouped by owning shard and batched there; updates by type run on every
+ * shard at once. Each shard holds the same {@code person_entity} table, created on start-up if missing.
+ * <p>
+ * A unique index on one shard cannot see the others, so emails are claimed in a {@code person_email} table
+ * partitioned by the email's hash: the claim row is inserted on its shard before the person is written, and a second
+ * claim of the same email fails there with a duplicate key, whichever shards the two people hash to. Changing an
+ * email claims the new one before releasing the old; deleting a person releases its claim. On start-up, stored
+ * people without a claim are claimed, and the store refuses to start if two of them share an email. A crash between
+ * the claim and the person write leaves a claim without a person, which blocks that email until the row is deleted.
+ */
+public final class ShardedPersonStore implements PersonStore, AutoCloseable {
+
+    public static final String FANOUT_TIMER = "people.shard.fanout";
+
+    private static final int MIN_SHARDS = 2;
+
+    private static final String COLUMN_LIST = "name, email, type, amount, hours_worked, profession, business_type";
+    private static final String SELECT = "SELECT id, " + COLUMN_LIST + ", version FROM person_entity";
+    private static final String ORDER_BY_ID = " ORDER BY id";
+    private static final String INSERT_SQL = "INSERT INTO person_entity (" + COLUMN_LIST + ", version, id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?)";
+    private static final String UPDATE_SQL = "UPDATE person_entity SET name = ?, email = ?, type = ?, amount = ?, "
+            + "hours_worked = ?, profession = ?, business_type = ?, version = version + 1 WHERE id = ? AND version = ?";
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS person_entity ("
+            + "id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255), type VARCHAR(32), amount NUMERIC(38, 2), "
+            + "hours_worked INTEGER, profession VARCHAR(255), business_type VARCHAR(255), "
+            + "version BIGINT DEFAULT 0 NOT NULL)";
+    private static final String CREATE_TYPE_INDEX =
+            "CREATE INDEX IF NOT EXISTS person_entity_type_id ON person_entity (type, id)";
+    private static final String CREATE_EMAIL_INDEX =
+            "CREATE UNIQUE INDEX IF NOT EXISTS person_entity_email ON person_entity (email)";
+    private static final String CREATE_CLAIM_TABLE = "CREATE TABLE IF NOT EXISTS person_email ("
+            + "email VARCHAR(255) PRIMARY KEY, id BIGINT NOT NULL)";
+    private static final String CLAIM_SQL = "INSERT INTO person_email (email, id) VALUES (?, ?)";
+    private static final String RELEASE_SQL = "DELETE FROM person_email WHERE email = ? AND id = ?";
+    private static final String COUNT_CLAIMS = "SELECT COUNT(*) FROM person_email";
+    private static final String COUNT_EMAILS = "SELECT COUNT(email) FROM person_entity";
+    private static final String EMAIL_OF = "SELECT email FROM person_entity WHERE id = ?";
+    private static final int EMAIL_BATCH_SIZE = 10_000;
+    private static final int[] COLUMN_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.NUMERIC, Types.INTEGER, Types.VARCHAR, Types.VARCHAR};
+    private static final RowMapper<PersonEntity> ROW_MAPPER = (rs, row) -> mapRow(rs);
+
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> shards;
+    private final PersonIdAllocator ids;
+    private final Timer fanOutTimer;
+
+    public ShardedPersonStore(List<DataSource> dataSources, int idBlockSize, MeterRegistry meterRegistry) {
+        if (dataSources.size() < MIN_SHARDS) {
+            throw new IllegalArgumentException("Sharding needs at least two datasources, got " + dataSources.size());
+        }
+        this.dataSources = List.copyOf(dataSources);
+        // The shard pools are not beans, so the request-deadline query timeouts are applied here
+        this.shards = this.dataSources.stream().map(pool -> new JdbcTemplate(new DeadlineDataSource(pool))).toList();
+        shards.forEach(shard -> {
+            shard.execute(CREATE_TABLE);
+            shard.execute(CREATE_TYPE_INDEX);
+            shard.execute(CREATE_EMAIL_INDEX);
+            shard.execute(CREATE_CLAIM_TABLE);
+        });
+        JdbcTemplate first = shards.get(0);
+        boolean postgres = Boolean.TRUE.equals(first.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+        this.ids = new PersonIdAllocator(first, postgres, idBlockSize);
+        this.fanOutTimer = Timer.builder(FANOUT_TIMER)
+                .description("Time for a query to run on every shard and be merged")
+                .tag("shards", String.valueOf(shards.size()))
+                .register(meterRegistry);
+        claimUnclaimedEmails();
+    }
+
+    /** One Hikari pool per JDBC URL; the store closes them. */
+    public static ShardedPersonStore connect(List<String> urls, String username, String password, int poolSize,
+                                             int idBlockSize, MeterRegistry meterRegistry) {
+        List<DataSource> pools = IntStream.range(0, urls.size()).<DataSource>mapToObj(i -> {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("people-shard-" + i);
+            pool.setJdbcUrl(urls.get(i));
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(poolSize);
+            return pool;
+        }).toList();
+        return new ShardedPersonStore(pools, idBlockSize, meterRegistry);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /** Owning shard of an id: a 64-bit finalizer spreads sequential ids evenly. */
+    public int shardOf(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return Math.floorMod(h, shards.size());
+    }
+
+    private JdbcTemplate owner(long id) {
+        return shards.get(shardOf(id));
+    }
+
+    /** Shard holding the claim of an email; {@link String#hashCode} is the same on every JVM. */
+    private JdbcTemplate claimShard(String email) {
+        return shards.get(shardOf(email.hashCode()));
+    }
+
+    /** Fails with a duplicate key if another person holds the email; null emails are not unique and not claimed. */
+    private void claim(String email, long id) {
+        if (email != null) {
+            claimShard(email).update(CLAIM_SQL, email, id);
+        }
+    }
+
+    private void release(String email, long id) {
+        if (email != null) {
+            claimShard(email).update(RELEASE_SQL, email, id);
+        }
+    }
+
+    /**
+     * Runs a write that sets the person's email to {@code email}: the new email is claimed first, then whichever of
+     * the old and new email the person does not have afterwards is released.
+     */
+    private boolean changingEmail(long id, String email, BooleanSupplier write) {
+        String previous = owner(id).queryForList(EMAIL_OF, String.class, id).stream()
+                .filter(Objects::nonNull).findFirst().orElse(null);
+        if (Objects.equals(previous, email)) {
+            return write.getAsBoolean();
+        }
+        claim(email, id);
+        boolean written = false;
+        try {
+            written = write.getAsBoolean();
+            return written;
+        } finally {
+            release(written ? previous : email, id);
+        }
+    }
+
+    @Override
+    public PersonEntity save(PersonEntity entity) {
+        if (entity.getId() == null) {
+            long id = ids.nextId();
+            claim(entity.getEmail(), id);
+            try {
+                owner(id).update(INSERT_SQL, withTrailing(columnValues(entity), id), withTrailingTypes(Types.BIGINT));
+            } catch (RuntimeException ex) {
+                release(entity.getEmail(), id);
+                throw ex;
+            }
+            entity.setId(id);
+            entity.setVersion(0L);
+            return entity;
+        }
+        long version = entity.getVersion() == null ? 0 : entity.getVersion();
+        boolean updated = changingEmail(entity.getId(), entity.getEmail(), () -> owner(entity.getId()).update(
+                UPDATE_SQL, withTrailing(columnValues(entity), entity.getId(), version),
+                withTrailingTypes(Types.BIGINT, Types.BIGINT)) > 0);
+        if (!updated) {
+            throw new OptimisticLockingFailureException(
+                    "Person " + entity.getId() + " was changed or deleted since version " + version);
+        }
+        entity.setVersion(version + 1);
+        return entity;
+    }
+
+    @Override
+    public boolean update(long id, Long expectedVersion, PersonChanges changes) {
+        Object email = changes.value(PersonChanges.Column.EMAIL);
+        if (email == null) {
+            return changes.applyTo(owner(id), id, expectedVersion);
+        }
+        return changingEmail(id, (String) email, () -> changes.applyTo(owner(id), id, expectedVersion));
+    }
+
+    @Override
+    public long updateAll(Collection<Long> idsToUpdate, PersonChanges changes) {
+        List<List<Long>> byShard = new ArrayList<>();
+        shards.forEach(shard -> byShard.add(new ArrayList<>()));
+        idsToUpdate.forEach(id -> byShard.get(shardOf(id)).add(id));
+        return onEveryShard(shard -> changes.applyToAll(shard, byShard.get(shards.indexOf(shard))))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public long updateByType(PersonType type, PersonChanges changes) {
+        return onEveryShard(shard -> changes.applyToType(shard, type)).stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Bulk insert for seeding: allocates ids, claims the emails, then one JDBC batch per shard, written in parallel.
+     */
+    public void insertAll(List<Person> people) {
+        List<List<Object[]>> byShard = new ArrayList<>();
+        List<List<EmailClaim>> claims = new ArrayList<>();
+        shards.forEach(shard -> {
+            byShard.add(new ArrayList<>());
+            claims.add(new ArrayList<>());
+        });
+        for (Person person : people) {
+            long id = ids.nextId();
+            byShard.get(shardOf(id)).add(new Object[] {person, id});
+            if (person.email() != null) {
+                claims.get(shardOf(person.email().hashCode())).add(new EmailClaim(person.email(), id));
+            }
+        }
+        onEveryShard(shard -> insertClaims(shard, claims.get(shards.indexOf(shard))));
+        onEveryShard(shard -> {
+            List<Object[]> rows = byShard.get(shards.indexOf(shard));
+            return shard.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                PopulationSeeder.bind(ps, (Person) row[0]);
+                ps.setLong(8, (Long) row[1]);
+            });
+        });
+    }
+
+    @Override
+    public Optional<PersonEntity> findById(Long id) {
+        return owner(id).query(SELECT + " WHERE id = ?", ROW_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public List<PersonEntity> findAll() {
+        return mergeById(onEveryShard(shard -> shard.query(SELECT + ORDER_BY_ID, ROW_MAPPER)), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<PersonEntity> findPage(PersonType type, long afterId, int limit) {
+        // Each shard returns its own first `limit` rows past the cursor; the global page is within their union
+        List<List<PersonEntity>> pages = onEveryShard(shard -> type == null
+                ? shard.query(SELECT + " WHERE id > ?" + ORDER_BY_ID + " LIMIT ?", ROW_MAPPER, afterId, limit)
+                : shard.query(SELECT + " WHERE type = ? AND id > ?" + ORDER_BY_ID + " LIMIT ?", ROW_MAPPER,
+                        type.name(), afterId, limit));
+        return mergeById(pages, limit);
+    }
+
+    @Override
+    public Map<PersonType, Long> countByType() {
+        Map<PersonType, Long> totals = new EnumMap<>(PersonType.class);
+        onEveryShard(shard -> shard.query("SELECT type, COUNT(*) AS people FROM person_entity GROUP BY type",
+                (rs, row) -> Map.entry(PersonType.valueOf(rs.getString("type")), rs.getLong("people"))))
+                .forEach(rows -> rows.forEach(entry -> totals.merge(entry.getKey(), entry.getValue(), Long::sum)));
+        return totals;
+    }
+
+    @Override
+    public long count() {
+        return onEveryShard(shard -> shard.queryForObject("SELECT COUNT(*) FROM person_entity", Long.class))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        // One shard holds the claim, so this is a point lookup rather than a fan-out
+        return email != null && count(claimShard(email), COUNT_CLAIMS + " WHERE email = ?", email) > 0;
+    }
+
+    @Override
+    public void forEachEmail(Consumer<String> action) {
+        forEachEmailBatch(batch -> batch.forEach(claim -> action.accept(claim.email())));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<Long> idsToDelete) {
+        for (Long id : idsToDelete) {
+            JdbcTemplate owner = owner(id);
+            List<String> emails = owner.queryForList(EMAIL_OF, String.class, id);
+            owner.update("DELETE FROM person_entity WHERE id = ?", id);
+            emails.forEach(email -> release(email, id));
+        }
+    }
+
+    /** Hands every stored non-null email with its person's id to {@code action}, a keyset batch per shard at a time. */
+    private void forEachEmailBatch(Consumer<List<EmailClaim>> action) {
+        for (JdbcTemplate shard : shards) {
+            long[] after = {0};
+            int[] rows = {0};
+            do {
+                List<EmailClaim> batch = new ArrayList<>(EMAIL_BATCH_SIZE);
+                rows[0] = 0;
+                shard.query("SELECT id, email FROM person_entity WHERE id > ?" + ORDER_BY_ID + " LIMIT ?",
+                        (RowCallbackHandler) rs -> {
+                            after[0] = rs.getLong("id");
+                            rows[0]++;
+                            String email = rs.getString("email");
+                            if (email != null) {
+                                batch.add(new EmailClaim(email, after[0]));
+                            }
+                        }, after[0], EMAIL_BATCH_SIZE);
+                action.accept(batch);
+            } while (rows[0] == EMAIL_BATCH_SIZE);
+        }
+    }
+
+    /**
+     * Claims the emails of stored people that have no claim yet (rows written before the claim table existed, or a
+     * backfill cut short). Two people with one email would make uniqueness unenforceable, so start-up fails then.
+     */
+    private void claimUnclaimedEmails() {
+        long claimed = shards.stream().mapToLong(shard -> count(shard, COUNT_CLAIMS)).sum();
+        long emails = shards.stream().mapToLong(shard -> count(shard, COUNT_EMAILS)).sum();
+        if (claimed >= emails) {
+            return;
+        }
+        forEachEmailBatch(batch -> {
+            Map<Integer, List<EmailClaim>> byClaimShard = batch.stream()
+                    .collect(Collectors.groupingBy(claim -> shardOf(claim.email().hashCode())));
+            byClaimShard.forEach((index, group) -> {
+                for (int from = 0; from < group.size(); from += PersonChanges.CHUNK_SIZE) {
+                    claimMissing(shards.get(index),
+                            group.subList(from, Math.min(group.size(), from + PersonChanges.CHUNK_SIZE)));
+                }
+            });
+        });
+    }
+
+    private static void claimMissing(JdbcTemplate shard, List<EmailClaim> claims) {
+        Map<String, Long> holders = new HashMap<>();
+        shard.query("SELECT email, id FROM person_email WHERE email IN ("
+                        + String.join(", ", Collections.nCopies(claims.size(), "?")) + ")",
+                (RowCallbackHandler) rs -> holders.put(rs.getString("email"), rs.getLong("id")),
+                claims.stream().map(EmailClaim::email).toArray());
+        List<EmailClaim> missing = new ArrayList<>();
+        for (EmailClaim claim : claims) {
+            Long holder = holders.get(claim.email());
+            if (holder == null) {
+                missing.add(claim);
+            } else if (holder != claim.id()) {
+                throw new IllegalStateException("People " + holder + " and " + claim.id() + " share the email "
+                        + claim.email() + " on different shards; remove the duplicate before starting");
+            }
+        }
+        insertClaims(shard, missing);
+    }
+
+    private static long count(JdbcTemplate shard, String sql, Object... args) {
+        Long count = shard.queryForObject(sql, Long.class, args);
+        return count == null ? 0 : count;
+    }
+
+    private static int[][] insertClaims(JdbcTemplate shard, List<EmailClaim> claims) {
+        return shard.batchUpdate(CLAIM_SQL, claims, EMAIL_BATCH_SIZE, (ps, claim) -> {
+            ps.setString(1, claim.email());
+            ps.setLong(2, claim.id());
+        });
+    }
+
+    /** Runs {@code query} on every shard as structured subtasks, which also see the caller's request context. */
+    private <T> List<T> onEveryShard(Function<JdbcTemplate, T> query) {
+        long start = System.nanoTime();
+        try {
+            return RequestContext.forkAll(shards.stream().<Callable<T>>map(shard -> () -> query.apply(shard)).toList());
+        } finally {
+            fanOutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** K-way merge of per-shard lists already ordered by id, stopping after {@code limit} rows. */
+    static List<PersonEntity> mergeById(List<List<PersonEntity>> sorted, int limit) {
+        Queue<Cursor> heads = new PriorityQueue<>(Comparator.comparingLong(Cursor::headId));
+        sorted.stream().filter(rows -> !rows.isEmpty()).map(Cursor::new).forEach(heads::add);
+        int total = sorted.stream().mapToInt(List::size).sum();
+        List<PersonEntity> merged = new ArrayList<>(Math.min(limit, total));
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            merged.add(cursor.rows.get(cursor.index++));
+            if (cursor.index < cursor.rows.size()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static Object[] columnValues(PersonEntity entity) {
+        return new Object[] {entity.getName(), entity.getEmail(), entity.getType().name(), entity.getAmount(),
+                entity.getHoursWorked(), entity.getProfession(), entity.getBusinessType()};
+    }
+
+    private static Object[] withTrailing(Object[] columns, Object... trailing) {
+        Object[] args = new Object[columns.length + trailing.length];
+        System.arraycopy(columns, 0, args, 0, columns.length);
+        System.arraycopy(trailing, 0, args, columns.length, trailing.length);
+        return args;
+    }
+
+    private static int[] withTrailingTypes(int... trailing) {
+        int[] types = new int[COLUMN_TYPES.length + trailing.length];
+        System.arraycopy(COLUMN_TYPES, 0, types, 0, COLUMN_TYPES.length);
+        System.arraycopy(trailing, 0, types, COLUMN_TYPES.length, trailing.length);
+        return types;
+    }
+
+    private static PersonEntity mapRow(ResultSet rs) throws SQLException {
+        PersonEntity entity = new PersonEntity();
+        entity.setId(rs.getLong("id"));
+        entity.setName(rs.getString("name"));
+        entity.setEmail(rs.getString("email"));
+        entity.setType(PersonType.valueOf(rs.getString("type")));
+        entity.setAmount(rs.getBigDecimal("amount"));
+        entity.setHoursWorked(rs.getObject("hours_worked", Integer.class));
+        entity.setProfession(rs.getString("profession"));
+        entity.setBusinessType(rs.getString("business_type"));
+        entity.setVersion(rs.getLong("version"));
+        return entity;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) dataSource).close();
+            }
+        }
+    }
+
+    private record EmailClaim(String email, long id) {
+    }
+
+    private static final class Cursor {
+
+        private final List<PersonEntity> rows;
+        private int index;
+
+        Cursor(List<PersonEntity> rows) {
+            this.rows = rows;
+        }
+
+        long headId() {
+            return rows.get(index).getId();
+        }
+    }
+}
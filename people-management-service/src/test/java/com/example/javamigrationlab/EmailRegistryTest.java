@@ -0,0 +1,71 @@
+package com.example.javamigrationlab;
+
+import com.example.javamigrationlab.modern.service.EmailRegistry;
+import com.example.javamigrationlab.repository.PersonStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailRegistryTest {
+
+    /** The table both instances write to. */
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+
+    @Test
+    @DisplayName("An email created through another instance is reported registered once the rebuild interval passed")
+    void shouldSeeOtherInstancesEmailsAfterRebuildInterval() throws Exception {
+        stored.add("existing@example.com");
+        EmailRegistry registry = new EmailRegistry(store(), 1_000, 0.01, Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+        registry.run(null);
+        assertTrue(registry.isRegistered("existing@example.com"));
+
+        // Created through another replica: this instance's filter never saw added()
+        stored.add("elsewhere@example.com");
+        assertFalse(registry.isRegistered("elsewhere@example.com"), "a filter this fresh is not rebuilt yet");
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!registry.isRegistered("elsewhere@example.com")) {
+            assertTrue(System.nanoTime() < deadline, "the filter was never rebuilt");
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    @DisplayName("Without a rebuild interval the filter only learns emails created through this instance")
+    void shouldNotRebuildWhenIntervalIsZero() throws Exception {
+        EmailRegistry registry = new EmailRegistry(store(), 1_000, 0.01, Duration.ZERO, new SimpleMeterRegistry());
+        registry.run(null);
+
+        stored.add("elsewhere@example.com");
+        Thread.sleep(100);
+        assertFalse(registry.isRegistered("elsewhere@example.com"));
+
+        stored.add("local@example.com");
+        registry.added("local@example.com");
+        assertTrue(registry.isRegistered("local@example.com"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private PersonStore store() {
+        return (PersonStore) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {PersonStore.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "count" -> (long) stored.size();
+                    case "existsByEmail" -> stored.contains((String) args[0]);
+                    case "forEachEmail" -> {
+                        List.copyOf(stored).forEach((Consumer<String>) args[0]);
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -1,12 +1,23 @@
 package com.example.javamigrationlab;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.common.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -56,6 +67,23 @@ class PersonControllerTest {
                 .andExpect(jsonPath("$.personType").value("EMPLOYEE_CONTRACTOR"));
     }
 
+    @Test
+    void testListWithTaxComputedInProcess() throws Exception {
+        mockMvc.perform(post("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"personType": "EMPLOYEE_FULL_TIME", "name": "Ira", "email": "ira@example.com",
+                         "annualSalary": 1500000.0}
+                        """))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/people").param("withTax", "NEW"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.person.email == 'ira@example.com')].regime").value("NEW"))
+                .andExpect(jsonPath("$[?(@.person.email == 'ira@example.com')].tax.totalTaxLiability")
+                        .value(130000.0));
+    }
+
     @Test
     void testCalculateIncome() throws Exception {
         String fullTimeEmployeeJson = """
@@ -80,4 +108,205 @@ class PersonControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("10000.00"));
     }
+
+    @Test
+    void testGetMissingPersonReturnsNotFound() throws Exception {
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        ListAppender<ILoggingEvent> logged = new ListAppender<>();
+        logged.start();
+        root.addAppender(logged);
+        try {
+            mockMvc.perform(get("/people/999999"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.status").value(404))
+                    .andExpect(jsonPath("$.message").value("Person not found with id: 999999"))
+                    .andExpect(result -> {
+                        // A miss is an expected outcome: no stack trace is filled in and nothing is logged as an error
+                        ResourceNotFoundException ex =
+                                assertInstanceOf(ResourceNotFoundException.class, result.getResolvedException());
+                        assertEquals(0, ex.getStackTrace().length);
+                    });
+        } finally {
+            root.detachAppender(logged);
+        }
+        assertTrue(logged.list.stream().noneMatch(event -> event.getLevel() == Level.ERROR),
+                () -> "logged at ERROR: " + logged.list.stream().filter(event -> event.getLevel() == Level.ERROR)
+                        .map(ILoggingEvent::getFormattedMessage).toList());
+    }
+
+    @Test
+    void testConditionalGetReturnsNotModified() throws Exception {
+        String json = """
+                {
+                    "personType": "EMPLOYEE_FULL_TIME",
+                    "name": "Dana",
+                    "email": "dana@example.com",
+                    "annualSalary": 90000.0
+                }
+                """;
+        String created = mockMvc.perform(post("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer id = com.jayway.jsonpath.JsonPath.read(created, "$.id");
+
+        mockMvc.perform(get("/people/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+        mockMvc.perform(get("/people/" + id).header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/people/" + id).header("If-None-Match", "\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Dana"));
+    }
+
+    @Test
+    void testDuplicateEmailReturnsConflict() throws Exception {
+        String json = """
+                {
+                    "personType": "EMPLOYEE_FULL_TIME",
+                    "name": "Erin",
+                    "email": "erin@example.com",
+                    "annualSalary": 80000.0
+                }
+                """;
+        mockMvc.perform(get("/people/email-registered").param("email", "erin@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registered").value(false));
+        mockMvc.perform(post("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/people/email-registered").param("email", "erin@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registered").value(true));
+        mockMvc.perform(post("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.message").value("Person already exists with email: erin@example.com"));
+    }
+
+    @Test
+    void testPatchChangesOnlyGivenFieldsAndHonoursIfMatch() throws Exception {
+        String json = """
+                {
+                    "personType": "EMPLOYEE_CONTRACTOR",
+                    "name": "Frank",
+                    "email": "frank@example.com",
+                    "hourlyRate": 40.0,
+                    "hoursWorked": 100
+                }
+                """;
+        String created = mockMvc.perform(post("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer id = com.jayway.jsonpath.JsonPath.read(created, "$.id");
+
+        mockMvc.perform(patch("/people/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", "\"0\"")
+                .content("{\"hoursWorked\": 120}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.name").value("Frank"))
+                .andExpect(jsonPath("$.hourlyRate").value(40.0))
+                .andExpect(jsonPath("$.hoursWorked").value(120));
+        mockMvc.perform(patch("/people/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", "\"0\"")
+                .content("{\"name\": \"Frankie\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/people/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"profession\": \"Architect\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/people/999999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Nobody\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/people/" + id).header("If-None-Match", "\"1\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testBulkSalaryRevisionReportsAffectedRows() throws Exception {
+        String first = mockMvc.perform(post("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"personType": "EMPLOYEE_FULL_TIME", "name": "Gita", "email": "gita@example.com",
+                         "annualSalary": 100000.0}
+                        """))
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(post("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"personType": "EMPLOYEE_FULL_TIME", "name": "Hari", "email": "hari@example.com",
+                         "annualSalary": 85000.5}
+                        """))
+                .andReturn().getResponse().getContentAsString();
+        Integer gita = com.jayway.jsonpath.JsonPath.read(first, "$.id");
+        Integer hari = com.jayway.jsonpath.JsonPath.read(second, "$.id");
+
+        mockMvc.perform(patch("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [" + gita + ", " + hari + ", 999999], \"amountPercent\": 8.5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2))
+                .andExpect(jsonPath("$.skipped").value(1));
+        mockMvc.perform(get("/people/" + gita))
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.annualSalary").value(108500.0));
+        mockMvc.perform(get("/people/" + hari))
+                .andExpect(jsonPath("$.annualSalary").value(92225.54));
+        mockMvc.perform(patch("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\": \"EMPLOYEE_FULL_TIME\", \"set\": {\"email\": \"same@example.com\"}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStreamDeliversChangesOfSubscribedIds() throws Exception {
+        MockHttpServletResponse stream = mockMvc.perform(get("/people/stream").param("ids", "424242")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        MockHttpServletResponse all = mockMvc.perform(get("/people/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        String created = mockMvc.perform(post("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"personType": "EMPLOYEE_FULL_TIME", "name": "Jai", "email": "jai.stream@example.com",
+                         "annualSalary": 90000.0}
+                        """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer jai = com.jayway.jsonpath.JsonPath.read(created, "$.id");
+        mockMvc.perform(patch("/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [" + jai + ", 424242], \"amountPercent\": 1}"))
+                .andExpect(status().isOk());
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        // The event line and its data are written separately; the id shows that both are there
+        while (!(stream.getContentAsString().contains("424242") && all.getContentAsString().contains("424242"))
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        String events = all.getContentAsString();
+        assertTrue(events.contains("event:created") && events.contains("jai.stream@example.com"), events);
+        assertEquals(1, events.split("event:bulk-updated", -1).length - 1, events);
+        String filtered = stream.getContentAsString();
+        assertFalse(filtered.contains("jai.stream@example.com"), "filtered stream got another id");
+        assertTrue(filtered.contains("event:bulk-updated") && filtered.contains("424242"), filtered);
+    }
 }
@@ -0,0 +1,68 @@
+package com.example.javamigrationlab;
+
+import com.example.common.domain.FullTimeEmployee;
+import com.example.common.domain.Person;
+import com.example.common.stream.ChangeStream;
+import com.example.javamigrationlab.modern.service.PersonReadWarmup;
+import com.example.javamigrationlab.modern.service.PersonService;
+import com.example.javamigrationlab.modern.service.PersonVersionCache;
+import com.example.javamigrationlab.repository.PersonStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PersonReadWarmupTest {
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonStore personStore;
+
+    @Autowired
+    private PersonVersionCache versionCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Warm-up reads existing people and rolls back throwaway ones: nothing is committed or published")
+    void shouldWarmUpWithoutSideEffects() throws Exception {
+        Person existing = personService.createPerson(
+                new FullTimeEmployee(null, "Existing", "warmup-existing@test.com", new BigDecimal("500000")));
+        long rows = personStore.count();
+        double events = meterRegistry.get(ChangeStream.EVENTS).counter().count();
+        double emails = meterRegistry.get("people.email.filter.insertions").gauge().value();
+        PersonReadWarmup warmup = new PersonReadWarmup(personService, personStore, versionCache, jdbcTemplate,
+                transactionTemplate, objectMapper);
+
+        warmup.run();
+        warmup.run();
+        warmup.cleanUp();
+
+        assertEquals(rows, personStore.count(), "throwaway rows were committed");
+        assertTrue(personService.getAllPeople().stream().noneMatch(person -> "warmup".equals(person.name())));
+        assertEquals(events, meterRegistry.get(ChangeStream.EVENTS).counter().count(), "change events published");
+        assertEquals(emails, meterRegistry.get("people.email.filter.insertions").gauge().value());
+        assertTrue(personService.cachedVersion(existing.id()).isPresent(), "the existing person was not read");
+    }
+}
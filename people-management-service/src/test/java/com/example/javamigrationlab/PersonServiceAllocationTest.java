@@ -0,0 +1,103 @@
+package com.example.javamigrationlab;
+
+import com.example.common.enums.PersonType;
+import com.example.common.profiling.AllocationMeter;
+import com.example.common.stream.ChangeStream;
+import com.example.javamigrationlab.entity.PersonEntity;
+import com.example.javamigrationlab.modern.service.EmailRegistry;
+import com.example.javamigrationlab.modern.service.PersonService;
+import com.example.javamigrationlab.modern.service.PersonVersionCache;
+import com.example.javamigrationlab.modern.service.PersonWriteBatcher;
+import com.example.javamigrationlab.repository.PersonStore;
+import com.example.tax.core.TaxCalculator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated by the entity-to-domain mapping of the read paths, against a store that hands out the same rows,
+ * so only the service's own work (and the store fake's call overhead) is measured.
+ */
+class PersonServiceAllocationTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 10_000;
+    private static final int PAGE_SIZE = 50;
+
+    // Byte budgets per call, about 1.5x what JDK 21 measured; raise them deliberately, not to make a build pass
+    private static final long READ_BUDGET = 416;
+    private static final long PAGE_BUDGET = 3_200;
+
+    private PersonService personService;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(AllocationMeter.isSupported(), "thread allocation counters are not available on this JVM");
+        List<PersonEntity> rows = IntStream.rangeClosed(1, PAGE_SIZE).mapToObj(PersonServiceAllocationTest::entity)
+                .toList();
+        PersonStore store = (PersonStore) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PersonStore.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.of(rows.get((int) ((Long) args[0] % PAGE_SIZE)));
+                    case "findPage" -> rows;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        personService = new PersonService(store,
+                new PersonWriteBatcher(null, null, false, 256, Duration.ofMillis(2), 10_000, Duration.ofSeconds(1),
+                        registry),
+                new PersonVersionCache(100_000, Duration.ofSeconds(30)),
+                new EmailRegistry(store, 1_000, 0.01, Duration.ZERO, registry),
+                new TaxCalculator(),
+                new ChangeStream("test", 16, 16, Duration.ofMinutes(1), Duration.ofMinutes(1), registry));
+    }
+
+    @Test
+    @DisplayName("Reading one person allocates no more than its budget")
+    void shouldReadPersonWithinBudget() {
+        AllocationMeter.Measurement allocated = AllocationMeter.measure(WARMUP, MEASURED,
+                () -> personService.getVersionedPerson(7L));
+        assertTrue(allocated.bytesPerOperation() <= READ_BUDGET,
+                () -> "a read allocates " + allocated + ", budget " + READ_BUDGET);
+    }
+
+    @Test
+    @DisplayName("Mapping a page of people allocates no more than its budget")
+    void shouldMapPageWithinBudget() {
+        AllocationMeter.Measurement allocated = AllocationMeter.measure(WARMUP, MEASURED,
+                () -> personService.getPage(null, 0, PAGE_SIZE));
+        assertTrue(allocated.bytesPerOperation() <= PAGE_BUDGET,
+                () -> "a page of " + PAGE_SIZE + " allocates " + allocated + ", budget " + PAGE_BUDGET);
+    }
+
+    /** Rows of every persona in turn. */
+    private static PersonEntity entity(int id) {
+        PersonType type = PersonType.values()[id % PersonType.values().length];
+        PersonEntity entity = new PersonEntity();
+        entity.setId((long) id);
+        entity.setName("Person " + id);
+        entity.setEmail("person" + id + "@example.com");
+        entity.setType(type);
+        entity.setAmount(BigDecimal.valueOf(1_200_000L + id));
+        entity.setVersion(3L);
+        if (type == PersonType.EMPLOYEE_CONTRACTOR) {
+            entity.setHoursWorked(160);
+        } else if (type == PersonType.SELF_EMPLOYED) {
+            entity.setProfession("Architect");
+        } else if (type == PersonType.BUSINESS_OWNER) {
+            entity.setBusinessType("Retail");
+        }
+        return entity;
+    }
+}
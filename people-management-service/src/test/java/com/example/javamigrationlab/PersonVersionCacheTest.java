@@ -0,0 +1,43 @@
+package com.example.javamigrationlab;
+
+import com.example.javamigrationlab.modern.service.PersonVersionCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonVersionCacheTest {
+
+    private final PersonVersionCache cache = new PersonVersionCache(100, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("A read that finishes after a newer write cannot put its older version back")
+    void shouldKeepHigherVersion() {
+        long reader = cache.generation();
+        cache.put(1L, 4, cache.generation());
+        cache.put(1L, 3, reader);
+
+        assertEquals(OptionalLong.of(4), cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("A read that started before an evict or clear does not repopulate the entry")
+    void shouldIgnoreReadsStartedBeforeInvalidation() {
+        cache.put(1L, 3, cache.generation());
+        long beforeEvict = cache.generation();
+        cache.evict(1L);
+        cache.put(1L, 3, beforeEvict);
+        assertTrue(cache.get(1L).isEmpty());
+
+        long beforeClear = cache.generation();
+        cache.clear();
+        cache.put(2L, 7, beforeClear);
+        assertTrue(cache.get(2L).isEmpty());
+
+        cache.put(1L, 5, cache.generation());
+        assertEquals(OptionalLong.of(5), cache.get(1L), "reads started after the invalidation are cached again");
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.javamigrationlab;
+
+import com.example.common.context.Deadline;
+import com.example.common.context.RequestContext;
+import com.example.common.domain.FullTimeEmployee;
+import com.example.common.domain.Person;
+import com.example.common.exception.DeadlineExceededException;
+import com.example.javamigrationlab.modern.service.PersonService;
+import com.example.javamigrationlab.modern.service.PersonWriteBatcher;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.person-writes.group-commit.enabled=true",
+        "app.person-writes.group-commit.max-delay=20ms"
+})
+class PersonWriteBatcherTest {
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Concurrent creates share batches and each caller gets its own id")
+    void shouldBatchConcurrentCreates() throws Exception {
+        List<Future<Person>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                Person person = employee("batched-" + i);
+                futures.add(executor.submit(() -> personService.createPerson(person)));
+            }
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < futures.size(); i++) {
+            Person created = futures.get(i).get();
+            ids.add(created.id());
+            assertEquals("batched-" + i, personService.getPerson(created.id()).name());
+        }
+        assertEquals(100, ids.size());
+        DistributionSummary batchSizes = meterRegistry.get(PersonWriteBatcher.BATCH_SIZE).summary();
+        assertTrue(batchSizes.max() > 1, "expected at least one shared batch, max was " + batchSizes.max());
+    }
+
+    @Test
+    @DisplayName("A row that fails only fails its own caller")
+    void shouldIsolateFailures() throws Exception {
+        List<Future<Person>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+                Person person = employee(i == 5 ? "x".repeat(300) : "isolated-" + i);
+                futures.add(executor.submit(() -> personService.createPerson(person)));
+            }
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            if (i == 5) {
+                Future<Person> failed = futures.get(i);
+                assertThrows(ExecutionException.class, failed::get);
+            } else {
+                assertNotNull(futures.get(i).get().id());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A full queue refuses creates within the enqueue timeout or deadline, and close fails what is queued")
+    void shouldRefuseWhenFullAndFailQueuedOnClose() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate stuck = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("database gone");
+            }
+        };
+        PersonWriteBatcher batcher = new PersonWriteBatcher(null, stuck, true, 1, Duration.ZERO, 1,
+                Duration.ofMillis(50), new SimpleMeterRegistry());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Long> flushing = executor.submit(() -> batcher.insert(employee("flushing")));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            // Capacity 1: one of these two is queued behind the stuck flush, the other finds the queue full
+            List<Future<Long>> waiting = List.of(executor.submit(() -> batcher.insert(employee("queued-1"))),
+                    executor.submit(() -> batcher.insert(employee("queued-2"))));
+            long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (waiting.stream().noneMatch(Future::isDone)) {
+                assertTrue(System.nanoTime() < timeout, "neither create was refused");
+                Thread.sleep(10);
+            }
+            int first = waiting.get(0).isDone() ? 0 : 1;
+            Future<Long> refused = waiting.get(first);
+            Future<Long> queued = waiting.get(1 - first);
+            assertInstanceOf(TransientDataAccessResourceException.class,
+                    assertThrows(ExecutionException.class, refused::get).getCause());
+            new RequestContext("full", Deadline.after(Duration.ofMillis(10))).run(() ->
+                    assertThrows(DeadlineExceededException.class, () -> batcher.insert(employee("late"))));
+            assertFalse(queued.isDone());
+
+            batcher.close();
+            ExecutionException stopped = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(TransientDataAccessResourceException.class, stopped.getCause());
+            assertEquals("Group commit stopped before the write", stopped.getCause().getMessage());
+            assertThrows(TransientDataAccessResourceException.class, () -> batcher.insert(employee("after-close")));
+
+            release.countDown();
+            assertThrows(ExecutionException.class, () -> flushing.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static Person employee(String name) {
+        return new FullTimeEmployee(null, name, name + "@example.com", new BigDecimal("900000.00"));
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.javamigrationlab;
+
+import com.example.common.domain.Contractor;
+import com.example.common.domain.FullTimeEmployee;
+import com.example.common.domain.Person;
+import com.example.common.enums.PersonType;
+import com.example.javamigrationlab.entity.PersonEntity;
+import com.example.javamigrationlab.modern.service.BulkPersonUpdate;
+import com.example.javamigrationlab.modern.service.BulkUpdateResult;
+import com.example.javamigrationlab.modern.service.PersonPage;
+import com.example.javamigrationlab.modern.service.PersonPatch;
+import com.example.javamigrationlab.modern.service.PersonService;
+import com.example.javamigrationlab.repository.PersonChanges;
+import com.example.javamigrationlab.repository.PersonStore;
+import com.example.javamigrationlab.sharding.ShardedPersonStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.people.sharding.enabled=true",
+        "app.people.sharding.urls=" + ShardedPersonStoreTest.SHARD_0 + "," + ShardedPersonStoreTest.SHARD_1 + ","
+                + ShardedPersonStoreTest.SHARD_2,
+        "app.people.sharding.id-block-size=10"
+})
+class ShardedPersonStoreTest {
+
+    static final String SHARD_0 = "jdbc:h2:mem:people-shard-0;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 = "jdbc:h2:mem:people-shard-1;DB_CLOSE_DELAY=-1";
+    static final String SHARD_2 = "jdbc:h2:mem:people-shard-2;DB_CLOSE_DELAY=-1";
+    private static final long UNCLAIMED_ID = 1L << 40;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonStore personStore;
+
+    @Test
+    @DisplayName("Each person is stored only on the shard its id hashes to")
+    void shouldPlaceRowsByIdHash() {
+        ShardedPersonStore sharded = assertInstanceOf(ShardedPersonStore.class, personStore);
+        List<Long> ids = create(30, "placed");
+        List<JdbcTemplate> shards = List.of(shard(SHARD_0), shard(SHARD_1), shard(SHARD_2));
+
+        for (Long id : ids) {
+            for (int shard = 0; shard < shards.size(); shard++) {
+                Long rows = shards.get(shard).queryForObject(
+                        "SELECT COUNT(*) FROM person_entity WHERE id = ?", Long.class, id);
+                assertEquals(shard == sharded.shardOf(id) ? 1L : 0L, rows, "id " + id + " on shard " + shard);
+            }
+            assertEquals(id, personService.getPerson(id).id());
+        }
+        assertTrue(shards.stream().allMatch(shard -> shard.queryForObject(
+                "SELECT COUNT(*) FROM person_entity", Long.class) > 0), "expected rows on every shard");
+    }
+
+    @Test
+    @DisplayName("Keyset pages merged across shards walk every id in order exactly once")
+    void shouldMergePagesInIdOrder() {
+        create(25, "paged");
+        List<Long> expected = personService.getAllPeople().stream().map(Person::id).toList();
+
+        List<Long> walked = new ArrayList<>();
+        Long after = 0L;
+        while (after != null) {
+            PersonPage page = personService.getPage(null, after, 7);
+            page.people().forEach(person -> walked.add(person.id()));
+            after = page.nextAfter();
+        }
+        assertEquals(expected, walked);
+        assertEquals(expected.stream().sorted().toList(), walked);
+    }
+
+    @Test
+    @DisplayName("Counts by type are summed over every shard")
+    void shouldSumCountsAcrossShards() {
+        Map<PersonType, Long> before = personService.countByType();
+        create(6, "counted");
+        personService.createPerson(new Contractor(null, "contractor", "contractor@example.com",
+                new BigDecimal("1500.00"), 120));
+
+        Map<PersonType, Long> after = personService.countByType();
+        assertEquals(before.getOrDefault(PersonType.EMPLOYEE_FULL_TIME, 0L) + 6,
+                after.get(PersonType.EMPLOYEE_FULL_TIME));
+        assertEquals(before.getOrDefault(PersonType.EMPLOYEE_CONTRACTOR, 0L) + 1,
+                after.get(PersonType.EMPLOYEE_CONTRACTOR));
+        PersonPage contractors = personService.getPage(PersonType.EMPLOYEE_CONTRACTOR, 0, 100);
+        assertTrue(contractors.people().stream().allMatch(Contractor.class::isInstance));
+    }
+
+    @Test
+    @DisplayName("Bulk updates reach every shard and leave people of other types alone")
+    void shouldUpdateAcrossShards() {
+        List<Long> ids = create(12, "revised");
+        Long contractor = personService.createPerson(new Contractor(null, "revised-contractor",
+                "revised-contractor@example.com", new BigDecimal("1000.00"), 100)).id();
+
+        BulkUpdateResult byIds = personService.updatePeople(
+                new BulkPersonUpdate(ids, null, new BigDecimal("10"), null));
+        assertEquals(new BulkUpdateResult(12, 0), byIds);
+        ids.forEach(id -> assertEquals(new BigDecimal("990000.00"),
+                ((FullTimeEmployee) personService.getPerson(id)).annualSalary()));
+
+        long contractors = personService.countByType().get(PersonType.EMPLOYEE_CONTRACTOR);
+        BulkUpdateResult byType = personService.updatePeople(new BulkPersonUpdate(null,
+                PersonType.EMPLOYEE_CONTRACTOR, null, new PersonPatch(null, null, null, 80, null, null)));
+        assertEquals(contractors, byType.updated());
+        assertEquals(Integer.valueOf(80), ((Contractor) personService.getPerson(contractor)).hoursWorked());
+        assertEquals(new BigDecimal("990000.00"),
+                ((FullTimeEmployee) personService.getPerson(ids.get(0))).annualSalary());
+    }
+
+    @Test
+    @DisplayName("An email is unique across shards, and is free again once its person is deleted")
+    void shouldKeepEmailsUniqueAcrossShards() {
+        ShardedPersonStore sharded = assertInstanceOf(ShardedPersonStore.class, personStore);
+        PersonEntity first = sharded.save(entity("shared@example.com"));
+        for (int i = 0; i < sharded.shardCount(); i++) {
+            // Consecutive ids hash to different shards, so at least one attempt targets another shard than the first
+            assertThrows(DataIntegrityViolationException.class, () -> sharded.save(entity("shared@example.com")));
+        }
+        assertTrue(sharded.existsByEmail("shared@example.com"));
+
+        PersonEntity renamed = sharded.save(entity("renamed@example.com"));
+        assertThrows(DataIntegrityViolationException.class, () -> sharded.update(renamed.getId(), null,
+                new PersonChanges().set(PersonChanges.Column.EMAIL, "shared@example.com")));
+        assertEquals("renamed@example.com", sharded.findById(renamed.getId()).orElseThrow().getEmail());
+
+        sharded.deleteAllById(List.of(first.getId()));
+        assertFalse(sharded.existsByEmail("shared@example.com"));
+        assertTrue(sharded.update(renamed.getId(), null,
+                new PersonChanges().set(PersonChanges.Column.EMAIL, "shared@example.com")));
+        assertFalse(sharded.existsByEmail("renamed@example.com"));
+        assertTrue(sharded.existsByEmail("shared@example.com"));
+    }
+
+    @Test
+    @DisplayName("Start-up refuses shards that already hold one email twice")
+    void shouldRefuseDuplicateEmailsOnStartUp() {
+        List<JdbcTemplate> shards = List.of(shard(SHARD_0), shard(SHARD_1), shard(SHARD_2));
+        String insert = "INSERT INTO person_entity (id, name, email, type, version) VALUES (?, 'dup', ?, ?, 0)";
+        // Written behind the store's back, with ids far beyond anything the sequence hands out
+        shards.get(0).update(insert, UNCLAIMED_ID, "dup@example.com", PersonType.EMPLOYEE_FULL_TIME.name());
+        shards.get(1).update(insert, UNCLAIMED_ID + 1, "dup@example.com", PersonType.EMPLOYEE_FULL_TIME.name());
+        try {
+            IllegalStateException refused = assertThrows(IllegalStateException.class, () -> newStore(10));
+            assertTrue(refused.getMessage().contains("dup@example.com"), refused.getMessage());
+        } finally {
+            shards.forEach(shard -> shard.update("DELETE FROM person_entity WHERE id >= ?", UNCLAIMED_ID));
+            shards.forEach(shard -> shard.update("DELETE FROM person_email WHERE id >= ?", UNCLAIMED_ID));
+        }
+    }
+
+    @Test
+    @DisplayName("Start-up refuses a block size that differs from the existing sequence's increment")
+    void shouldRefuseMismatchedIdBlockSize() {
+        IllegalStateException refused = assertThrows(IllegalStateException.class, () -> newStore(20));
+        assertTrue(refused.getMessage().contains("increments by 10"), refused.getMessage());
+    }
+
+    private static ShardedPersonStore newStore(int idBlockSize) {
+        List<DataSource> pools = List.of(SHARD_0, SHARD_1, SHARD_2).stream()
+                .<DataSource>map(url -> new DriverManagerDataSource(url, "sa", "")).toList();
+        return new ShardedPersonStore(pools, idBlockSize, new SimpleMeterRegistry());
+    }
+
+    private static PersonEntity entity(String email) {
+        PersonEntity entity = new PersonEntity();
+        entity.setName("unique");
+        entity.setEmail(email);
+        entity.setType(PersonType.EMPLOYEE_FULL_TIME);
+        entity.setAmount(new BigDecimal("500000.00"));
+        return entity;
+    }
+
+    private List<Long> create(int count, String prefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = prefix + "-" + i;
+            ids.add(personService.createPerson(new FullTimeEmployee(null, name, name + "@example.com",
+                    new BigDecimal("900000.00"))).id());
+        }
+        return ids;
+    }
+
+    private static JdbcTemplate shard(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.common.domain;
+
+/**
+ * A person together with the optimistic-lock version of its record. The version is what people-service exposes as
+ * the {@code ETag} of {@code GET /people/{id}}.
+ */
+public record VersionedPerson(
+        Person person,
+        long version) {
+}
@@ -0,0 +1,89 @@
+package com.example.tax.core;
+
+import com.example.common.domain.*;
+import com.example.common.enums.TaxRegime;
+import com.example.tax.core.strategy.NewRegimeStrategy;
+import com.example.tax.core.strategy.OldRegimeStrategy;
+import com.example.tax.core.strategy.TaxRegimeStrategy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indian income tax for a person under a regime ({@link TaxConstants#TABLE_VERSION}): persona deductions, slab tax
+ * from the regime's strategy, then cess. Plain Java without framework dependencies and without state beyond the
+ * strategies, so one instance can be shared by any number of threads and embedded wherever people are at hand.
+ */
+public final class TaxCalculator {
+
+    private final Map<TaxRegime, TaxRegimeStrategy> strategies = new EnumMap<>(TaxRegime.class);
+
+    /** Both regimes of the current tax table. */
+    public TaxCalculator() {
+        this(List.of(new NewRegimeStrategy(), new OldRegimeStrategy()));
+    }
+
+    public TaxCalculator(List<? extends TaxRegimeStrategy> strategies) {
+        strategies.forEach(strategy -> this.strategies.put(strategy.getRegime(), strategy));
+    }
+
+    public TaxRegimeStrategy strategy(TaxRegime regime) {
+        TaxRegimeStrategy strategy = strategies.get(regime);
+        if (strategy == null) {
+            throw new IllegalArgumentException("No strategy implemented for regime: " + regime);
+        }
+        return strategy;
+    }
+
+    public TaxResult calculate(Person person, TaxRegime regime) {
+        TaxRegimeStrategy strategy = strategy(regime);
+
+        BigDecimal grossIncome = person.income();
+        BigDecimal deductions = deductions(person, strategy);
+        BigDecimal taxableIncome = grossIncome.subtract(deductions).max(BigDecimal.ZERO);
+
+        BigDecimal baseTax = strategy.calculateBaseTax(taxableIncome);
+
+        BigDecimal cess = baseTax.multiply(TaxConstants.HEALTH_AND_EDU_CESS_RATE).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal totalTax = baseTax.add(cess);
+        BigDecimal netTakeHome = grossIncome.subtract(totalTax);
+
+        return new TaxResult(
+                grossIncome,
+                deductions,
+                taxableIncome,
+                baseTax,
+                BigDecimal.ZERO, // Surcharge logic can be added as another strategy
+                cess,
+                totalTax,
+                netTakeHome);
+    }
+
+    /**
+     * Persona-based deduction logic using Java 21 Record Patterns.
+     * Easily extensible for new Persona types.
+     */
+    private static BigDecimal deductions(Person person, TaxRegimeStrategy strategy) {
+        return switch (person) {
+            // Employees get Standard Deduction from the strategy
+            case FullTimeEmployee employee -> strategy.getStandardDeduction();
+
+            // Contractors usually don't get standard deductions unless specialized
+            case Contractor contractor -> BigDecimal.ZERO;
+
+            // Professionals: Sec 44ADA (50% is Income, so 50% is Deduction as expenses)
+            case SelfEmployed(Long id, String name, String email, BigDecimal annualTurnover, String profession) ->
+                annualTurnover.multiply(BigDecimal.ONE.subtract(TaxConstants.Presumptive.SEC_44ADA_PROFESSIONAL_RATE))
+                        .setScale(2, RoundingMode.HALF_UP);
+
+            // Businesses: Sec 44AD (6% is Income, so 94% is Deduction as expenses)
+            case BusinessOwner(Long id, String name, String email, BigDecimal annualBusinessTurnover,
+                               String businessType) ->
+                annualBusinessTurnover.multiply(BigDecimal.ONE.subtract(TaxConstants.Presumptive.SEC_44AD_BUSINESS_DIGITAL_RATE))
+                        .setScale(2, RoundingMode.HALF_UP);
+        };
+    }
+}
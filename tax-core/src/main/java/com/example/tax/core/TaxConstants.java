@@ -1,4 +1,4 @@
-package com.example.tax.constants;
+package com.example.tax.core;
 
 import java.math.BigDecimal;
 
@@ -11,6 +11,12 @@ public final class TaxConstants {
     private TaxConstants() {
     } // Prevent instantiation
 
+    /**
+     * Identifies the slabs, rates and deductions in this file. Bump it whenever any of them change: stored tax
+     * results computed under another version are recomputed by the reconciler.
+     */
+    public static final String TABLE_VERSION = "FY2024-25";
+
     // General Constants
     public static final BigDecimal HEALTH_AND_EDU_CESS_RATE = new BigDecimal("0.04");
     public static final BigDecimal INFINITE_LIMIT = new BigDecimal("999999999999");
@@ -1,4 +1,4 @@
-package com.example.tax.model;
+package com.example.tax.core;
 
 import java.math.BigDecimal;
 
@@ -1,15 +1,13 @@
-package com.example.tax.strategy;
+package com.example.tax.core.strategy;
 
 import com.example.common.enums.TaxRegime;
-import com.example.tax.constants.TaxConstants;
-import com.example.tax.model.TaxSlab;
-import org.springframework.stereotype.Component;
+import com.example.tax.core.TaxConstants;
+import com.example.tax.core.TaxSlab;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
 
-@Component
 public class NewRegimeStrategy implements TaxRegimeStrategy {
 
     private static final List<TaxSlab> SLABS = List.of(
@@ -47,6 +45,11 @@ public class NewRegimeStrategy implements TaxRegimeStrategy {
         return TaxConstants.NewRegime.STANDARD_DEDUCTION;
     }
 
+    @Override
+    public BigDecimal getRebateLimit() {
+        return TaxConstants.NewRegime.REBATE_LIMIT_SEC_87A;
+    }
+
     @Override
     public List<TaxSlab> getSlabs() {
         return SLABS;
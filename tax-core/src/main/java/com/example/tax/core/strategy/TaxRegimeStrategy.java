@@ -1,7 +1,7 @@
-package com.example.tax.strategy;
+package com.example.tax.core.strategy;
 
 import com.example.common.enums.TaxRegime;
-import com.example.tax.model.TaxSlab;
+import com.example.tax.core.TaxSlab;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -15,5 +15,10 @@ public interface TaxRegimeStrategy {
 
     BigDecimal getStandardDeduction();
 
+    /** Taxable income up to which the Sec 87A rebate wipes out the whole liability; zero when there is none. */
+    default BigDecimal getRebateLimit() {
+        return BigDecimal.ZERO;
+    }
+
     List<TaxSlab> getSlabs();
 }
@@ -0,0 +1,52 @@
+package com.example.tax.core;
+
+import com.example.common.domain.BusinessOwner;
+import com.example.common.domain.Contractor;
+import com.example.common.domain.FullTimeEmployee;
+import com.example.common.domain.SelfEmployed;
+import com.example.common.domain.TaxResult;
+import com.example.common.enums.TaxRegime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxCalculatorTest {
+
+    private final TaxCalculator calculator = new TaxCalculator();
+
+    @Test
+    @DisplayName("Persona deductions, slabs and cess add up for every persona")
+    void shouldCalculateEveryPersona() {
+        // 15L - 75K = 14.25L: 20K + 30K + 30K + 45K = 1.25L, plus 4% cess
+        TaxResult employee = calculator.calculate(
+                new FullTimeEmployee(1L, "Employee", "e@test.com", new BigDecimal("1500000")), TaxRegime.NEW);
+        assertEquals(0, new BigDecimal("1425000").compareTo(employee.taxableIncome()));
+        assertEquals(0, new BigDecimal("130000.00").compareTo(employee.totalTaxLiability()));
+
+        TaxResult contractor = calculator.calculate(
+                new Contractor(2L, "Contractor", "c@test.com", new BigDecimal("4000"), 160), TaxRegime.NEW);
+        assertEquals(0, BigDecimal.ZERO.compareTo(contractor.deductions()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(contractor.totalTaxLiability()));
+
+        TaxResult professional = calculator.calculate(
+                new SelfEmployed(3L, "Professional", "p@test.com", new BigDecimal("2000000"), "Doctor"), TaxRegime.OLD);
+        assertEquals(0, new BigDecimal("1000000").compareTo(professional.taxableIncome()));
+
+        TaxResult business = calculator.calculate(
+                new BusinessOwner(4L, "Business", "b@test.com", new BigDecimal("10000000"), "Retail"), TaxRegime.NEW);
+        assertEquals(0, new BigDecimal("600000").compareTo(business.taxableIncome()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(business.totalTaxLiability()));
+    }
+
+    @Test
+    @DisplayName("Regimes without a strategy are refused, and the module runs without Spring on the classpath")
+    void shouldStayFrameworkFree() {
+        TaxCalculator newOnly = new TaxCalculator(List.of(calculator.strategy(TaxRegime.NEW)));
+        assertThrows(IllegalArgumentException.class, () -> newOnly.strategy(TaxRegime.OLD));
+        assertThrows(ClassNotFoundException.class, () -> Class.forName("org.springframework.core.SpringVersion"));
+    }
+}
@@ -2,12 +2,25 @@ package com.example.tax.client;
 
 import com.example.common.domain.Person;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 
-@FeignClient(name = "people-management-service", url = "${app.services.people-service.url:http://localhost:8080}")
+@FeignClient(name = "people-management-service")
 public interface PeopleClient {
 
     @GetMapping("/people/{id}")
     Person getPersonById(@PathVariable("id") Long id);
+
+    /**
+     * Conditional read. The {@code ETag} of the response carries the record version; when {@code ifNoneMatch} is
+     * still current people-service answers 304, which Feign surfaces as a {@link feign.FeignException} with that
+     * status.
+     */
+    @GetMapping("/people/{id}")
+    ResponseEntity<Person> getPerson(@PathVariable("id") Long id,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                     String ifNoneMatch);
 }
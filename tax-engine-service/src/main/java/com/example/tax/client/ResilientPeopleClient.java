@@ -0,0 +1,310 @@
+package com.example.tax.client;
+
+import com.example.common.context.Deadline;
+import com.example.common.context.RequestContext;
+import com.example.common.domain.Person;
+import com.example.common.domain.VersionedPerson;
+import com.example.common.exception.DeadlineExceededException;
+import com.example.common.exception.ResourceNotFoundException;
+import com.example.common.web.ETags;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fault-tolerant facade over {@link PeopleClient}.
+ * <p>
+ * Call order: retry (bounded, jittered, budgeted) → circuit breaker → hedging → bulkhead → Feign. A 404 is a valid
+ * answer and never trips the breaker or triggers a retry. When every attempt fails the last successfully fetched
+ * copy of the person is served, if there is one.
+ * <p>
+ * Once the request's deadline has passed nothing is retried or hedged, and the call fails with
+ * {@link DeadlineExceededException} instead of falling back: the caller is no longer waiting for any answer.
+ * <p>
+ * The same copy makes reads conditional: its version goes out as {@code If-None-Match}, and a 304 answer reuses it
+ * without transferring or parsing the body.
+ * <p>
+ * Failures that are not people-service's answer (an interrupt while waiting, a checked exception from an attempt)
+ * surface as {@link CompletionException}, a server error to the caller, never as a client error.
+ */
+@Slf4j
+public class ResilientPeopleClient implements AutoCloseable {
+
+    /** Version of a person whose response carried no numeric ETag; such copies are never sent as validators. */
+    public static final long UNVERSIONED = -1;
+
+    private final PeopleClient peopleClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+    private final RetryBudget retryBudget;
+    private final Duration hedgeDelay;
+    private final ExecutorService hedgeExecutor;
+    private final Map<Long, VersionedPerson> lastKnown;
+
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+    private final Counter hedgedRequests;
+    private final Counter cachedFallbacks;
+    private final Counter failedFallbacks;
+    private final Counter notModified;
+
+    public ResilientPeopleClient(PeopleClient peopleClient, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+            Retry retry, RetryBudget retryBudget, Duration hedgeDelay, ExecutorService hedgeExecutor,
+            int fallbackCacheSize, MeterRegistry meterRegistry) {
+        this.peopleClient = peopleClient;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.retry = retry;
+        this.retryBudget = retryBudget;
+        this.hedgeDelay = hedgeDelay;
+        this.hedgeExecutor = hedgeExecutor;
+        this.lastKnown = boundedCache(fallbackCacheSize);
+        this.circuitOpenRejections = rejectionCounter(meterRegistry, "circuit-open");
+        this.bulkheadRejections = rejectionCounter(meterRegistry, "bulkhead-full");
+        this.hedgedRequests = Counter.builder("people.client.hedged")
+                .description("Hedged requests sent after the primary exceeded the hedge delay")
+                .register(meterRegistry);
+        this.cachedFallbacks = fallbackCounter(meterRegistry, "cached");
+        this.failedFallbacks = fallbackCounter(meterRegistry, "none");
+        this.notModified = Counter.builder("people.client.not-modified")
+                .description("Conditional reads answered 304, reusing the cached copy")
+                .register(meterRegistry);
+    }
+
+    public Person getPersonById(Long id) {
+        return getVersionedPersonById(id).person();
+    }
+
+    /** The person with its record version, or {@link #UNVERSIONED} if people-service sent no usable ETag. */
+    public VersionedPerson getVersionedPersonById(Long id) {
+        retryBudget.recordRequest();
+        Supplier<VersionedPerson> attempt = () -> hedged(Bulkhead.decorateSupplier(bulkhead, () -> fetch(id)));
+        Supplier<VersionedPerson> decorated =
+                Retry.decorateSupplier(retry, CircuitBreaker.decorateSupplier(circuitBreaker, attempt));
+        try {
+            VersionedPerson person = decorated.get();
+            remember(id, person);
+            return person;
+        } catch (ResourceNotFoundException ex) {
+            forget(id);
+            throw ex;
+        } catch (CallNotPermittedException ex) {
+            circuitOpenRejections.increment();
+            return fallback(id, ex);
+        } catch (BulkheadFullException ex) {
+            bulkheadRejections.increment();
+            return fallback(id, ex);
+        } catch (RuntimeException ex) {
+            return fallback(id, ex);
+        }
+    }
+
+    /**
+     * Whether a failed attempt is worth retrying: transport errors and 5xx only, and only while the request's
+     * deadline has not passed. Local rejections and 404s are final.
+     */
+    public static boolean isTransient(Throwable throwable) {
+        Deadline deadline = RequestContext.currentDeadline();
+        if ((deadline != null && deadline.expired()) || Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        if (throwable instanceof ResourceNotFoundException
+                || throwable instanceof DeadlineExceededException
+                || throwable instanceof CallNotPermittedException
+                || throwable instanceof BulkheadFullException) {
+            return false;
+        }
+        if (throwable instanceof FeignException feign) {
+            return feign.status() < 0 || feign.status() >= 500;
+        }
+        return true;
+    }
+
+    private VersionedPerson fetch(Long id) {
+        VersionedPerson cached = cached(id);
+        String ifNoneMatch = cached == null || cached.version() == UNVERSIONED ? null : ETags.of(cached.version());
+        try {
+            ResponseEntity<Person> response = peopleClient.getPerson(id, ifNoneMatch);
+            return new VersionedPerson(response.getBody(), version(response.getHeaders().getETag()));
+        } catch (FeignException.NotFound ex) {
+            throw new ResourceNotFoundException("Person", id, ex);
+        } catch (FeignException ex) {
+            if (ex.status() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+                notModified.increment();
+                return cached;
+            }
+            throw ex;
+        }
+    }
+
+    private static long version(String etag) {
+        if (etag == null) {
+            return UNVERSIONED;
+        }
+        try {
+            return Long.parseLong(ETags.value(etag));
+        } catch (NumberFormatException ex) {
+            return UNVERSIONED;
+        }
+    }
+
+    /**
+     * Sends the call and, if it has not answered within the hedge delay, a second identical call; the first success
+     * wins and the other is cancelled. Cancelling only drops its result: a request already sent is not aborted and
+     * keeps its connection and bulkhead permit until people-service answers or the Feign read timeout
+     * ({@code read-timeout}, or less under a deadline) ends it. Hedges draw from the retry budget, so at most that
+     * share of requests (10%) is sent twice.
+     */
+    private VersionedPerson hedged(Supplier<VersionedPerson> call) {
+        // The executor's threads are not children of this one; carry the request context across explicitly
+        Supplier<VersionedPerson> withContext = RequestContext.propagate(call);
+
+        CompletableFuture<VersionedPerson> primary = CompletableFuture.supplyAsync(withContext, hedgeExecutor);
+        try {
+            return primary.get(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            if (!retryBudget.tryWithdraw()) {
+                return await(primary);
+            }
+            hedgedRequests.increment();
+            CompletableFuture<VersionedPerson> hedge = CompletableFuture.supplyAsync(withContext, hedgeExecutor);
+            return await(firstSuccess(primary, hedge));
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            primary.cancel(true);
+            throw interrupted(ex);
+        }
+    }
+
+    private static CompletableFuture<VersionedPerson> firstSuccess(CompletableFuture<VersionedPerson> first,
+                                                                   CompletableFuture<VersionedPerson> second) {
+        CompletableFuture<VersionedPerson> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        for (CompletableFuture<VersionedPerson> candidate : new CompletableFuture[] {first, second}) {
+            candidate.whenComplete((person, error) -> {
+                if (error == null) {
+                    winner.complete(person);
+                } else if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        winner.whenComplete((person, error) -> {
+            first.cancel(true);
+            second.cancel(true);
+        });
+        return winner;
+    }
+
+    private static VersionedPerson await(CompletableFuture<VersionedPerson> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            throw interrupted(ex);
+        }
+    }
+
+    private static CompletionException interrupted(InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return new CompletionException("Interrupted while waiting for people-service", ex);
+    }
+
+    private static RuntimeException unwrap(ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+
+    private VersionedPerson fallback(Long id, RuntimeException failure) {
+        if (failure instanceof DeadlineExceededException deadlineExceeded) {
+            throw deadlineExceeded;
+        }
+        RequestContext.checkDeadline("people-service answered for person " + id);
+        VersionedPerson cached = cached(id);
+        if (cached == null) {
+            failedFallbacks.increment();
+            throw failure;
+        }
+        cachedFallbacks.increment();
+        if (log.isWarnEnabled()) {
+            log.warn("people-service unavailable ({}), serving last known copy of person {}",
+                    failure.getClass().getSimpleName(), id);
+        }
+        return cached;
+    }
+
+    private VersionedPerson cached(Long id) {
+        synchronized (lastKnown) {
+            return lastKnown.get(id);
+        }
+    }
+
+    private void remember(Long id, VersionedPerson person) {
+        synchronized (lastKnown) {
+            lastKnown.put(id, person);
+        }
+    }
+
+    private void forget(Long id) {
+        synchronized (lastKnown) {
+            lastKnown.remove(id);
+        }
+    }
+
+    private static Map<Long, VersionedPerson> boundedCache(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, VersionedPerson> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("people.client.rejected")
+                .description("People-service calls rejected locally without reaching the network")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static Counter fallbackCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("people.client.fallback")
+                .description("Failed people-service calls answered from the last known copy")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        hedgeExecutor.close();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.tax.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps retries and hedged requests to a fraction of first attempts.
+ * <p>
+ * Every original request deposits {@code ratio} tokens, every retry or hedge withdraws one. A small per-second
+ * floor keeps retries possible at very low traffic. When people-service is degraded this stops the client from
+ * multiplying the load it is already failing to serve.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long floorPerSecond;
+    private final long maxBalance;
+    private final AtomicLong balance;
+    private final AtomicLong lastRefillNanos = new AtomicLong(System.nanoTime());
+
+    public RetryBudget(double ratio, int minRetriesPerSecond) {
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.floorPerSecond = minRetriesPerSecond * SCALE;
+        this.maxBalance = Math.max(floorPerSecond, 10 * SCALE);
+        this.balance = new AtomicLong(floorPerSecond);
+    }
+
+    public void recordRequest() {
+        balance.accumulateAndGet(depositPerRequest, (current, add) -> Math.min(maxBalance, current + add));
+    }
+
+    public boolean tryWithdraw() {
+        refillFloor();
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+
+    private void refillFloor() {
+        long now = System.nanoTime();
+        long last = lastRefillNanos.get();
+        long elapsedMillis = (now - last) / 1_000_000;
+        if (elapsedMillis > 0 && lastRefillNanos.compareAndSet(last, now)) {
+            long refill = floorPerSecond * elapsedMillis / 1000;
+            balance.accumulateAndGet(refill, (current, add) -> Math.min(maxBalance, current + add));
+        }
+    }
+}
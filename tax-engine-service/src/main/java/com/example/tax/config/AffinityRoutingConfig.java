@@ -0,0 +1,51 @@
+package com.example.tax.config;
+
+import com.example.tax.routing.AffinityEndpoint;
+import com.example.tax.routing.AffinityRoutingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Consistent-hash affinity across tax-engine replicas ({@code app.affinity.*}). Off by default, in which case the
+ * filter is registered disabled and every request is served where it lands. The flag is read at runtime so an
+ * AOT-processed build can still turn it on.
+ */
+@Configuration
+public class AffinityRoutingConfig {
+
+    /** After correlation ids and the concurrency limit, so forwarded calls carry the id and count against the limit. */
+    public static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 30;
+
+    @Bean
+    public AffinityRoutingFilter affinityRoutingFilter(
+            @Value("${app.affinity.self:http://localhost:${server.port:8081}}") String self,
+            @Value("${app.affinity.members:}") List<String> members,
+            @Value("${app.affinity.virtual-nodes:160}") int virtualNodes,
+            @Value("${app.affinity.forward-timeout:1s}") Duration forwardTimeout,
+            MeterRegistry meterRegistry) {
+        return new AffinityRoutingFilter(self, members.isEmpty() ? List.of(self) : members, virtualNodes,
+                forwardTimeout, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AffinityRoutingFilter> affinityRoutingRegistration(
+            AffinityRoutingFilter filter,
+            @Value("${app.affinity.enabled:false}") boolean enabled) {
+        FilterRegistrationBean<AffinityRoutingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(FILTER_ORDER);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    @Bean
+    public AffinityEndpoint affinityEndpoint(AffinityRoutingFilter filter) {
+        return new AffinityEndpoint(filter);
+    }
+}
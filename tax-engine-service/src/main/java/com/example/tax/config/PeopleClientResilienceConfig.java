@@ -0,0 +1,116 @@
+package com.example.tax.config;
+
+import com.example.common.exception.DeadlineExceededException;
+import com.example.common.exception.ResourceNotFoundException;
+import com.example.tax.client.PeopleClient;
+import com.example.tax.client.ResilientPeopleClient;
+import com.example.tax.client.RetryBudget;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Circuit breaker, bulkhead, retry budget and hedging around the people-service Feign client.
+ * All limits are tunable through {@code app.services.people-service.resilience.*}.
+ */
+@Configuration
+public class PeopleClientResilienceConfig {
+
+    private static final String PEOPLE_SERVICE = "people-service";
+
+    @Bean
+    public CircuitBreaker peopleServiceCircuitBreaker(
+            @Value("${app.services.people-service.resilience.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${app.services.people-service.resilience.slow-call-threshold:2s}") Duration slowCallThreshold,
+            @Value("${app.services.people-service.resilience.open-duration:10s}") Duration openDuration,
+            @Value("${app.services.people-service.resilience.window-size:50}") int windowSize,
+            MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slidingWindowSize(windowSize)
+                .minimumNumberOfCalls(Math.min(windowSize, 10))
+                .waitDurationInOpenState(openDuration)
+                .permittedNumberOfCallsInHalfOpenState(5)
+                .ignoreExceptions(ResourceNotFoundException.class, DeadlineExceededException.class)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(PEOPLE_SERVICE);
+    }
+
+    @Bean
+    public Bulkhead peopleServiceBulkhead(
+            @Value("${app.services.people-service.resilience.max-concurrent-calls:32}") int maxConcurrentCalls,
+            @Value("${app.services.people-service.resilience.max-wait:25ms}") Duration maxWait,
+            MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(PEOPLE_SERVICE);
+    }
+
+    @Bean
+    public RetryBudget peopleServiceRetryBudget(
+            @Value("${app.services.people-service.resilience.retry-budget-ratio:0.1}") double ratio,
+            @Value("${app.services.people-service.resilience.min-retries-per-second:5}") int minRetriesPerSecond,
+            MeterRegistry meterRegistry) {
+        RetryBudget budget = new RetryBudget(ratio, minRetriesPerSecond);
+        Gauge.builder("people.client.retry.budget", budget, RetryBudget::available)
+                .description("Retry/hedge tokens currently available")
+                .register(meterRegistry);
+        return budget;
+    }
+
+    @Bean
+    public Retry peopleServiceRetry(
+            @Value("${app.services.people-service.resilience.max-attempts:3}") int maxAttempts,
+            @Value("${app.services.people-service.resilience.retry-backoff:50ms}") Duration backoff,
+            RetryBudget retryBudget,
+            MeterRegistry meterRegistry) {
+        RetryRegistry registry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                // Exponential backoff with +/-50% jitter so synchronized clients do not retry in lockstep
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(backoff, 2.0, 0.5))
+                .retryOnException(ex -> ResilientPeopleClient.isTransient(ex) && retryBudget.tryWithdraw())
+                .build());
+        TaggedRetryMetrics.ofRetryRegistry(registry).bindTo(meterRegistry);
+        return registry.retry(PEOPLE_SERVICE);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ResilientPeopleClient resilientPeopleClient(
+            PeopleClient peopleClient,
+            CircuitBreaker peopleServiceCircuitBreaker,
+            Bulkhead peopleServiceBulkhead,
+            Retry peopleServiceRetry,
+            RetryBudget peopleServiceRetryBudget,
+            @Value("${app.services.people-service.resilience.hedge-delay:150ms}") Duration hedgeDelay,
+            @Value("${app.services.people-service.resilience.fallback-cache-size:10000}") int fallbackCacheSize,
+            MeterRegistry meterRegistry) {
+        return new ResilientPeopleClient(peopleClient, peopleServiceCircuitBreaker, peopleServiceBulkhead,
+                peopleServiceRetry, peopleServiceRetryBudget, hedgeDelay,
+                Executors.newVirtualThreadPerTaskExecutor(), fallbackCacheSize, meterRegistry);
+    }
+}
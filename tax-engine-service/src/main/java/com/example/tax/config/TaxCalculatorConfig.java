@@ -0,0 +1,15 @@
+package com.example.tax.config;
+
+import com.example.tax.core.TaxCalculator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** The tax math comes from the Spring-free tax-core module; this service only wraps it with HTTP, storage and metrics. */
+@Configuration
+public class TaxCalculatorConfig {
+
+    @Bean
+    public TaxCalculator taxCalculator() {
+        return new TaxCalculator();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.tax.controller;
+
+import com.example.common.enums.TaxRegime;
+import com.example.tax.model.SimulationRequest;
+import com.example.tax.model.SimulationResult;
+import com.example.tax.model.SnapshotInfo;
+import com.example.tax.model.TaxPolicy;
+import com.example.tax.service.PolicySimulationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/tax/simulations")
+public class SimulationController {
+
+    private final PolicySimulationService simulationService;
+
+    public SimulationController(PolicySimulationService simulationService) {
+        this.simulationService = simulationService;
+    }
+
+    /** The policy a regime applies today; a starting point for candidate policies. */
+    @GetMapping("/policy")
+    public ResponseEntity<TaxPolicy> currentPolicy(@RequestParam(defaultValue = "NEW") TaxRegime regime) {
+        return ResponseEntity.ok(simulationService.currentPolicy(regime));
+    }
+
+    @PostMapping
+    public ResponseEntity<SimulationResult> simulate(@RequestBody SimulationRequest request) {
+        return ResponseEntity.ok(simulationService.simulate(request.regime(), request.candidate()));
+    }
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<SnapshotInfo> snapshot() {
+        return ResponseEntity.ok(simulationService.snapshotInfo());
+    }
+
+    @PostMapping("/snapshot")
+    public ResponseEntity<SnapshotInfo> reloadSnapshot() {
+        return ResponseEntity.ok(simulationService.reload());
+    }
+}
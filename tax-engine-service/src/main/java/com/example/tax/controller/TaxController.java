@@ -1,24 +1,40 @@
 package com.example.tax.controller;
 
-import com.example.common.domain.Person;
 import com.example.common.domain.TaxAssessmentRequest;
 import com.example.common.domain.TaxResult;
+import com.example.common.domain.VersionedPerson;
 import com.example.common.enums.TaxRegime;
-import com.example.tax.client.PeopleClient;
+import com.example.common.stream.ChangeStream;
+import com.example.common.web.ETags;
+import com.example.tax.client.ResilientPeopleClient;
+import com.example.tax.core.TaxConstants;
+import com.example.tax.model.StoredTaxResult;
 import com.example.tax.service.TaxCalculationService;
+import com.example.tax.service.TaxResultStore;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
 
 @RestController
 @RequestMapping("/tax")
 public class TaxController {
 
     private final TaxCalculationService taxCalculationService;
-    private final PeopleClient peopleClient;
+    private final ResilientPeopleClient peopleClient;
+    private final TaxResultStore taxResultStore;
+    private final ChangeStream changeStream;
 
-    public TaxController(TaxCalculationService taxCalculationService, PeopleClient peopleClient) {
+    public TaxController(TaxCalculationService taxCalculationService, ResilientPeopleClient peopleClient,
+                         TaxResultStore taxResultStore, ChangeStream changeStream) {
         this.taxCalculationService = taxCalculationService;
         this.peopleClient = peopleClient;
+        this.taxResultStore = taxResultStore;
+        this.changeStream = changeStream;
     }
 
     @PostMapping("/calculate")
@@ -27,12 +43,48 @@ public class TaxController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Tagged with the person's record version, the tax-table version and the regime, so a polling client gets 304
+     * until one of them changes. The person is still revalidated with people-service, conditionally.
+     */
     @GetMapping("/calculate/{personId}")
     public ResponseEntity<TaxResult> calculateTaxForPerson(
+            @PathVariable Long personId,
+            @RequestParam(defaultValue = "NEW") TaxRegime regime,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        VersionedPerson person = peopleClient.getVersionedPersonById(personId);
+        if (person.version() == ResilientPeopleClient.UNVERSIONED) {
+            return ResponseEntity.ok(taxCalculationService.calculateTax(person.person(), regime));
+        }
+        String etag = ETags.of(person.version(), TaxConstants.TABLE_VERSION, regime);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(taxCalculationService.calculateTax(person.person(), regime));
+    }
+
+    /** Served from the materialized store; only a person seen for the first time costs a people-service call. */
+    @GetMapping("/results/{personId}")
+    public ResponseEntity<StoredTaxResult> getStoredResult(
             @PathVariable Long personId,
             @RequestParam(defaultValue = "NEW") TaxRegime regime) {
-        Person person = peopleClient.getPersonById(personId);
-        TaxResult result = taxCalculationService.calculateTax(person, regime);
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(taxResultStore.get(personId, regime));
+    }
+
+    /** Change hook for people-service: recomputes the stored results of a person only if the record changed. */
+    @PostMapping("/results/{personId}/refresh")
+    public ResponseEntity<Void> refreshStoredResults(@PathVariable Long personId) {
+        taxResultStore.refresh(personId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Server-sent events for stored results recomputed on this instance ({@code result}) and results dropped with
+     * their person ({@code removed}), optionally only for the persons in {@code ids}. {@code Last-Event-ID} resumes.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamResults(@RequestParam(required = false) Set<Long> ids,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeStream.subscribe(ids, lastEventId);
     }
 }
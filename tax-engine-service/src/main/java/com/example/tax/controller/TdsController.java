@@ -0,0 +1,30 @@
+package com.example.tax.controller;
+
+import com.example.tax.model.PayrollResult;
+import com.example.tax.model.PayrollRun;
+import com.example.tax.model.YearToDate;
+import com.example.tax.service.TdsWithholdingService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/tax/tds")
+public class TdsController {
+
+    private final TdsWithholdingService tdsService;
+
+    public TdsController(TdsWithholdingService tdsService) {
+        this.tdsService = tdsService;
+    }
+
+    /** Works out and records the month's withholding for the whole payroll; a month is processed once. */
+    @PostMapping("/payroll")
+    public ResponseEntity<PayrollResult> runPayroll(@RequestBody PayrollRun run) {
+        return ResponseEntity.ok(tdsService.runPayroll(run));
+    }
+
+    @GetMapping("/{personId}")
+    public ResponseEntity<YearToDate> yearToDate(@PathVariable Long personId, @RequestParam int fiscalYear) {
+        return ResponseEntity.ok(tdsService.yearToDate(personId, fiscalYear));
+    }
+}
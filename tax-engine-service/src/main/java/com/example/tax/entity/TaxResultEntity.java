@@ -0,0 +1,56 @@
+package com.example.tax.entity;
+
+import com.example.common.domain.TaxResult;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One materialized tax result. {@code personSnapshot} is the person JSON the result was computed from: a change is
+ * detected by comparing it with a fresh copy, and a new tax table is applied from it without calling people-service.
+ */
+@Entity
+@Table(name = "tax_result", indexes = @Index(name = "idx_tax_result_verified_at", columnList = "verifiedAt"))
+@Data
+@NoArgsConstructor
+public class TaxResultEntity {
+    @EmbeddedId
+    private TaxResultKey id;
+
+    @Column(length = 1024, nullable = false)
+    private String personSnapshot;
+
+    private BigDecimal grossIncome;
+    private BigDecimal deductions;
+    private BigDecimal taxableIncome;
+    private BigDecimal baseTax;
+    private BigDecimal surcharge;
+    private BigDecimal cess;
+    private BigDecimal totalTaxLiability;
+    private BigDecimal netTakeHome;
+
+    private Instant computedAt; // When the result was last recomputed
+    private Instant verifiedAt; // When the snapshot was last confirmed against people-service
+
+    public TaxResultEntity(TaxResultKey id, String personSnapshot, TaxResult result, Instant now) {
+        this.id = id;
+        this.personSnapshot = personSnapshot;
+        this.grossIncome = result.grossIncome();
+        this.deductions = result.deductions();
+        this.taxableIncome = result.taxableIncome();
+        this.baseTax = result.baseTax();
+        this.surcharge = result.surcharge();
+        this.cess = result.cess();
+        this.totalTaxLiability = result.totalTaxLiability();
+        this.netTakeHome = result.netTakeHome();
+        this.computedAt = now;
+        this.verifiedAt = now;
+    }
+
+    public TaxResult toTaxResult() {
+        return new TaxResult(grossIncome, deductions, taxableIncome, baseTax, surcharge, cess, totalTaxLiability,
+                netTakeHome);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.tax.entity;
+
+import com.example.common.enums.TaxRegime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxResultKey implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long personId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private TaxRegime regime;
+
+    @Column(length = 16)
+    private String tableVersion;
+}
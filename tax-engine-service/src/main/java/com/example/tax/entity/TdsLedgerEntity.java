@@ -0,0 +1,47 @@
+package com.example.tax.entity;
+
+import com.example.common.enums.PersonType;
+import com.example.common.enums.TaxRegime;
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Year-to-date withholding state of one person: everything a month's TDS needs, in paise, so a payroll run never
+ * looks at earlier months. {@code monthlyPay}, {@code regime}, {@code personType} and {@code tableVersion} are the
+ * inputs the stored projection was made from; while they hold, the projection is reused as is.
+ */
+@Entity
+@Table(name = "tds_ledger")
+@Data
+@NoArgsConstructor
+public class TdsLedgerEntity {
+    @EmbeddedId
+    private TdsLedgerKey id;
+
+    @Version
+    private Long version; // Also tells Spring Data a fresh ledger from a loaded one
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private TaxRegime regime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private PersonType personType;
+
+    @Column(length = 16)
+    private String tableVersion;
+
+    private int lastMonth;      // 1 = April ... 12 = March; 0 before the first payroll
+    private long monthlyPay;    // Pay of the last processed month
+    private long incomePaid;    // Year to date
+    private long taxWithheld;   // Year to date
+    private long projectedTax;  // Annual liability on the projected annual income
+    private Instant updatedAt;
+
+    public TdsLedgerEntity(TdsLedgerKey id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.tax.entity;
+
+import java.io.Serializable;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A person's withholding ledger for one financial year; {@code fiscalYear} 2025 is FY 2025-26. */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TdsLedgerKey implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long personId;
+
+    private int fiscalYear;
+}
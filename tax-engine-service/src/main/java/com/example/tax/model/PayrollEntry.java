@@ -0,0 +1,14 @@
+package com.example.tax.model;
+
+import com.example.common.enums.PersonType;
+import com.example.common.enums.TaxRegime;
+
+import java.math.BigDecimal;
+
+/** One person's pay for the month, in rupees. */
+public record PayrollEntry(
+        Long personId,
+        PersonType personType,
+        TaxRegime regime,
+        BigDecimal grossPay) {
+}
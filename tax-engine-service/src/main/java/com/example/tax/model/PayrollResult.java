@@ -0,0 +1,25 @@
+package com.example.tax.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Withholding for every entry of a {@link PayrollRun}, in entry order. {@code reprojected} counts the people whose
+ * annual liability had to be recomputed because pay, regime or tax table changed since their last month.
+ */
+public record PayrollResult(
+        int fiscalYear,
+        int month,
+        List<Withholding> withholdings,
+        BigDecimal totalWithheld,
+        int reprojected,
+        long elapsedMillis) {
+
+    public record Withholding(
+            Long personId,
+            BigDecimal tds,
+            BigDecimal incomeToDate,
+            BigDecimal taxWithheldToDate,
+            BigDecimal projectedAnnualTax) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.tax.model;
+
+import java.util.List;
+
+/**
+ * A month's payroll. {@code fiscalYear} is the year the financial year starts in (2025 for FY 2025-26) and
+ * {@code month} counts from April: 1 = April ... 12 = March.
+ */
+public record PayrollRun(
+        int fiscalYear,
+        int month,
+        List<PayrollEntry> entries) {
+}
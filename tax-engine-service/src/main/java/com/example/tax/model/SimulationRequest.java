@@ -0,0 +1,11 @@
+package com.example.tax.model;
+
+import com.example.common.enums.TaxRegime;
+
+/**
+ * A candidate policy, evaluated against the current policy of {@code regime}.
+ */
+public record SimulationRequest(
+        TaxRegime regime,
+        TaxPolicy candidate) {
+}
@@ -0,0 +1,30 @@
+package com.example.tax.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Revenue impact of a candidate policy over the whole population snapshot. Winners pay less than today, losers pay
+ * more. Bands are gross-income ranges in rupees; the last one has no upper bound.
+ */
+public record SimulationResult(
+        long population,
+        BigDecimal baselineRevenue,
+        BigDecimal candidateRevenue,
+        BigDecimal revenueDelta,
+        long winners,
+        long losers,
+        List<BandImpact> bands,
+        long elapsedMillis) {
+
+    public record BandImpact(
+            BigDecimal fromIncome,
+            BigDecimal toIncome,
+            long people,
+            BigDecimal baselineRevenue,
+            BigDecimal candidateRevenue,
+            BigDecimal revenueDelta,
+            long winners,
+            long losers) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.tax.model;
+
+/**
+ * The population snapshot simulations currently run against.
+ */
+public record SnapshotInfo(
+        String source,
+        int population,
+        long loadMillis) {
+}
@@ -0,0 +1,20 @@
+package com.example.tax.model;
+
+import com.example.common.domain.TaxResult;
+import com.example.common.enums.TaxRegime;
+
+import java.time.Instant;
+
+/**
+ * A tax result served from the materialized store. {@code stale} is set when the person snapshot behind it has not
+ * been confirmed against people-service within the configured maximum age.
+ */
+public record StoredTaxResult(
+        Long personId,
+        TaxRegime regime,
+        String tableVersion,
+        TaxResult result,
+        Instant computedAt,
+        Instant verifiedAt,
+        boolean stale) {
+}
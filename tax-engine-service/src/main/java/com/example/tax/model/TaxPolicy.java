@@ -0,0 +1,22 @@
+package com.example.tax.model;
+
+import com.example.tax.core.TaxSlab;
+import com.example.tax.core.strategy.TaxRegimeStrategy;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The slab-dependent part of a regime, in rupees: what a budget "what if" varies. Cess and the presumptive
+ * deduction rates are taken from {@code TaxConstants}.
+ */
+public record TaxPolicy(
+        BigDecimal standardDeduction,
+        BigDecimal rebateLimit,
+        List<TaxSlab> slabs) {
+
+    /** The policy a regime applies today. */
+    public static TaxPolicy of(TaxRegimeStrategy strategy) {
+        return new TaxPolicy(strategy.getStandardDeduction(), strategy.getRebateLimit(), strategy.getSlabs());
+    }
+}
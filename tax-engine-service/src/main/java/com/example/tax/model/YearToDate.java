@@ -0,0 +1,18 @@
+package com.example.tax.model;
+
+import com.example.common.enums.TaxRegime;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/** A person's withholding position within a financial year, in rupees. */
+public record YearToDate(
+        Long personId,
+        int fiscalYear,
+        TaxRegime regime,
+        int lastMonth,
+        BigDecimal incomePaid,
+        BigDecimal taxWithheld,
+        BigDecimal projectedAnnualTax,
+        Instant updatedAt) {
+}
@@ -0,0 +1,54 @@
+package com.example.tax.repository;
+
+import com.example.common.enums.TaxRegime;
+import com.example.tax.entity.TaxResultEntity;
+import com.example.tax.entity.TaxResultKey;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface TaxResultRepository extends JpaRepository<TaxResultEntity, TaxResultKey> {
+
+    /** Active-version rows not confirmed against people-service since {@code cutoff}, oldest first. */
+    List<TaxResultEntity> findByIdTableVersionAndVerifiedAtBeforeOrderByVerifiedAtAsc(
+            String tableVersion, Instant cutoff, Pageable page);
+
+    /** Rows computed under another tax table that have no counterpart under {@code tableVersion} yet. */
+    @Query("""
+            SELECT r FROM TaxResultEntity r
+            WHERE r.id.tableVersion <> :tableVersion
+              AND NOT EXISTS (SELECT 1 FROM TaxResultEntity a
+                              WHERE a.id.personId = r.id.personId
+                                AND a.id.regime = r.id.regime
+                                AND a.id.tableVersion = :tableVersion)
+            ORDER BY r.id.personId
+            """)
+    List<TaxResultEntity> findSuperseded(@Param("tableVersion") String tableVersion, Pageable page);
+
+    /** Most recent row for a person and regime under any tax table. */
+    TaxResultEntity findFirstByIdPersonIdAndIdRegimeOrderByComputedAtDesc(Long personId,
+            TaxRegime regime);
+
+    boolean existsByIdPersonId(Long personId);
+
+    /** Those of {@code personIds} that have at least one stored row, under any tax table. */
+    @Query("SELECT DISTINCT r.id.personId FROM TaxResultEntity r WHERE r.id.personId IN :personIds")
+    List<Long> findStoredPersonIds(@Param("personIds") Collection<Long> personIds);
+
+    @Transactional
+    long deleteByIdPersonId(Long personId);
+
+    /** Moves {@code verifiedAt} back to {@code at} on every row verified later, so reconciliation re-checks them. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE TaxResultEntity r SET r.verifiedAt = :at WHERE r.verifiedAt > :at")
+    int markVerifiedAt(@Param("at") Instant at);
+}
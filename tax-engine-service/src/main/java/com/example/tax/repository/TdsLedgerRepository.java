@@ -0,0 +1,10 @@
+package com.example.tax.repository;
+
+import com.example.tax.entity.TdsLedgerEntity;
+import com.example.tax.entity.TdsLedgerKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TdsLedgerRepository extends JpaRepository<TdsLedgerEntity, TdsLedgerKey> {
+}
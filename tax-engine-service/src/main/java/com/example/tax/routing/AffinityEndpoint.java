@@ -0,0 +1,29 @@
+package com.example.tax.routing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/affinity}: the ring this replica routes by, read-only. Membership comes from
+ * {@code app.affinity.members} alone: a writable ring would let any caller point person reads at an arbitrary URL
+ * and have the response relayed back.
+ */
+@Endpoint(id = "affinity")
+public class AffinityEndpoint {
+
+    private final AffinityRoutingFilter filter;
+
+    public AffinityEndpoint(AffinityRoutingFilter filter) {
+        this.filter = filter;
+    }
+
+    @ReadOperation
+    public Membership membership() {
+        return new Membership(filter.getSelf(), filter.getMembers());
+    }
+
+    public record Membership(String self, List<String> members) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.tax.routing;
+
+import com.example.common.context.Deadline;
+import com.example.common.context.RequestContext;
+import com.example.common.logging.CorrelationIdFilter;
+import com.example.common.routing.ConsistentHashRing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends person-keyed reads to the replica that owns the person, so each person's cached data (stored results,
+ * last-known person copies, ETags) lives on one replica instead of on all of them behind a round-robin balancer.
+ * <p>
+ * Owners come from a {@link ConsistentHashRing} over {@code app.affinity.members}; a request this replica owns, one
+ * that was already forwarded once ({@value #HOP_HEADER}), or any other path is served locally. If the owner cannot
+ * be reached in time the request is served locally as well: affinity is an optimisation, never a dependency.
+ */
+@Slf4j
+public final class AffinityRoutingFilter extends OncePerRequestFilter {
+
+    public static final String HOP_HEADER = "X-Affinity-Hop";
+    public static final String REQUESTS = "tax.affinity.requests";
+
+    private static final Pattern PERSON_PATH = Pattern.compile("^/tax/(?:calculate|results)/(\\d{1,18})$");
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(HttpHeaders.ACCEPT,
+            HttpHeaders.IF_NONE_MATCH);
+    private static final List<String> RETURNED_RESPONSE_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            HttpHeaders.RETRY_AFTER);
+
+    private final String self;
+    private final ConsistentHashRing ring;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final Counter local;
+    private final Counter forwarded;
+    private final Counter fallback;
+
+    public AffinityRoutingFilter(String self, List<String> members, int virtualNodes, Duration timeout,
+                                 MeterRegistry meterRegistry) {
+        if (!members.contains(self)) {
+            throw new IllegalArgumentException("Affinity members " + members + " must include this replica, " + self);
+        }
+        this.self = self;
+        this.ring = new ConsistentHashRing(members, virtualNodes);
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.local = requestCounter(meterRegistry, "local");
+        this.forwarded = requestCounter(meterRegistry, "forwarded");
+        this.fallback = requestCounter(meterRegistry, "fallback");
+    }
+
+    public List<String> getMembers() {
+        return ring.members();
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws IOException, ServletException {
+        String owner = owner(request);
+        if (owner == null || owner.equals(self)) {
+            local.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            forward(owner, request, response);
+            forwarded.increment();
+        } catch (IOException ex) {
+            fallback.increment();
+            if (log.isWarnEnabled()) {
+                log.warn("Affinity owner {} unreachable ({}), serving {} locally", owner, ex.toString(),
+                        request.getRequestURI());
+            }
+            chain.doFilter(request, response);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while forwarding to " + owner, ex);
+        }
+    }
+
+    /**
+     * The owning replica for a person-keyed GET that has not been forwarded yet, otherwise null. Ids longer than 18
+     * digits (beyond {@code long}) do not match and are served locally, where they fail like any unknown id.
+     */
+    private String owner(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) || request.getHeader(HOP_HEADER) != null) {
+            return null;
+        }
+        Matcher matcher = PERSON_PATH.matcher(request.getRequestURI());
+        return matcher.matches() ? ring.ownerOf(Long.parseLong(matcher.group(1))) : null;
+    }
+
+    private void forward(String owner, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, InterruptedException {
+        String query = request.getQueryString();
+        Deadline deadline = RequestContext.currentDeadline();
+        HttpRequest.Builder forward = HttpRequest.newBuilder(URI.create(owner + request.getRequestURI()
+                        + (query == null ? "" : "?" + query)))
+                .timeout(deadline == null ? timeout : shorter(timeout, Duration.ofNanos(deadline.remainingNanos())))
+                .header(HOP_HEADER, self)
+                .GET();
+        for (String name : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                forward.header(name, value);
+            }
+        }
+        String correlationId = RequestContext.currentCorrelationId();
+        if (correlationId != null) {
+            forward.header(CorrelationIdFilter.CORRELATION_ID_HEADER, correlationId);
+        }
+        if (deadline != null) {
+            forward.header(CorrelationIdFilter.BUDGET_HEADER, Long.toString(deadline.remainingMillis()));
+        }
+        HttpResponse<byte[]> answer = client.send(forward.build(), HttpResponse.BodyHandlers.ofByteArray());
+        response.setStatus(answer.statusCode());
+        for (String name : RETURNED_RESPONSE_HEADERS) {
+            answer.headers().firstValue(name).ifPresent(value -> response.setHeader(name, value));
+        }
+        response.getOutputStream().write(answer.body());
+    }
+
+    private static Duration shorter(Duration configured, Duration remaining) {
+        // HttpClient rejects a zero timeout; an exhausted budget gets the shortest one instead
+        return remaining.compareTo(configured) < 0 ? remaining.plusMillis(1) : configured;
+    }
+
+    @Override
+    public void destroy() {
+        client.close();
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String route) {
+        return Counter.builder(REQUESTS)
+                .description("Person-keyed requests by where they were served")
+                .tag("route", route)
+                .register(registry);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.tax.service;
+
+import com.example.common.domain.Person;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Follows people-service's change stream ({@code GET /people/stream}, server-sent events) so stored tax results
+ * follow a person as soon as it changes instead of when {@link TaxResultReconciler} gets to it:
+ * <ul>
+ *   <li>{@code updated} carrying the person recomputes from it (only if its snapshot differs); an event carrying only
+ *       ids, and {@code bulk-updated} by ids, re-read each of those people;</li>
+ *   <li>{@code deleted} drops the results of the listed people;</li>
+ *   <li>{@code bulk-updated} by type, and {@code reset} (changes were missed), mark every stored row unverified so the
+ *       reconciler re-checks them batch by batch.</li>
+ * </ul>
+ * Only people that already have stored results are refreshed: {@code created} is ignored, and ids are checked
+ * against the store before any re-read, so results are computed for people someone asked about, not for every write.
+ * A dropped connection, or an {@code evicted} notice, reconnects after {@code app.tax.store.people-changes-retry}
+ * with the last event id seen, so people-service replays what was missed while it still holds it. An event that
+ * cannot be applied (people-service down for a re-read) is logged and left to the reconciler, as are changes made on
+ * people-service instances other than the one the stream is read from.
+ */
+@Slf4j
+@Component
+public class PeopleChangeFollower implements SmartLifecycle {
+
+    static final String STREAM_PATH = "/people/stream";
+
+    private static final String IDS = "ids";
+
+    private final TaxResultStore store;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader personReader;
+    private final URI streamUri;
+    private final boolean enabled;
+    private final Duration retry;
+    private volatile HttpClient httpClient;
+    private volatile Thread follower;
+    private volatile boolean running;
+
+    // Written by the follower thread only; empty until the first event with an id
+    private String lastEventId = "";
+
+    public PeopleChangeFollower(TaxResultStore store, ObjectMapper objectMapper,
+                                @Value("${app.services.people-service.url}") String peopleServiceUrl,
+                                @Value("${app.tax.store.follow-people-changes:true}") boolean enabled,
+                                @Value("${app.tax.store.people-changes-retry:PT5S}") Duration retry) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.personReader = objectMapper.readerFor(Person.class);
+        this.streamUri = URI.create(peopleServiceUrl + STREAM_PATH);
+        this.enabled = enabled;
+        this.retry = retry;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        httpClient = HttpClient.newBuilder().connectTimeout(retry).build();
+        follower = Thread.ofVirtual().name("people-changes").start(this::follow);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = follower;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (httpClient != null) {
+            // Aborts the open stream; the follower sees an IOException and finds running cleared
+            httpClient.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void follow() {
+        while (running) {
+            try {
+                read();
+            } catch (IOException ex) {
+                if (running && log.isWarnEnabled()) {
+                    log.warn("Change stream of people-service unavailable ({}); retrying in {}", ex.toString(), retry);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                Thread.sleep(retry);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** One connection: parses events until people-service closes the stream. */
+    private void read() throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(streamUri)
+                .header("Accept", "text/event-stream")
+                .GET();
+        if (!lastEventId.isEmpty()) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        try (Stream<String> lines = response.body()) {
+            if (response.statusCode() != HttpStatus.OK.value()) {
+                throw new IOException("people-service answered " + response.statusCode());
+            }
+            EventParser parser = new EventParser();
+            for (Iterator<String> it = lines.iterator(); it.hasNext() && running; ) {
+                parser.accept(it.next());
+            }
+        }
+    }
+
+    private void apply(String type, String data) {
+        try {
+            JsonNode event = objectMapper.readTree(data);
+            switch (type) {
+                case "updated" -> refresh(event);
+                case "bulk-updated" -> {
+                    if (event.has(IDS)) {
+                        store.refreshIfStored(personIds(event));
+                    } else {
+                        store.markAllUnverified();
+                    }
+                }
+                case "deleted" -> event.get(IDS).forEach(id -> store.remove(id.asLong()));
+                case "reset" -> store.markAllUnverified();
+                default -> {
+                    // created: nothing is stored for a new person yet
+                    // evicted: people-service closes the connection, and the next one resumes
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            if (log.isWarnEnabled()) {
+                log.warn("Could not apply people-service {} event, leaving it to reconciliation: {}", type,
+                        ex.toString());
+            }
+        }
+    }
+
+    private void refresh(JsonNode event) throws IOException {
+        if (event.has("personType")) {
+            store.refreshIfStored(personReader.<Person>readValue(event));
+        } else {
+            store.refreshIfStored(List.of(event.get("id").asLong()));
+        }
+    }
+
+    private static List<Long> personIds(JsonNode event) {
+        List<Long> ids = new ArrayList<>(event.get(IDS).size());
+        event.get(IDS).forEach(id -> ids.add(id.asLong()));
+        return ids;
+    }
+
+    /** Collects the fields of one server-sent event; a blank line dispatches it. */
+    private final class EventParser {
+
+        private String id = "";
+        private String type = "";
+        private final List<String> data = new ArrayList<>();
+
+        void accept(String line) {
+            if (line.isEmpty()) {
+                if (!type.isEmpty()) {
+                    apply(type, String.join("\n", data));
+                }
+                if (!id.isEmpty()) {
+                    lastEventId = id;
+                }
+                id = "";
+                type = "";
+                data.clear();
+                return;
+            }
+            if (line.startsWith(":")) {
+                return; // comment, e.g. the keepalive
+            }
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            String value = colon < 0 ? "" : line.substring(line.startsWith(": ", colon) ? colon + 2 : colon + 1);
+            switch (field) {
+                case "id" -> id = value;
+                case "event" -> type = value;
+                case "data" -> data.add(value);
+                default -> {
+                    // retry and unknown fields are ignored
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.tax.service;
+
+import com.example.common.domain.Person;
+import com.example.common.enums.TaxRegime;
+import com.example.common.population.PopulationGenerator;
+import com.example.tax.core.TaxCalculator;
+import com.example.tax.model.SimulationResult;
+import com.example.tax.model.SnapshotInfo;
+import com.example.tax.model.TaxPolicy;
+import com.example.tax.simulation.PopulationSnapshot;
+import com.example.tax.simulation.TaxPolicySimulator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Budget "what if" simulations over a columnar snapshot of the whole population.
+ * <p>
+ * The snapshot is loaded on first use from {@code app.simulation.snapshot-file} (NDJSON, as written by
+ * {@code PopulationExport}) or, when that is blank, generated from {@link PopulationGenerator} with
+ * {@code app.simulation.synthetic-count} people. It stays in memory until {@link #reload()}.
+ */
+@Slf4j
+@Service
+public class PolicySimulationService {
+
+    private final TaxCalculator taxCalculator;
+    private final ObjectReader personReader;
+    private final String snapshotFile;
+    private final int syntheticCount;
+    private final long seed;
+    private final List<BigDecimal> bandEdges;
+
+    private volatile PopulationSnapshot loaded;
+    private volatile SnapshotInfo loadedInfo;
+
+    public PolicySimulationService(TaxCalculator taxCalculator, ObjectMapper objectMapper,
+                                   @Value("${app.simulation.snapshot-file:}") String snapshotFile,
+                                   @Value("${app.simulation.synthetic-count:1000000}") int syntheticCount,
+                                   @Value("${app.simulation.seed:42}") long seed,
+                                   @Value("${app.simulation.bands:500000,1000000,1500000,2500000,5000000,10000000}")
+                                   List<BigDecimal> bandEdges) {
+        this.taxCalculator = taxCalculator;
+        this.personReader = objectMapper.readerFor(Person.class);
+        this.snapshotFile = snapshotFile;
+        this.syntheticCount = syntheticCount;
+        this.seed = seed;
+        this.bandEdges = List.copyOf(bandEdges);
+    }
+
+    public TaxPolicy currentPolicy(TaxRegime regime) {
+        return TaxPolicy.of(taxCalculator.strategy(regime));
+    }
+
+    public SimulationResult simulate(TaxRegime regime, TaxPolicy candidate) {
+        if (regime == null || candidate == null) {
+            throw new IllegalArgumentException("Both regime and candidate policy are required");
+        }
+        return TaxPolicySimulator.simulate(currentSnapshot(), currentPolicy(regime), candidate, bandEdges);
+    }
+
+    public SnapshotInfo snapshotInfo() {
+        currentSnapshot();
+        return loadedInfo;
+    }
+
+    /** Replaces the snapshot with a fresh load from the configured source. */
+    public synchronized SnapshotInfo reload() {
+        long start = System.nanoTime();
+        String source;
+        PopulationSnapshot snapshot;
+        if (snapshotFile.isBlank()) {
+            source = "synthetic(seed=" + seed + ")";
+            snapshot = PopulationSnapshot.synthetic(new PopulationGenerator(seed), syntheticCount);
+        } else {
+            source = snapshotFile;
+            snapshot = load(Path.of(snapshotFile));
+        }
+        SnapshotInfo info = new SnapshotInfo(source, snapshot.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        loaded = snapshot;
+        loadedInfo = info;
+        if (log.isInfoEnabled()) {
+            log.info("Loaded population snapshot of {} people from {} in {} ms",
+                    info.population(), info.source(), info.loadMillis());
+        }
+        return info;
+    }
+
+    private PopulationSnapshot currentSnapshot() {
+        PopulationSnapshot current = loaded;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (loaded == null) {
+                reload();
+            }
+            return loaded;
+        }
+    }
+
+    private PopulationSnapshot load(Path file) {
+        try (Stream<String> lines = Files.lines(file)) {
+            return PopulationSnapshot.of(lines.filter(line -> !line.isBlank()).map(this::parse));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read population snapshot " + file, ex);
+        }
+    }
+
+    private Person parse(String line) {
+        try {
+            return personReader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Malformed person in population snapshot: " + line, ex);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.tax.service;
+
+import com.example.common.enums.PersonType;
+import com.example.common.enums.TaxRegime;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One {@link TaxCalculationService#calculateTax} call; lets JFR samples be grouped by regime and persona. */
+@Name("com.example.TaxCalculation")
+@Label("Tax Calculation")
+@Category({"People & Tax", "Tax Engine"})
+@Description("A single tax liability calculation")
+@StackTrace(false)
+final class TaxCalculationEvent extends jdk.jfr.Event {
+
+    @Label("Person Id")
+    private long personId;
+
+    @Label("Regime")
+    private String regime;
+
+    @Label("Person Type")
+    private String personType;
+
+    void commit(Long personId, TaxRegime regime, PersonType personType) {
+        this.personId = personId == null ? 0 : personId;
+        this.regime = regime.name();
+        this.personType = personType.name();
+        commit();
+    }
+}
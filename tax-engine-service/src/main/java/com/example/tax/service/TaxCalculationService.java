@@ -1,77 +1,71 @@
 package com.example.tax.service;
 
-import com.example.common.domain.*;
+import com.example.common.domain.Person;
+import com.example.common.domain.TaxResult;
+import com.example.common.enums.PersonType;
 import com.example.common.enums.TaxRegime;
-import com.example.tax.constants.TaxConstants;
-import com.example.tax.strategy.TaxRegimeStrategy;
-import com.example.tax.strategy.TaxStrategyFactory;
+import com.example.common.logging.LogRateLimiter;
+import com.example.tax.core.TaxCalculator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Smart Tax Calculation Orchestrator.
- * USES Strategy Pattern and Java 21 Record Patterns for maximum flexibility.
+ * Tax calculation as a service: the math is {@link TaxCalculator} from tax-core, this adds the latency timers, the
+ * JFR event and logging around it.
  */
 @Slf4j
 @Service
 public class TaxCalculationService {
 
-    private final TaxStrategyFactory strategyFactory;
+    public static final String CALCULATION_TIMER = "tax.calculation";
 
-    public TaxCalculationService(TaxStrategyFactory strategyFactory) {
-        this.strategyFactory = strategyFactory;
+    private static final LogRateLimiter CALCULATION_LOG_LIMITER = new LogRateLimiter(10, Duration.ofSeconds(1));
+
+    private final TaxCalculator taxCalculator;
+    private final Map<TaxRegime, Map<PersonType, Timer>> timers = new EnumMap<>(TaxRegime.class);
+
+    public TaxCalculationService(TaxCalculator taxCalculator, MeterRegistry meterRegistry) {
+        this.taxCalculator = taxCalculator;
+        // Timers are resolved once up front so the hot path never builds tag sets or hits the registry map.
+        for (TaxRegime regime : TaxRegime.values()) {
+            Map<PersonType, Timer> byType = new EnumMap<>(PersonType.class);
+            for (PersonType type : PersonType.values()) {
+                byType.put(type, Timer.builder(CALCULATION_TIMER)
+                        .description("Latency of a single tax calculation")
+                        .tag("regime", regime.name())
+                        .tag("person.type", type.name())
+                        .register(meterRegistry));
+            }
+            timers.put(regime, byType);
+        }
     }
 
     public TaxResult calculateTax(Person person, TaxRegime regime) {
-        if (log.isInfoEnabled()) {
-            log.info("Calculating tax for person ID: {}", person.id());
+        TaxCalculationEvent event = new TaxCalculationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        TaxResult result = doCalculateTax(person, regime);
+        timers.get(regime).get(person.personType()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        event.end();
+        if (event.shouldCommit()) {
+            event.commit(person.id(), regime, person.personType());
         }
-        TaxRegimeStrategy strategy = strategyFactory.getStrategy(regime);
-
-        BigDecimal grossIncome = person.income();
-        BigDecimal deductions = calculateDeductions(person, strategy);
-        BigDecimal taxableIncome = grossIncome.subtract(deductions).max(BigDecimal.ZERO);
-
-        BigDecimal baseTax = strategy.calculateBaseTax(taxableIncome);
-
-        BigDecimal cess = baseTax.multiply(TaxConstants.HEALTH_AND_EDU_CESS_RATE).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal totalTax = baseTax.add(cess);
-        BigDecimal netTakeHome = grossIncome.subtract(totalTax);
-
-        return new TaxResult(
-                grossIncome,
-                deductions,
-                taxableIncome,
-                baseTax,
-                BigDecimal.ZERO, // Surcharge logic can be added as another strategy
-                cess,
-                totalTax,
-                netTakeHome);
+        return result;
     }
 
-    /**
-     * Persona-based deduction logic using Java 21 Record Patterns.
-     * Easily extensible for new Persona types.
-     */
-    private BigDecimal calculateDeductions(Person person, TaxRegimeStrategy strategy) {
-        return switch (person) {
-            // Employees get Standard Deduction from the strategy
-            case FullTimeEmployee _ -> strategy.getStandardDeduction();
-            
-            // Contractors usually don't get standard deductions unless specialized
-            case Contractor _ -> BigDecimal.ZERO; 
-            
-            // Professionals: Sec 44ADA (50% is Income, so 50% is Deduction as expenses)
-            case SelfEmployed(_, _, _, BigDecimal annualTurnover, _) -> 
-                annualTurnover.multiply(BigDecimal.ONE.subtract(TaxConstants.Presumptive.SEC_44ADA_PROFESSIONAL_RATE))
-                        .setScale(2, RoundingMode.HALF_UP);
-            
-            // Businesses: Sec 44AD (6% is Income, so 94% is Deduction as expenses)
-            case BusinessOwner(_, _, _, BigDecimal annualBusinessTurnover, _) -> 
-                annualBusinessTurnover.multiply(BigDecimal.ONE.subtract(TaxConstants.Presumptive.SEC_44AD_BUSINESS_DIGITAL_RATE))
-                        .setScale(2, RoundingMode.HALF_UP);
-        };
+    private TaxResult doCalculateTax(Person person, TaxRegime regime) {
+        if (log.isDebugEnabled()) {
+            log.debug("Calculating tax for person ID: {}", person.id());
+        } else if (log.isInfoEnabled() && CALCULATION_LOG_LIMITER.tryAcquire()) {
+            log.info("Calculating tax for person ID: {} ({} similar messages suppressed)",
+                    person.id(), CALCULATION_LOG_LIMITER.drainSuppressed());
+        }
+        return taxCalculator.calculate(person, regime);
     }
 }
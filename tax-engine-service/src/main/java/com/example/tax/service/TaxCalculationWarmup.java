@@ -0,0 +1,66 @@
+package com.example.tax.service;
+
+import com.example.common.domain.*;
+import com.example.common.enums.TaxRegime;
+import com.example.common.warmup.WarmupTask;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exercises the {@code POST /tax/calculate} path in-process: request JSON is decoded, every {@link Person} subtype is
+ * calculated under every {@link TaxRegime}, and the result is encoded again. Incomes span all slabs so each strategy
+ * branch gets profiled. Never touches the People Service.
+ */
+@Component
+public final class TaxCalculationWarmup implements WarmupTask {
+
+    private static final String PERSON_NAME = "warmup";
+    private static final String EMAIL = "warmup@localhost";
+    private static final long[] INCOMES = {300_000, 750_000, 1_250_000, 2_500_000, 12_000_000};
+
+    private final TaxCalculationService taxCalculationService;
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+    private final List<byte[]> requests = new ArrayList<>();
+
+    public TaxCalculationWarmup(TaxCalculationService taxCalculationService, ObjectMapper objectMapper)
+            throws JsonProcessingException {
+        this.taxCalculationService = taxCalculationService;
+        this.requestReader = objectMapper.readerFor(TaxAssessmentRequest.class);
+        this.resultWriter = objectMapper.writerFor(TaxResult.class);
+        ObjectWriter requestWriter = objectMapper.writerFor(TaxAssessmentRequest.class);
+        for (long income : INCOMES) {
+            BigDecimal amount = BigDecimal.valueOf(income);
+            List<Person> people = List.of(
+                    new FullTimeEmployee(-1L, PERSON_NAME, EMAIL, amount),
+                    new Contractor(-1L, PERSON_NAME, EMAIL, amount.movePointLeft(3), 1000),
+                    new SelfEmployed(-1L, PERSON_NAME, EMAIL, amount, "Consultant"),
+                    new BusinessOwner(-1L, PERSON_NAME, EMAIL, amount.multiply(BigDecimal.TEN), "Retail"));
+            for (Person person : people) {
+                for (TaxRegime regime : TaxRegime.values()) {
+                    requests.add(requestWriter.writeValueAsBytes(new TaxAssessmentRequest(person, regime)));
+                }
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return "tax-calculation";
+    }
+
+    @Override
+    public void run() throws Exception {
+        for (byte[] json : requests) {
+            TaxAssessmentRequest request = requestReader.readValue(json);
+            resultWriter.writeValueAsBytes(taxCalculationService.calculateTax(request.person(), request.regime()));
+        }
+    }
+}
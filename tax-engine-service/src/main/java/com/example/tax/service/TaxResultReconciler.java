@@ -0,0 +1,96 @@
+package com.example.tax.service;
+
+import com.example.tax.client.PeopleClient;
+import com.example.tax.core.TaxConstants;
+import com.example.tax.entity.TaxResultEntity;
+import com.example.tax.repository.TaxResultRepository;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Background pass over the tax result store that covers updates nobody told us about:
+ * <ol>
+ *   <li>rows computed under an older tax table get an active-table counterpart, computed from their snapshot;</li>
+ *   <li>rows not verified within {@code app.tax.store.max-age} are checked against people-service, oldest first.
+ *       Unchanged people are only re-stamped; changed ones are recomputed; deleted ones are removed.</li>
+ * </ol>
+ * Each run handles at most {@code app.tax.store.reconcile-batch-size} rows per step. Verification calls the plain
+ * Feign client rather than {@code ResilientPeopleClient}, whose last-known-copy fallback would confirm a snapshot
+ * without having seen the source; the run simply stops at the first failure and resumes next time.
+ */
+@Slf4j
+@Component
+public class TaxResultReconciler {
+
+    private final TaxResultRepository repository;
+    private final TaxResultStore store;
+    private final PeopleClient peopleClient;
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final int batchSize;
+
+    public TaxResultReconciler(TaxResultRepository repository, TaxResultStore store, PeopleClient peopleClient,
+                               @Value("${app.tax.store.reconcile-enabled:true}") boolean enabled,
+                               @Value("${app.tax.store.max-age:PT15M}") Duration maxAge,
+                               @Value("${app.tax.store.reconcile-batch-size:500}") int batchSize) {
+        this.repository = repository;
+        this.store = store;
+        this.peopleClient = peopleClient;
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.tax.store.reconcile-interval:PT1M}",
+            fixedDelayString = "${app.tax.store.reconcile-interval:PT1M}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        int migrated = applyActiveTable();
+        int verified = verifyStale();
+        if (log.isInfoEnabled() && migrated + verified > 0) {
+            log.info("Tax result reconciliation: {} rows moved to tax table {}, {} people verified",
+                    migrated, TaxConstants.TABLE_VERSION, verified);
+        }
+    }
+
+    int applyActiveTable() {
+        List<TaxResultEntity> superseded =
+                repository.findSuperseded(TaxConstants.TABLE_VERSION, PageRequest.of(0, batchSize));
+        superseded.forEach(store::recomputeForActiveTable);
+        return superseded.size();
+    }
+
+    int verifyStale() {
+        Set<Long> personIds = new LinkedHashSet<>();
+        repository.findByIdTableVersionAndVerifiedAtBeforeOrderByVerifiedAtAsc(
+                        TaxConstants.TABLE_VERSION, Instant.now().minus(maxAge), PageRequest.of(0, batchSize))
+                .forEach(row -> personIds.add(row.getId().getPersonId()));
+        int verified = 0;
+        for (Long personId : personIds) {
+            try {
+                store.refresh(peopleClient.getPersonById(personId));
+            } catch (FeignException.NotFound ex) {
+                store.remove(personId);
+            } catch (RuntimeException ex) {
+                if (log.isWarnEnabled()) {
+                    log.warn("Stopping tax result verification after {} people: {}", verified, ex.toString());
+                }
+                break;
+            }
+            verified++;
+        }
+        return verified;
+    }
+}
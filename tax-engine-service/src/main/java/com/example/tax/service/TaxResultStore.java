@@ -0,0 +1,263 @@
+package com.example.tax.service;
+
+import com.example.common.domain.Person;
+import com.example.common.domain.TaxResult;
+import com.example.common.enums.TaxRegime;
+import com.example.common.stream.ChangeStream;
+import com.example.tax.client.PeopleClient;
+import com.example.tax.client.ResilientPeopleClient;
+import com.example.tax.core.TaxConstants;
+import com.example.tax.entity.TaxResultEntity;
+import com.example.tax.entity.TaxResultKey;
+import com.example.tax.model.StoredTaxResult;
+import com.example.tax.repository.TaxResultRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Materialized tax results keyed by person, regime and tax-table version ({@link TaxConstants#TABLE_VERSION}).
+ * <p>
+ * Reads are served from the store. A miss fetches the person once and materializes every regime; a row left over
+ * from an older tax table is recomputed from its person snapshot without calling people-service. A refresh only
+ * recomputes when the person JSON differs from the stored snapshot; otherwise it just records the confirmation.
+ * {@link PeopleChangeFollower} refreshes the people it holds results for as people-service reports changes, and {@link TaxResultReconciler}
+ * drives refreshes for rows that nobody has confirmed recently.
+ * <p>
+ * Every (re)computed row is published to the {@link ChangeStream} as a {@code result} event, and dropped results as
+ * {@code removed}; confirmations without a new result are not.
+ */
+@Slf4j
+@Service
+public class TaxResultStore {
+
+    public static final String RECOMPUTATIONS = "tax.store.recomputations";
+    public static final String READS = "tax.store.reads";
+
+    /** Ids per {@code IN} list when checking which people have stored results. */
+    static final int LOOKUP_CHUNK_SIZE = 1_000;
+
+    /** Why a result was (re)computed; the {@code reason} tag of {@value #RECOMPUTATIONS}. */
+    public enum Reason {
+        MISS, PERSON_CHANGED, TABLE_VERSION
+    }
+
+    private final TaxResultRepository repository;
+    private final TaxCalculationService taxCalculationService;
+    private final ResilientPeopleClient peopleClient;
+    private final PeopleClient plainPeopleClient;
+    private final ObjectWriter personWriter;
+    private final ObjectReader personReader;
+    private final Duration maxAge;
+    private final ChangeStream changeStream;
+    private final Map<Reason, Counter> recomputations = new EnumMap<>(Reason.class);
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+
+    public TaxResultStore(TaxResultRepository repository, TaxCalculationService taxCalculationService,
+                          ResilientPeopleClient peopleClient, PeopleClient plainPeopleClient, ObjectMapper objectMapper,
+                          @Value("${app.tax.store.max-age:PT15M}") Duration maxAge,
+                          ChangeStream changeStream, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.taxCalculationService = taxCalculationService;
+        this.peopleClient = peopleClient;
+        this.plainPeopleClient = plainPeopleClient;
+        this.personWriter = objectMapper.writerFor(Person.class);
+        this.personReader = objectMapper.readerFor(Person.class);
+        this.maxAge = maxAge;
+        this.changeStream = changeStream;
+        for (Reason reason : Reason.values()) {
+            recomputations.put(reason, Counter.builder(RECOMPUTATIONS)
+                    .description("Tax results written to the materialized store")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.hits = readCounter(meterRegistry, "hit");
+        this.staleHits = readCounter(meterRegistry, "stale");
+        this.misses = readCounter(meterRegistry, "miss");
+    }
+
+    public StoredTaxResult get(Long personId, TaxRegime regime) {
+        TaxResultEntity row = repository.findById(key(personId, regime)).orElse(null);
+        if (row != null) {
+            StoredTaxResult result = view(row);
+            (result.stale() ? staleHits : hits).increment();
+            return result;
+        }
+        misses.increment();
+        TaxResultEntity previous = repository.findFirstByIdPersonIdAndIdRegimeOrderByComputedAtDesc(personId, regime);
+        return view(previous != null
+                ? recomputeForActiveTable(previous)
+                : refresh(peopleClient.getPersonById(personId)).get(regime));
+    }
+
+    /**
+     * Brings every regime of {@code person} up to date under the active tax table and returns the current rows.
+     * Rows whose snapshot matches are only marked verified.
+     */
+    public Map<TaxRegime, TaxResultEntity> refresh(Person person) {
+        String snapshot = snapshot(person);
+        Instant now = now();
+        Map<TaxRegime, TaxResultEntity> rows = new EnumMap<>(TaxRegime.class);
+        for (TaxRegime regime : TaxRegime.values()) {
+            TaxResultKey key = key(person.id(), regime);
+            TaxResultEntity row = repository.findById(key).orElse(null);
+            if (row != null && row.getPersonSnapshot().equals(snapshot)) {
+                row.setVerifiedAt(now);
+                rows.put(regime, save(row));
+            } else {
+                Reason reason = row == null ? Reason.MISS : Reason.PERSON_CHANGED;
+                row = new TaxResultEntity(key, snapshot, taxCalculationService.calculateTax(person, regime), now);
+                recomputations.get(reason).increment();
+                rows.put(regime, published(save(row)));
+            }
+        }
+        return rows;
+    }
+
+    /** Computes the active-table row for a result stored under an older table, keeping its verification time. */
+    public TaxResultEntity recomputeForActiveTable(TaxResultEntity previous) {
+        TaxRegime regime = previous.getId().getRegime();
+        TaxResult result = taxCalculationService.calculateTax(person(previous.getPersonSnapshot()), regime);
+        TaxResultEntity row = new TaxResultEntity(key(previous.getId().getPersonId(), regime),
+                previous.getPersonSnapshot(), result, now());
+        row.setVerifiedAt(previous.getVerifiedAt());
+        recomputations.get(Reason.TABLE_VERSION).increment();
+        return published(save(row));
+    }
+
+    /**
+     * Change hook for a person people-service reports changed: refreshes its results only if it has any, so people
+     * nobody asked about are not computed. Returns whether it had stored results.
+     */
+    public boolean refreshIfStored(Person person) {
+        if (!repository.existsByIdPersonId(person.id())) {
+            return false;
+        }
+        refresh(person);
+        return true;
+    }
+
+    /**
+     * Change hook for people reported changed by id: re-reads, one at a time, only those with stored results, which
+     * are looked up {@value #LOOKUP_CHUNK_SIZE} ids per query. Returns how many were re-read.
+     */
+    public int refreshIfStored(Collection<Long> personIds) {
+        List<Long> ids = List.copyOf(personIds);
+        int refreshed = 0;
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            for (Long personId : repository.findStoredPersonIds(
+                    ids.subList(from, Math.min(ids.size(), from + LOOKUP_CHUNK_SIZE)))) {
+                refresh(personId);
+                refreshed++;
+            }
+        }
+        return refreshed;
+    }
+
+    /**
+     * Change hook: re-reads the person from people-service; results of a person that no longer exists are dropped.
+     * Like the reconciler it calls the plain Feign client, so a failure propagates instead of the last known copy
+     * being confirmed as verified.
+     */
+    public void refresh(Long personId) {
+        try {
+            refresh(plainPeopleClient.getPersonById(personId));
+        } catch (FeignException.NotFound ex) {
+            remove(personId);
+        }
+    }
+
+    /**
+     * Marks every stored row unverified, for changes that cannot be traced to single people (a bulk update by type,
+     * or events missed by the change stream): reads report them stale until the reconciler has re-checked them.
+     */
+    public int markAllUnverified() {
+        int marked = repository.markVerifiedAt(Instant.EPOCH);
+        if (log.isInfoEnabled()) {
+            log.info("Marked {} stored tax results unverified", marked);
+        }
+        return marked;
+    }
+
+    /** Drops every stored result of a person that no longer exists. */
+    public void remove(Long personId) {
+        long removed = repository.deleteByIdPersonId(personId);
+        if (removed > 0) {
+            changeStream.publish("removed", personId, Map.of("personId", personId));
+            if (log.isInfoEnabled()) {
+                log.info("Removed {} stored tax results of deleted person {}", removed, personId);
+            }
+        }
+    }
+
+    private TaxResultEntity save(TaxResultEntity row) {
+        try {
+            return repository.save(row);
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent read-through inserted the same key first; both computed the same result.
+            return row;
+        }
+    }
+
+    private TaxResultEntity published(TaxResultEntity row) {
+        changeStream.publish("result", row.getId().getPersonId(), view(row));
+        return row;
+    }
+
+    /** Database timestamps keep microseconds; truncating up front makes a fresh row read back identically. */
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private StoredTaxResult view(TaxResultEntity row) {
+        boolean stale = row.getVerifiedAt().isBefore(now().minus(maxAge));
+        return new StoredTaxResult(row.getId().getPersonId(), row.getId().getRegime(), row.getId().getTableVersion(),
+                row.toTaxResult(), row.getComputedAt(), row.getVerifiedAt(), stale);
+    }
+
+    private String snapshot(Person person) {
+        try {
+            return personWriter.writeValueAsString(person);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize person " + person.id(), ex);
+        }
+    }
+
+    private Person person(String snapshot) {
+        try {
+            return personReader.readValue(snapshot);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Corrupt person snapshot in tax result store", ex);
+        }
+    }
+
+    private static TaxResultKey key(Long personId, TaxRegime regime) {
+        return new TaxResultKey(personId, regime, TaxConstants.TABLE_VERSION);
+    }
+
+    private static Counter readCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder(READS)
+                .description("Tax results served from the materialized store")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.tax.service;
+
+import com.example.common.enums.TaxRegime;
+import com.example.common.exception.ResourceNotFoundException;
+import com.example.tax.core.TaxCalculator;
+import com.example.tax.core.TaxConstants;
+import com.example.tax.entity.TdsLedgerEntity;
+import com.example.tax.entity.TdsLedgerKey;
+import com.example.tax.model.PayrollEntry;
+import com.example.tax.model.PayrollResult;
+import com.example.tax.model.PayrollRun;
+import com.example.tax.model.TaxPolicy;
+import com.example.tax.model.YearToDate;
+import com.example.tax.repository.TdsLedgerRepository;
+import com.example.tax.simulation.CompiledPolicy;
+import com.example.tax.simulation.PopulationSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monthly TDS on salary (sec. 192), worked out incrementally from each person's {@link TdsLedgerEntity}.
+ * <p>
+ * The annual liability is projected as income paid so far plus this month's pay for every remaining month, and is
+ * only recomputed when something it depends on changed: pay, regime, persona, tax table, or a skipped month.
+ * Withholding spreads what is still due evenly over this and the remaining months, so a mid-year raise is absorbed
+ * by the months left and March settles the rest exactly. A whole payroll is one batch: the ledgers are read
+ * {@value #LOOKUP_CHUNK_SIZE} keys per query (databases cap or slow down on larger IN lists), evaluated on
+ * precompiled policies in paise, and written back in one batched write, in a single transaction.
+ */
+@Service
+public class TdsWithholdingService {
+
+    public static final String PAYROLL_TIMER = "tax.tds.payroll";
+    public static final String REPROJECTIONS = "tax.tds.reprojections";
+
+    static final int MONTHS = 12;
+    static final int LOOKUP_CHUNK_SIZE = 1_000;
+
+    private final TdsLedgerRepository repository;
+    private final Map<TaxRegime, CompiledPolicy> policies = new EnumMap<>(TaxRegime.class);
+    private final Timer payrolls;
+    private final Counter reprojections;
+
+    public TdsWithholdingService(TdsLedgerRepository repository, TaxCalculator taxCalculator,
+                                 MeterRegistry meterRegistry) {
+        this.repository = repository;
+        for (TaxRegime regime : TaxRegime.values()) {
+            policies.put(regime, new CompiledPolicy(TaxPolicy.of(taxCalculator.strategy(regime))));
+        }
+        this.payrolls = Timer.builder(PAYROLL_TIMER)
+                .description("Time to work out and record the TDS of one monthly payroll")
+                .register(meterRegistry);
+        this.reprojections = Counter.builder(REPROJECTIONS)
+                .description("Annual liabilities recomputed because a projection input changed")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public PayrollResult runPayroll(PayrollRun run) {
+        long start = System.nanoTime();
+        validate(run);
+        Map<Long, TdsLedgerEntity> ledgers = load(run);
+
+        Instant now = Instant.now();
+        List<TdsLedgerEntity> changed = new ArrayList<>(run.entries().size());
+        List<PayrollResult.Withholding> withholdings = new ArrayList<>(run.entries().size());
+        long total = 0;
+        int reprojected = 0;
+        for (PayrollEntry entry : run.entries()) {
+            TdsLedgerEntity ledger = ledgers.computeIfAbsent(entry.personId(),
+                    id -> new TdsLedgerEntity(new TdsLedgerKey(id, run.fiscalYear())));
+            if (ledger.getLastMonth() >= run.month()) {
+                throw new IllegalArgumentException("Month " + run.month() + " of FY" + run.fiscalYear()
+                        + " is already processed for person " + entry.personId());
+            }
+            long pay = PopulationSnapshot.toPaise(entry.grossPay());
+            long incomeToDate = ledger.getIncomePaid() + pay;
+            if (needsProjection(ledger, entry, pay, run.month())) {
+                long projectedIncome = incomeToDate + pay * (MONTHS - run.month());
+                ledger.setProjectedTax(policies.get(entry.regime())
+                        .taxPaise(projectedIncome, entry.personType().ordinal()));
+                reprojected++;
+            }
+            long tds = share(ledger.getProjectedTax() - ledger.getTaxWithheld(), run.month());
+            ledger.setRegime(entry.regime());
+            ledger.setPersonType(entry.personType());
+            ledger.setTableVersion(TaxConstants.TABLE_VERSION);
+            ledger.setLastMonth(run.month());
+            ledger.setMonthlyPay(pay);
+            ledger.setIncomePaid(incomeToDate);
+            ledger.setTaxWithheld(ledger.getTaxWithheld() + tds);
+            ledger.setUpdatedAt(now);
+            changed.add(ledger);
+            total += tds;
+            withholdings.add(new PayrollResult.Withholding(entry.personId(), rupees(tds), rupees(incomeToDate),
+                    rupees(ledger.getTaxWithheld()), rupees(ledger.getProjectedTax())));
+        }
+        repository.saveAll(changed);
+        reprojections.increment(reprojected);
+        long elapsed = System.nanoTime() - start;
+        payrolls.record(elapsed, TimeUnit.NANOSECONDS);
+        return new PayrollResult(run.fiscalYear(), run.month(), withholdings, rupees(total), reprojected,
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /** Every ledger the run touches that already exists, by person id. */
+    private Map<Long, TdsLedgerEntity> load(PayrollRun run) {
+        List<TdsLedgerKey> keys = run.entries().stream()
+                .map(entry -> new TdsLedgerKey(entry.personId(), run.fiscalYear()))
+                .toList();
+        Map<Long, TdsLedgerEntity> ledgers = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += LOOKUP_CHUNK_SIZE) {
+            repository.findAllById(keys.subList(from, Math.min(keys.size(), from + LOOKUP_CHUNK_SIZE)))
+                    .forEach(ledger -> ledgers.put(ledger.getId().getPersonId(), ledger));
+        }
+        return ledgers;
+    }
+
+    public YearToDate yearToDate(Long personId, int fiscalYear) {
+        TdsLedgerEntity ledger = repository.findById(new TdsLedgerKey(personId, fiscalYear))
+                .orElseThrow(() -> new ResourceNotFoundException("TDS ledger for FY" + fiscalYear, personId));
+        return new YearToDate(personId, fiscalYear, ledger.getRegime(), ledger.getLastMonth(),
+                rupees(ledger.getIncomePaid()), rupees(ledger.getTaxWithheld()), rupees(ledger.getProjectedTax()),
+                ledger.getUpdatedAt());
+    }
+
+    /** The stored projection still holds only if every input it was made from is unchanged. */
+    private static boolean needsProjection(TdsLedgerEntity ledger, PayrollEntry entry, long pay, int month) {
+        return ledger.getLastMonth() != month - 1
+                || ledger.getMonthlyPay() != pay
+                || ledger.getRegime() != entry.regime()
+                || ledger.getPersonType() != entry.personType()
+                || !TaxConstants.TABLE_VERSION.equals(ledger.getTableVersion());
+    }
+
+    /** Equal part of what is still due over this and the remaining months, rounded to the paisa. */
+    static long share(long due, int month) {
+        if (due <= 0) {
+            return 0;
+        }
+        long monthsLeft = MONTHS - month + 1L;
+        return (due + monthsLeft / 2) / monthsLeft;
+    }
+
+    private static void validate(PayrollRun run) {
+        if (run.month() < 1 || run.month() > MONTHS) {
+            throw new IllegalArgumentException("month must be 1 (April) to 12 (March), got " + run.month());
+        }
+        if (run.entries() == null || run.entries().isEmpty()) {
+            throw new IllegalArgumentException("A payroll run needs at least one entry");
+        }
+        for (PayrollEntry entry : run.entries()) {
+            if (entry.personId() == null || entry.personType() == null || entry.regime() == null
+                    || entry.grossPay() == null || entry.grossPay().signum() < 0) {
+                throw new IllegalArgumentException("Each entry needs personId, personType, regime and a "
+                        + "non-negative grossPay: " + entry);
+            }
+        }
+    }
+
+    private static BigDecimal rupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+}
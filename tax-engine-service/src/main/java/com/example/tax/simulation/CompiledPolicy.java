@@ -0,0 +1,96 @@
+package com.example.tax.simulation;
+
+import com.example.common.enums.PersonType;
+import com.example.tax.core.TaxConstants;
+import com.example.tax.model.TaxPolicy;
+import com.example.tax.core.TaxSlab;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A {@link TaxPolicy} flattened into paise and basis points, so one person's liability is a handful of long
+ * multiplications with no allocation. Every rounding step mirrors {@code TaxCalculationService} (HALF_UP to the
+ * paisa after deductions, after the slab sum and after cess), so results agree to the paisa.
+ */
+public final class CompiledPolicy {
+
+    static final long BASIS_POINTS = 10_000;
+    private static final long HALF = BASIS_POINTS / 2;
+
+    private final long[] slabLow;
+    private final long[] slabHigh;
+    private final long[] slabRate;
+    private final long rebateLimit;
+    private final long cessRate;
+    // Per persona ordinal: deduction = fixed + round(income * rate)
+    private final long[] fixedDeduction = new long[PersonType.values().length];
+    private final long[] deductionRate = new long[PersonType.values().length];
+
+    public CompiledPolicy(TaxPolicy policy) {
+        List<TaxSlab> slabs = policy.slabs();
+        if (slabs == null || slabs.isEmpty()) {
+            throw new IllegalArgumentException("A tax policy needs at least one slab");
+        }
+        slabLow = new long[slabs.size()];
+        slabHigh = new long[slabs.size()];
+        slabRate = new long[slabs.size()];
+        for (int i = 0; i < slabs.size(); i++) {
+            TaxSlab slab = slabs.get(i);
+            slabLow[i] = paise(slab.lowLimit());
+            slabHigh[i] = paise(slab.highLimit());
+            slabRate[i] = basisPoints(slab.rate());
+            if (slabLow[i] < 0 || slabHigh[i] <= slabLow[i]) {
+                throw new IllegalArgumentException("Slab limits must satisfy 0 <= lowLimit < highLimit: " + slab);
+            }
+        }
+        rebateLimit = paise(policy.rebateLimit());
+        cessRate = basisPoints(TaxConstants.HEALTH_AND_EDU_CESS_RATE);
+        fixedDeduction[PersonType.EMPLOYEE_FULL_TIME.ordinal()] = paise(policy.standardDeduction());
+        deductionRate[PersonType.SELF_EMPLOYED.ordinal()] =
+                BASIS_POINTS - basisPoints(TaxConstants.Presumptive.SEC_44ADA_PROFESSIONAL_RATE);
+        deductionRate[PersonType.BUSINESS_OWNER.ordinal()] =
+                BASIS_POINTS - basisPoints(TaxConstants.Presumptive.SEC_44AD_BUSINESS_DIGITAL_RATE);
+    }
+
+    /** Total liability (base tax plus cess) in paise. */
+    public long taxPaise(long incomePaise, int personaCode) {
+        long deduction = fixedDeduction[personaCode] + round(incomePaise * deductionRate[personaCode]);
+        long taxable = Math.max(0, incomePaise - deduction);
+        if (taxable <= rebateLimit) {
+            return 0;
+        }
+        long scaled = 0;
+        for (int i = 0; i < slabLow.length; i++) {
+            scaled += Math.max(0, Math.min(taxable, slabHigh[i]) - slabLow[i]) * slabRate[i];
+        }
+        long baseTax = round(scaled);
+        return baseTax + round(baseTax * cessRate);
+    }
+
+    private static long round(long scaledByBasisPoints) {
+        return (scaledByBasisPoints + HALF) / BASIS_POINTS;
+    }
+
+    private static long paise(BigDecimal rupees) {
+        if (rupees == null) {
+            return 0;
+        }
+        try {
+            return PopulationSnapshot.toPaise(rupees);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount out of range: " + rupees, ex);
+        }
+    }
+
+    private static long basisPoints(BigDecimal rate) {
+        if (rate == null || rate.signum() < 0 || rate.compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("Rates must be between 0 and 1, got " + rate);
+        }
+        try {
+            return rate.movePointRight(4).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Rates must be whole basis points (0.0001), got " + rate, ex);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.tax.simulation;
+
+import com.example.common.domain.Person;
+import com.example.common.enums.PersonType;
+import com.example.common.population.PopulationGenerator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Columnar, read-only copy of a population: row {@code i} of every array describes one person. Gross annual income
+ * is held in paise (contractors: rate × hours, already multiplied out) and the persona as its {@link PersonType}
+ * ordinal, which is all a slab evaluation needs. One million people take about 9 MB.
+ */
+public final class PopulationSnapshot {
+
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private final long[] incomes;
+    private final byte[] personas;
+    private final int rows;
+
+    private PopulationSnapshot(long[] incomes, byte[] personas, int rows) {
+        this.incomes = incomes;
+        this.personas = personas;
+        this.rows = rows;
+    }
+
+    /** Copies every person of the stream; order is kept. */
+    public static PopulationSnapshot of(Stream<Person> people) {
+        long[] incomes = new long[INITIAL_CAPACITY];
+        byte[] codes = new byte[INITIAL_CAPACITY];
+        int count = 0;
+        Iterator<Person> it = people.iterator();
+        while (it.hasNext()) {
+            if (count == incomes.length) {
+                incomes = Arrays.copyOf(incomes, count * 2);
+                codes = Arrays.copyOf(codes, count * 2);
+            }
+            Person person = it.next();
+            incomes[count] = toPaise(person.income());
+            codes[count] = (byte) person.personType().ordinal();
+            count++;
+        }
+        return new PopulationSnapshot(incomes, codes, count);
+    }
+
+    /** Generates people {@code 0 .. count-1} straight into the columns, in parallel. */
+    public static PopulationSnapshot synthetic(PopulationGenerator generator, int count) {
+        long[] incomes = new long[count];
+        byte[] codes = new byte[count];
+        IntStream.range(0, count).parallel().forEach(i -> {
+            Person person = generator.person(i);
+            incomes[i] = toPaise(person.income());
+            codes[i] = (byte) person.personType().ordinal();
+        });
+        return new PopulationSnapshot(incomes, codes, count);
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    long incomePaise(int row) {
+        return incomes[row];
+    }
+
+    byte personaCode(int row) {
+        return personas[row];
+    }
+
+    public static long toPaise(BigDecimal rupees) {
+        return rupees.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.tax.simulation;
+
+import com.example.tax.model.SimulationResult;
+import com.example.tax.model.TaxPolicy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates a baseline and a candidate {@link TaxPolicy} for every row of a {@link PopulationSnapshot}.
+ * <p>
+ * The snapshot is cut into fixed-size chunks evaluated in parallel; each chunk accumulates into one flat
+ * {@code long[]} of per-band counters, so the inner loop reads primitive columns and allocates nothing. Chunk totals
+ * are summed at the end. All money stays in paise until the result is built.
+ */
+public final class TaxPolicySimulator {
+
+    static final int CHUNK_SIZE = 1 << 16;
+
+    // Counter layout per band inside a chunk accumulator
+    private static final int PEOPLE = 0;
+    private static final int BASELINE = 1;
+    private static final int CANDIDATE = 2;
+    private static final int WINNERS = 3;
+    private static final int LOSERS = 4;
+    private static final int STRIDE = 5;
+
+    private TaxPolicySimulator() {
+    }
+
+    /**
+     * @param bandEdges ascending gross-income boundaries in rupees; {@code n} edges give {@code n + 1} bands
+     */
+    public static SimulationResult simulate(PopulationSnapshot snapshot, TaxPolicy baseline, TaxPolicy candidate,
+                                            List<BigDecimal> bandEdges) {
+        long start = System.nanoTime();
+        CompiledPolicy before = new CompiledPolicy(baseline);
+        CompiledPolicy after = new CompiledPolicy(candidate);
+        long[] edges = bandEdges.stream().mapToLong(PopulationSnapshot::toPaise).toArray();
+        for (int i = 1; i < edges.length; i++) {
+            if (edges[i] <= edges[i - 1]) {
+                throw new IllegalArgumentException("Income band edges must be strictly ascending: " + bandEdges);
+            }
+        }
+        int chunks = (snapshot.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        long[] totals = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> evaluate(snapshot, chunk, edges, before, after))
+                .reduce(new long[(edges.length + 1) * STRIDE], (left, right) -> {
+                    long[] sum = new long[left.length];
+                    Arrays.setAll(sum, i -> left[i] + right[i]);
+                    return sum;
+                });
+        return result(snapshot.size(), totals, edges, System.nanoTime() - start);
+    }
+
+    private static long[] evaluate(PopulationSnapshot snapshot, int chunk, long[] edges, CompiledPolicy before,
+                                   CompiledPolicy after) {
+        long[] acc = new long[(edges.length + 1) * STRIDE];
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(snapshot.size(), from + CHUNK_SIZE);
+        for (int row = from; row < to; row++) {
+            long income = snapshot.incomePaise(row);
+            int persona = snapshot.personaCode(row);
+            long oldTax = before.taxPaise(income, persona);
+            long newTax = after.taxPaise(income, persona);
+            int band = 0;
+            while (band < edges.length && income >= edges[band]) {
+                band++;
+            }
+            int base = band * STRIDE;
+            acc[base + PEOPLE]++;
+            acc[base + BASELINE] += oldTax;
+            acc[base + CANDIDATE] += newTax;
+            acc[base + WINNERS] += newTax < oldTax ? 1 : 0;
+            acc[base + LOSERS] += newTax > oldTax ? 1 : 0;
+        }
+        return acc;
+    }
+
+    private static SimulationResult result(int population, long[] totals, long[] edges, long elapsedNanos) {
+        List<SimulationResult.BandImpact> bands = new ArrayList<>(edges.length + 1);
+        long baseline = 0;
+        long candidate = 0;
+        long winners = 0;
+        long losers = 0;
+        for (int band = 0; band <= edges.length; band++) {
+            int base = band * STRIDE;
+            baseline += totals[base + BASELINE];
+            candidate += totals[base + CANDIDATE];
+            winners += totals[base + WINNERS];
+            losers += totals[base + LOSERS];
+            bands.add(new SimulationResult.BandImpact(
+                    band == 0 ? BigDecimal.ZERO.setScale(2) : rupees(edges[band - 1]),
+                    band == edges.length ? null : rupees(edges[band]),
+                    totals[base + PEOPLE],
+                    rupees(totals[base + BASELINE]),
+                    rupees(totals[base + CANDIDATE]),
+                    rupees(totals[base + CANDIDATE] - totals[base + BASELINE]),
+                    totals[base + WINNERS],
+                    totals[base + LOSERS]));
+        }
+        return new SimulationResult(population, rupees(baseline), rupees(candidate), rupees(candidate - baseline),
+                winners, losers, bands, elapsedNanos / 1_000_000);
+    }
+
+    private static BigDecimal rupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+}
@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
@@ -15,11 +16,14 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.tax.store.follow-people-changes=false")
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 class TaxControllerIntegrationTest {
 
     @Autowired
@@ -48,4 +52,25 @@ class TaxControllerIntegrationTest {
                 .andExpect(jsonPath("$.grossIncome").value(1000000))
                 .andExpect(jsonPath("$.totalTaxLiability").value(44200.0));
     }
+
+    @Test
+    @DisplayName("Should export a bounded calculation latency histogram on the Prometheus endpoint")
+    void shouldExportCalculationHistogram() throws Exception {
+        Person person = new FullTimeEmployee(2L, "Bob", "bob@test.com", new BigDecimal("1500000"));
+        mockMvc.perform(post("/tax/calculate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TaxAssessmentRequest(person, TaxRegime.NEW))))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        long buckets = scrape.lines()
+                .filter(line -> line.startsWith("tax_calculation_seconds_bucket"))
+                .filter(line -> line.contains("person_type=\"EMPLOYEE_FULL_TIME\"") && line.contains("regime=\"NEW\""))
+                .count();
+        assertTrue(buckets > 0, "calculation histogram should be exported");
+        assertTrue(buckets <= 80, "histogram bucket count should stay bounded, was " + buckets);
+    }
 }
@@ -0,0 +1,156 @@
+package com.example.tax.client;
+
+import com.example.common.domain.Person;
+import com.example.common.domain.VersionedPerson;
+import com.example.common.exception.ResourceNotFoundException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.services.people-service.resilience.hedge-delay=100ms",
+        "app.services.people-service.resilience.window-size=4",
+        "app.services.people-service.resilience.open-duration=1m",
+        "app.services.people-service.resilience.retry-backoff=5ms",
+        "app.tax.store.follow-people-changes=false"
+})
+class ResilientPeopleClientTest {
+
+    private static final StubPeopleServer STUB = startStub();
+
+    @Autowired
+    private ResilientPeopleClient client;
+
+    @Autowired
+    private CircuitBreaker peopleServiceCircuitBreaker;
+
+    @Autowired
+    private Retry peopleServiceRetry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void peopleServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("app.services.people-service.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        STUB.reset();
+        peopleServiceCircuitBreaker.reset();
+    }
+
+    @Test
+    @DisplayName("A hedged request answers when the primary is stuck in a slow response")
+    void shouldHedgeSlowPrimary() {
+        STUB.latency(request -> request == 1 ? Duration.ofSeconds(2) : Duration.ZERO);
+        double hedgesBefore = meterRegistry.get("people.client.hedged").counter().count();
+
+        long start = System.nanoTime();
+        Person person = client.getPersonById(11L);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(11L, person.id());
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "hedge should beat the slow primary, took " + elapsed);
+        assertEquals(hedgesBefore + 1, meterRegistry.get("people.client.hedged").counter().count());
+    }
+
+    @Test
+    @DisplayName("An interrupted caller gets a server error, not a client error, and is not retried")
+    void shouldFailInterruptedCallAsServerError() throws Exception {
+        STUB.latency(request -> Duration.ofSeconds(2));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread caller = Thread.ofVirtual().start(() -> {
+            try {
+                client.getPersonById(31L);
+            } catch (RuntimeException ex) {
+                failure.set(ex);
+            }
+        });
+        Thread.sleep(300);
+        caller.interrupt();
+        caller.join(Duration.ofSeconds(5));
+
+        assertInstanceOf(CompletionException.class, failure.get());
+        assertInstanceOf(InterruptedException.class, failure.get().getCause());
+    }
+
+    @Test
+    @DisplayName("404 from people-service is final: no retry, no breaker failure")
+    void shouldNotRetryNotFound() {
+        STUB.status(404);
+
+        long retriedBefore = peopleServiceRetry.getMetrics().getNumberOfFailedCallsWithRetryAttempt();
+
+        assertThrows(ResourceNotFoundException.class, () -> client.getPersonById(404L));
+        assertEquals(retriedBefore, peopleServiceRetry.getMetrics().getNumberOfFailedCallsWithRetryAttempt());
+        assertEquals(0, peopleServiceCircuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    @DisplayName("Open breaker rejects locally and falls back to the last known copy")
+    void shouldOpenBreakerAndServeCachedPerson() {
+        Person fresh = client.getPersonById(7L);
+        STUB.status(500);
+
+        for (int i = 0; i < 10 && peopleServiceCircuitBreaker.getState() != CircuitBreaker.State.OPEN; i++) {
+            assertEquals(fresh, client.getPersonById(7L));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, peopleServiceCircuitBreaker.getState());
+
+        int requestsWhenOpened = STUB.requestCount();
+        assertEquals(fresh, client.getPersonById(7L));
+        assertEquals(requestsWhenOpened, STUB.requestCount(), "open breaker must not reach the network");
+        assertTrue(meterRegistry.get("people.client.rejected").tag("reason", "circuit-open").counter().count() > 0);
+        assertThrows(RuntimeException.class, () -> client.getPersonById(8L), "nothing cached for an unseen id");
+    }
+
+    @Test
+    @DisplayName("A repeated read is conditional and reuses the cached copy on 304")
+    void shouldRevalidateWithETag() {
+        Person first = client.getPersonById(21L);
+        double notModifiedBefore = meterRegistry.get("people.client.not-modified").counter().count();
+
+        assertEquals(first, client.getPersonById(21L));
+        int notModified = STUB.notModifiedCount();
+        assertTrue(notModified > 0);
+        assertTrue(meterRegistry.get("people.client.not-modified").counter().count() > notModifiedBefore);
+
+        STUB.annualSalary("2000000");
+        VersionedPerson changed = client.getVersionedPersonById(21L);
+        assertEquals(1, changed.version());
+        assertEquals(new BigDecimal("2000000"), changed.person().income());
+        assertEquals(notModified, STUB.notModifiedCount(), "a changed record must come back in full");
+    }
+
+    private static StubPeopleServer startStub() {
+        try {
+            return new StubPeopleServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
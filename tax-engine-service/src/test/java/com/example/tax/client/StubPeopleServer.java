@@ -0,0 +1,112 @@
+package com.example.tax.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * In-process stand-in for people-service with injectable latency and status codes.
+ * Every {@code GET /people/{id}} answers with a full-time employee carrying that id, tagged with the stub's record
+ * version, and with 304 when {@code If-None-Match} carries that version.
+ */
+public class StubPeopleServer implements AutoCloseable {
+
+    private static final String DEFAULT_SALARY = "1000000";
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile IntFunction<Duration> latency = request -> Duration.ZERO;
+    private volatile int status = 200;
+    private volatile String annualSalary = DEFAULT_SALARY;
+    private final AtomicInteger version = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    public StubPeopleServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/people/", this::handle);
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @param latency delay per request, keyed by the 1-based request number
+     */
+    void latency(IntFunction<Duration> latency) {
+        this.latency = latency;
+    }
+
+    public void status(int status) {
+        this.status = status;
+    }
+
+    /** Changes the served record, which also bumps its version. */
+    public void annualSalary(String annualSalary) {
+        this.annualSalary = annualSalary;
+        version.incrementAndGet();
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    public int notModifiedCount() {
+        return notModified.get();
+    }
+
+    public void reset() {
+        requests.set(0);
+        latency = request -> Duration.ZERO;
+        status = 200;
+        annualSalary = DEFAULT_SALARY;
+        version.set(0);
+        notModified.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int request = requests.incrementAndGet();
+        try {
+            Thread.sleep(latency.apply(request));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String path = exchange.getRequestURI().getPath();
+        String id = path.substring(path.lastIndexOf('/') + 1);
+        String etag = "\"" + version.get() + "\"";
+        if (status == 200) {
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        byte[] body = status == 200
+                ? ("{\"personType\":\"EMPLOYEE_FULL_TIME\",\"id\":" + id
+                        + ",\"name\":\"Stub " + id + "\",\"email\":\"stub" + id + "@test.com\",\"annualSalary\":" + annualSalary + "}")
+                        .getBytes(StandardCharsets.UTF_8)
+                : ("{\"status\":" + status + "}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
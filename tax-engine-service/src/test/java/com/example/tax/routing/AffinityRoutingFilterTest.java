@@ -0,0 +1,40 @@
+package com.example.tax.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AffinityRoutingFilterTest {
+
+    private static final String SELF = "http://tax-a:8081";
+
+    @Test
+    @DisplayName("An id beyond the range of long is served locally instead of failing in the filter")
+    void shouldServeOversizedIdLocally() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AffinityRoutingFilter filter = new AffinityRoutingFilter(SELF, List.of(SELF, "http://tax-b:8081"), 160,
+                Duration.ofMillis(200), registry);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/tax/results/99999999999999999999999"),
+                new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest(), "request did not reach the local handler");
+        assertEquals(1.0, registry.get(AffinityRoutingFilter.REQUESTS).tag("route", "local").counter().count());
+    }
+
+    @Test
+    @DisplayName("Membership must include this replica")
+    void shouldRejectMembershipWithoutSelf() {
+        assertThrows(IllegalArgumentException.class, () -> new AffinityRoutingFilter(SELF,
+                List.of("http://tax-b:8081"), 160, Duration.ofMillis(200), new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.tax.service;
+
+import com.example.common.domain.FullTimeEmployee;
+import com.example.common.enums.TaxRegime;
+import com.example.tax.repository.TaxResultRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.tax.store.reconcile-enabled=false",
+        "app.tax.store.follow-people-changes=false"
+})
+class PeopleChangeFollowerTest {
+
+    /** What people-service streams on the first connection, then on every reconnect. */
+    private static final String FIRST = """
+            : keepalive
+
+            id: e-1
+            event: created
+            data: {"personType":"EMPLOYEE_FULL_TIME","id":43,"name":"New","email":"f43@test.com",\
+            "annualSalary":700000}
+
+            id: e-2
+            event: updated
+            data: {"personType":"EMPLOYEE_FULL_TIME","id":41,"name":"Followed","email":"f41@test.com",\
+            "annualSalary":1000000}
+
+            id: e-3
+            event: deleted
+            data: {"ids":[42]}
+
+            id: e-4
+            event: bulk-updated
+            data: {"ids":[44,45],"updated":2}
+
+            """;
+    private static final String RESUMED = """
+            id: e-5
+            event: reset
+            data: {"message":"reload"}
+
+            """;
+
+    @Autowired
+    private TaxResultStore store;
+
+    @Autowired
+    private TaxResultRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<String> lastEventIds = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private PeopleChangeFollower follower;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository.deleteAll();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext(PeopleChangeFollower.STREAM_PATH, this::stream);
+        server.start();
+        follower = new PeopleChangeFollower(store, objectMapper, "http://localhost:" + server.getAddress().getPort(),
+                true, Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        follower.stop();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Stream events refresh, drop and invalidate stored results, and a reconnect resumes after the last id")
+    void shouldApplyPeopleChanges() throws InterruptedException {
+        store.refresh(new FullTimeEmployee(41L, "Followed", "f41@test.com", new BigDecimal("900000")));
+        store.refresh(new FullTimeEmployee(42L, "Deleted", "f42@test.com", new BigDecimal("900000")));
+        assertEquals(4, repository.count());
+
+        follower.start();
+
+        await(() -> lastEventIds.contains("e-4"));
+        assertEquals(2, repository.count(), "the created person must not get results nobody asked for");
+        assertTrue(repository.findAll().stream().allMatch(row -> row.getId().getPersonId() == 41L));
+        await(() -> repository.findAll().stream().allMatch(row -> row.getVerifiedAt().equals(Instant.EPOCH)));
+        assertEquals(0, new BigDecimal("1000000").compareTo(store.get(41L, TaxRegime.NEW).result().grossIncome()));
+        assertNull(lastEventIds.get(0), "the first connection starts from the live end");
+    }
+
+    @Test
+    @DisplayName("Changes to people without stored results are skipped without calling people-service")
+    void shouldOnlyRefreshStoredPeople() {
+        // people-service is not running in this test, so any re-read would throw
+        assertEquals(0, store.refreshIfStored(List.of(44L, 45L)));
+        assertFalse(store.refreshIfStored(new FullTimeEmployee(43L, "New", "f43@test.com", new BigDecimal("700000"))));
+        assertEquals(0, repository.count());
+    }
+
+    private void stream(HttpExchange exchange) throws IOException {
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        lastEventIds.add(lastEventId);
+        byte[] body = (lastEventId == null ? FIRST : RESUMED).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for the follower");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -6,28 +6,57 @@ import com.example.common.domain.SelfEmployed;
 import com.example.common.domain.BusinessOwner;
 import com.example.common.enums.TaxRegime;
 import com.example.common.domain.TaxResult;
-import com.example.tax.strategy.NewRegimeStrategy;
-import com.example.tax.strategy.OldRegimeStrategy;
-import com.example.tax.strategy.TaxStrategyFactory;
+import com.example.common.enums.PersonType;
+import com.example.common.population.PopulationGenerator;
+import com.example.common.profiling.AllocationMeter;
+import com.example.tax.core.TaxCalculator;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class TaxCalculationServiceTest {
 
+    /**
+     * Bytes a warm calculation may allocate for the sample person of each persona, about 1.5x what JDK 21 measured.
+     * The figures follow the number of slabs the income reaches; raise them deliberately, not to make a build pass.
+     */
+    private static final Map<TaxRegime, Map<PersonType, Long>> ALLOCATION_BUDGETS = Map.of(
+            TaxRegime.NEW, Map.of(
+                    PersonType.EMPLOYEE_FULL_TIME, 320L,
+                    PersonType.EMPLOYEE_CONTRACTOR, 1_920L,
+                    PersonType.SELF_EMPLOYED, 448L,
+                    PersonType.BUSINESS_OWNER, 1_856L),
+            TaxRegime.OLD, Map.of(
+                    PersonType.EMPLOYEE_FULL_TIME, 1_184L,
+                    PersonType.EMPLOYEE_CONTRACTOR, 1_536L,
+                    PersonType.SELF_EMPLOYED, 832L,
+                    PersonType.BUSINESS_OWNER, 1_600L));
+
+    /** Twice {@link AllocationMeter}'s round-to-round tolerance: below that, two measurements are the same. */
+    private static final long TIMER_SLACK_BYTES = 16;
+
     private TaxCalculationService taxCalculationService;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
-        TaxStrategyFactory factory = new TaxStrategyFactory(List.of(
-                new NewRegimeStrategy(),
-                new OldRegimeStrategy()));
-        taxCalculationService = new TaxCalculationService(factory);
+        meterRegistry = new SimpleMeterRegistry();
+        taxCalculationService = new TaxCalculationService(new TaxCalculator(), meterRegistry);
     }
 
     @Test
@@ -83,4 +112,74 @@ class TaxCalculationServiceTest {
         // 50L * 0.06 = 3L taxable -> Slab 1 (0-3L) -> 0 tax
         assertEquals(0, BigDecimal.ZERO.compareTo(result.totalTaxLiability()));
     }
+
+    @Test
+    @DisplayName("Calculation latency is recorded per regime and persona")
+    void testCalculationTimerTaggedByRegimeAndPersona() {
+        Person doctor = new SelfEmployed(1L, "Dr. Strange", "strange@test.com", new BigDecimal("1000000"), "Doctor");
+        taxCalculationService.calculateTax(doctor, TaxRegime.OLD);
+        taxCalculationService.calculateTax(doctor, TaxRegime.OLD);
+
+        Timer timer = meterRegistry.get(TaxCalculationService.CALCULATION_TIMER)
+                .tag("regime", "OLD")
+                .tag("person.type", "SELF_EMPLOYED")
+                .timer();
+        assertEquals(2, timer.count());
+        assertEquals(0, meterRegistry.get(TaxCalculationService.CALCULATION_TIMER)
+                .tag("regime", "NEW")
+                .tag("person.type", "SELF_EMPLOYED")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("A warm calculation allocates no more than its budget for every persona and regime")
+    void testCalculationAllocationBudget() {
+        assumeTrue(AllocationMeter.isSupported(), "thread allocation counters are not available on this JVM");
+        Map<PersonType, Person> people = new EnumMap<>(PersonType.class);
+        new PopulationGenerator(7).stream(1_000).forEach(person -> people.putIfAbsent(person.personType(), person));
+
+        for (Person person : people.values()) {
+            for (TaxRegime regime : TaxRegime.values()) {
+                AllocationMeter.Measurement allocated = AllocationMeter.measure(20_000, 10_000,
+                        () -> taxCalculationService.calculateTax(person, regime));
+                long budget = ALLOCATION_BUDGETS.get(regime).get(person.personType());
+                assertTrue(allocated.bytesPerOperation() <= budget, () -> person.personType() + " under " + regime
+                        + " allocates " + allocated + ", budget " + budget);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The calculation timer, configured as in production, adds no allocation to a warm calculation")
+    void testCalculationTimerAllocatesNothing() {
+        assumeTrue(AllocationMeter.isSupported(), "thread allocation counters are not available on this JVM");
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        // Same histogram as management.metrics.distribution.*.tax.calculation in application.properties
+        prometheus.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) TimeUnit.MICROSECONDS.toNanos(10))
+                        .maximumExpectedValue((double) TimeUnit.MILLISECONDS.toNanos(50))
+                        .build()
+                        .merge(config);
+            }
+        });
+        SimpleMeterRegistry noTimers = new SimpleMeterRegistry();
+        noTimers.config().meterFilter(MeterFilter.deny());
+        TaxCalculationService timed = new TaxCalculationService(new TaxCalculator(), prometheus);
+        TaxCalculationService untimed = new TaxCalculationService(new TaxCalculator(), noTimers);
+        Person employee = new FullTimeEmployee(1L, "Rich Dev", "rich@test.com", new BigDecimal("2075000"));
+
+        AllocationMeter.Measurement withTimer = AllocationMeter.measure(20_000, 10_000,
+                () -> timed.calculateTax(employee, TaxRegime.NEW));
+        AllocationMeter.Measurement withoutTimer = AllocationMeter.measure(20_000, 10_000,
+                () -> untimed.calculateTax(employee, TaxRegime.NEW));
+
+        assertTrue(withTimer.bytesPerOperation() <= withoutTimer.bytesPerOperation() + TIMER_SLACK_BYTES,
+                () -> "with the timer " + withTimer + ", without " + withoutTimer);
+        assertEquals(20_000 + 10_000L * withTimer.rounds().size(), prometheus.get(TaxCalculationService.CALCULATION_TIMER)
+                .tag("regime", "NEW").tag("person.type", "EMPLOYEE_FULL_TIME").timer().count());
+    }
 }
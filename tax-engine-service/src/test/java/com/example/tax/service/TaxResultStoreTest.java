@@ -0,0 +1,159 @@
+package com.example.tax.service;
+
+import com.example.common.enums.TaxRegime;
+import com.example.tax.client.PeopleClient;
+import com.example.tax.client.StubPeopleServer;
+import com.example.tax.entity.TaxResultEntity;
+import com.example.tax.entity.TaxResultKey;
+import com.example.tax.model.StoredTaxResult;
+import com.example.tax.repository.TaxResultRepository;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.tax.store.reconcile-enabled=false",
+        "app.tax.store.follow-people-changes=false"
+})
+class TaxResultStoreTest {
+
+    private static final StubPeopleServer STUB = startStub();
+
+    @Autowired
+    private TaxResultStore store;
+
+    @Autowired
+    private TaxResultRepository repository;
+
+    @Autowired
+    private PeopleClient peopleClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Treats every row as unverified so each pass checks all of them against the stub. */
+    private TaxResultReconciler reconciler;
+
+    @DynamicPropertySource
+    static void peopleServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("app.services.people-service.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        STUB.reset();
+        repository.deleteAll();
+        reconciler = new TaxResultReconciler(repository, store, peopleClient, true, Duration.ZERO, 100);
+    }
+
+    @Test
+    @DisplayName("A miss fetches the person once and materializes every regime; later reads never leave the store")
+    void shouldServeReadsFromStore() {
+        StoredTaxResult first = store.get(1L, TaxRegime.NEW);
+        int requests = STUB.requestCount(); // one, or two if the cold first call was hedged
+        StoredTaxResult other = store.get(1L, TaxRegime.OLD);
+        StoredTaxResult again = store.get(1L, TaxRegime.NEW);
+
+        assertEquals(requests, STUB.requestCount());
+        assertEquals(0, new BigDecimal("44200.00").compareTo(first.result().totalTaxLiability()));
+        assertEquals(TaxRegime.OLD, other.regime());
+        assertEquals(first.computedAt(), again.computedAt());
+        assertFalse(again.stale());
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    @DisplayName("Reconciliation recomputes only people whose record changed")
+    void shouldRecomputeOnlyChangedPeople() {
+        store.get(2L, TaxRegime.NEW);
+        double before = recomputations(TaxResultStore.Reason.PERSON_CHANGED);
+
+        assertEquals(1, reconciler.verifyStale());
+        assertEquals(before, recomputations(TaxResultStore.Reason.PERSON_CHANGED));
+
+        STUB.annualSalary("2000000");
+        assertEquals(1, reconciler.verifyStale());
+
+        assertEquals(before + 2, recomputations(TaxResultStore.Reason.PERSON_CHANGED));
+        assertEquals(0, new BigDecimal("2000000").compareTo(store.get(2L, TaxRegime.NEW).result().grossIncome()));
+    }
+
+    @Test
+    @DisplayName("A person deleted in people-service loses its stored results")
+    void shouldRemoveDeletedPeople() {
+        store.get(3L, TaxRegime.NEW);
+        STUB.status(404);
+
+        reconciler.verifyStale();
+
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    @DisplayName("Results from an older tax table are recomputed from their snapshot without calling people-service")
+    void shouldMoveToActiveTableFromSnapshot() {
+        store.get(4L, TaxRegime.NEW);
+        TaxResultEntity current = repository.findAll().get(0);
+        TaxResultEntity old = new TaxResultEntity(new TaxResultKey(5L, current.getId().getRegime(), "FY2023-24"),
+                current.getPersonSnapshot().replace("\"id\":4", "\"id\":5"), current.toTaxResult(), Instant.EPOCH);
+        repository.save(old);
+        int requests = STUB.requestCount();
+
+        assertEquals(1, reconciler.applyActiveTable());
+
+        StoredTaxResult moved = store.get(5L, current.getId().getRegime());
+        assertEquals(requests, STUB.requestCount());
+        assertEquals(current.getId().getTableVersion(), moved.tableVersion());
+        assertEquals(Instant.EPOCH, moved.verifiedAt());
+        assertTrue(moved.stale());
+        assertEquals(0, reconciler.applyActiveTable());
+    }
+
+    @Test
+    @DisplayName("The change hook fails while people-service is down instead of confirming a cached copy")
+    void shouldNotVerifyFromFallbackCopy() {
+        StoredTaxResult before = store.get(6L, TaxRegime.NEW);
+        STUB.status(503);
+
+        assertThrows(FeignException.class, () -> store.refresh(6L));
+
+        STUB.reset();
+        assertEquals(before.verifiedAt(), store.get(6L, TaxRegime.NEW).verifiedAt());
+    }
+
+    private double recomputations(TaxResultStore.Reason reason) {
+        return meterRegistry.get(TaxResultStore.RECOMPUTATIONS)
+                .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                .counter()
+                .count();
+    }
+
+    private static StubPeopleServer startStub() {
+        try {
+            return new StubPeopleServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.tax.service;
+
+import com.example.common.domain.FullTimeEmployee;
+import com.example.common.enums.PersonType;
+import com.example.common.enums.TaxRegime;
+import com.example.tax.model.PayrollEntry;
+import com.example.tax.model.PayrollResult;
+import com.example.tax.model.PayrollRun;
+import com.example.tax.repository.TdsLedgerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.tax.store.reconcile-enabled=false",
+        "app.tax.store.follow-people-changes=false"
+})
+class TdsWithholdingServiceTest {
+
+    private static final int FY = 2024;
+
+    @Autowired
+    private TdsWithholdingService tdsService;
+
+    @Autowired
+    private TaxCalculationService taxCalculationService;
+
+    @Autowired
+    private TdsLedgerRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Steady pay is projected once and the year's withholding adds up to the annual liability")
+    void shouldProjectOnceForSteadyPay() {
+        BigDecimal withheld = BigDecimal.ZERO;
+        for (int month = 1; month <= 12; month++) {
+            PayrollResult result = tdsService.runPayroll(run(month, entry(1L, "150000.00"), entry(2L, "40000.00")));
+            assertEquals(month == 1 ? 2 : 0, result.reprojected(), "month " + month);
+            withheld = withheld.add(result.withholdings().get(0).tds());
+        }
+
+        assertEquals(0, annualTax("1800000.00").compareTo(withheld));
+        assertEquals(0, tdsService.yearToDate(2L, FY).taxWithheld().signum(), "below the rebate limit");
+        assertEquals(0, new BigDecimal("1800000.00").compareTo(tdsService.yearToDate(1L, FY).incomePaid()));
+    }
+
+    @Test
+    @DisplayName("A raise re-projects the liability and the remaining months make up the difference")
+    void shouldReprojectOnRaise() {
+        BigDecimal withheld = BigDecimal.ZERO;
+        for (int month = 1; month <= 12; month++) {
+            String pay = month <= 6 ? "100000.00" : "200000.00";
+            PayrollResult result = tdsService.runPayroll(run(month, entry(3L, pay)));
+            assertEquals(month == 1 || month == 7 ? 1 : 0, result.reprojected(), "month " + month);
+            withheld = withheld.add(result.totalWithheld());
+        }
+
+        assertEquals(0, annualTax("1800000.00").compareTo(withheld));
+    }
+
+    @Test
+    @DisplayName("A month is processed only once per person")
+    void shouldRejectRepeatedMonth() {
+        tdsService.runPayroll(run(1, entry(4L, "90000.00")));
+        PayrollRun again = run(1, entry(4L, "90000.00"));
+
+        assertThrows(IllegalArgumentException.class, () -> tdsService.runPayroll(again));
+        assertEquals(1, tdsService.yearToDate(4L, FY).lastMonth());
+    }
+
+    @Test
+    @DisplayName("A payroll larger than one ledger lookup finds every person's ledger")
+    void shouldReadLedgersInChunks() {
+        List<PayrollEntry> entries = LongStream.rangeClosed(1, TdsWithholdingService.LOOKUP_CHUNK_SIZE * 2L + 1)
+                .mapToObj(id -> entry(id, "60000.00"))
+                .toList();
+        tdsService.runPayroll(new PayrollRun(FY, 1, entries));
+
+        PayrollResult second = tdsService.runPayroll(new PayrollRun(FY, 2, entries));
+
+        assertEquals(0, second.reprojected(), "a ledger the chunked read missed would be projected afresh");
+        assertEquals(entries.size(), repository.count());
+    }
+
+    private BigDecimal annualTax(String salary) {
+        return taxCalculationService.calculateTax(
+                new FullTimeEmployee(1L, "Annual", "annual@test.com", new BigDecimal(salary)), TaxRegime.NEW)
+                .totalTaxLiability();
+    }
+
+    private static PayrollRun run(int month, PayrollEntry... entries) {
+        return new PayrollRun(FY, month, List.of(entries));
+    }
+
+    private static PayrollEntry entry(Long personId, String pay) {
+        return new PayrollEntry(personId, PersonType.EMPLOYEE_FULL_TIME, TaxRegime.NEW, new BigDecimal(pay));
+    }
+}
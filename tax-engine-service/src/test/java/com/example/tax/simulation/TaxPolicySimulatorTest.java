@@ -0,0 +1,87 @@
+package com.example.tax.simulation;
+
+import com.example.common.domain.Person;
+import com.example.common.enums.TaxRegime;
+import com.example.common.population.PopulationGenerator;
+import com.example.tax.model.SimulationResult;
+import com.example.tax.model.TaxPolicy;
+import com.example.tax.core.TaxCalculator;
+import com.example.tax.core.TaxSlab;
+import com.example.tax.core.strategy.NewRegimeStrategy;
+import com.example.tax.core.strategy.OldRegimeStrategy;
+import com.example.tax.service.TaxCalculationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxPolicySimulatorTest {
+
+    private static final List<BigDecimal> BANDS = List.of(new BigDecimal("1000000"), new BigDecimal("1500000"));
+
+    private final TaxCalculationService taxCalculationService = new TaxCalculationService(
+            new TaxCalculator(), new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Baseline revenue matches TaxCalculationService to the paisa, for both regimes")
+    void shouldAgreeWithCalculationService() {
+        List<Person> people = new PopulationGenerator(3).stream(3 * TaxPolicySimulator.CHUNK_SIZE / 2).toList();
+        PopulationSnapshot snapshot = PopulationSnapshot.of(people.stream());
+
+        for (TaxRegime regime : TaxRegime.values()) {
+            TaxPolicy policy = TaxPolicy.of(regime == TaxRegime.NEW ? new NewRegimeStrategy() : new OldRegimeStrategy());
+            BigDecimal expected = people.stream()
+                    .map(p -> taxCalculationService.calculateTax(p, regime).totalTaxLiability())
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            SimulationResult result = TaxPolicySimulator.simulate(snapshot, policy, policy, BANDS);
+
+            assertEquals(0, expected.compareTo(result.baselineRevenue()), regime + ": " + result.baselineRevenue());
+            assertEquals(0, result.revenueDelta().signum());
+            assertEquals(0, result.winners() + result.losers());
+            assertEquals(people.size(), result.bands().stream().mapToLong(SimulationResult.BandImpact::people).sum());
+        }
+    }
+
+    @Test
+    @DisplayName("Raising the top rate only costs people in the top slab, banded by gross income")
+    void shouldAttributeDeltaToAffectedBands() {
+        PopulationSnapshot snapshot = PopulationSnapshot.synthetic(new PopulationGenerator(5), 200_000);
+        TaxPolicy current = TaxPolicy.of(new NewRegimeStrategy());
+        List<TaxSlab> slabs = new ArrayList<>(current.slabs());
+        TaxSlab top = slabs.remove(slabs.size() - 1);
+        slabs.add(new TaxSlab(top.lowLimit(), top.highLimit(), new BigDecimal("0.35")));
+        TaxPolicy candidate = new TaxPolicy(current.standardDeduction(), current.rebateLimit(), slabs);
+
+        SimulationResult result = TaxPolicySimulator.simulate(snapshot, current, candidate, BANDS);
+
+        assertTrue(result.revenueDelta().signum() > 0);
+        assertEquals(0, result.winners());
+        assertTrue(result.losers() > 0);
+        SimulationResult.BandImpact lowest = result.bands().get(0);
+        assertEquals(0, lowest.losers(), "nobody under 10L gross reaches a 15L taxable slab");
+        assertEquals(0, lowest.revenueDelta().signum());
+        assertNull(result.bands().get(2).toIncome());
+        assertEquals(0, result.revenueDelta().compareTo(result.bands().stream()
+                .map(SimulationResult.BandImpact::revenueDelta).reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+
+    @Test
+    @DisplayName("Rates finer than a basis point and inverted slabs are rejected")
+    void shouldRejectInvalidPolicies() {
+        PopulationSnapshot snapshot = PopulationSnapshot.synthetic(new PopulationGenerator(1), 10);
+        TaxPolicy current = TaxPolicy.of(new OldRegimeStrategy());
+        TaxPolicy fineRate = new TaxPolicy(BigDecimal.ZERO, BigDecimal.ZERO,
+                List.of(new TaxSlab(BigDecimal.ZERO, new BigDecimal("100000"), new BigDecimal("0.00005"))));
+        TaxPolicy inverted = new TaxPolicy(BigDecimal.ZERO, BigDecimal.ZERO,
+                List.of(new TaxSlab(new BigDecimal("100000"), BigDecimal.ZERO, new BigDecimal("0.1"))));
+
+        assertThrows(IllegalArgumentException.class, () -> TaxPolicySimulator.simulate(snapshot, current, fineRate, BANDS));
+        assertThrows(IllegalArgumentException.class, () -> TaxPolicySimulator.simulate(snapshot, current, inverted, BANDS));
+    }
+}